@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.bench;
+
+import edu.regis.cs390.parser.ParseError;
+import edu.regis.cs390.parser.PredictiveParser;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.tok.SymbolInterner;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parser throughput (scanning included), reported per program parsed and,
+ * through the "nodes" counter, in tree nodes per second. Run with
+ * "-prof gc" for the allocation per program; divide by the statement
+ * count for the allocation per statement.
+ * 
+ * @author CS390_TopDown contributors
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({"100", "10000"})
+    public int statements;
+    
+    @Param({"FLAT", "NESTED", "CHAIN"})
+    public Shape shape;
+    
+    /**
+     * The nesting depth of NESTED programs (FLAT and CHAIN ignore it), up
+     * to near the parser's default limit, CompileLimits.DEFAULT_MAX_DEPTH.
+     */
+    @Param({"16", "256", "900"})
+    public int depth;
+    
+    private char[] text;
+    private int nodeCount;
+    private final SymbolInterner symbols = new SymbolInterner();
+    private Scanner scanner;
+    private PredictiveParser parser;
+    
+    /**
+     * Counts the nodes created, so JMH reports nodes/s.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+        
+        @Setup(Level.Iteration)
+        public void clear() {
+            nodes = 0;
+        }
+    }
+    
+    @Setup
+    public void setup() throws ParseError, IOException {
+        text = Programs.generate(shape, statements, depth).toCharArray();
+        scanner = new Scanner(text, text.length, "bench", symbols);
+        parser = new PredictiveParser(scanner);
+        nodeCount = Programs.countNodes(parse());
+    }
+    
+    @Benchmark
+    public TreeNode parse(Nodes counter) throws ParseError, IOException {
+        counter.nodes += nodeCount;
+        return parse();
+    }
+    
+    private TreeNode parse() throws ParseError, IOException {
+        symbols.clear();
+        scanner.reset(text, text.length, "bench", symbols);
+        parser.reset(scanner);
+        
+        return parser.parse();
+    }
+}
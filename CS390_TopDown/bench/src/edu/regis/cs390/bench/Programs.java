@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.bench;
+
+import edu.regis.cs390.parser.TreeNode;
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * Generates the programs the benchmarks run over. The same shape and size
+ * always produce the same program, and every program is semantically
+ * valid, so each benchmark run does the same work.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class Programs {
+    /**
+     * The least nesting depth of NESTED expressions. At a depth d, one
+     * statement in d / BASE_DEPTH is nested and the others are flat, so a
+     * program's size doesn't grow with its depth.
+     */
+    public static final int BASE_DEPTH = 16;
+    
+    /**
+     * The number of operands of CHAIN expressions.
+     */
+    public static final int CHAIN_LENGTH = 32;
+    
+    /**
+     * The number of variables declared by each program.
+     */
+    private static final int VARIABLES = 64;
+    
+    private static final char[] OPERATORS = {'+', '-', '*', '/'};
+    
+    private Programs() {
+    }
+    
+    /**
+     * Generate a program.
+     * 
+     * @param shape the kind of statements
+     * @param statements the number of statements, declarations included
+     * @param depth the nesting depth of NESTED expressions, at least
+     *   BASE_DEPTH and below CompileLimits.DEFAULT_MAX_DEPTH
+     * @return the program's source text
+     */
+    public static String generate(Shape shape, int statements, int depth) {
+        Random random = new Random(statements * 31L + shape.ordinal());
+        int stride = Math.max(1, depth / BASE_DEPTH);
+        StringBuilder text = new StringBuilder(statements * 32);
+        int declared = Math.min(VARIABLES, statements);
+        
+        for (int i = 0; i < declared; i++)
+            text.append("int v").append(i).append(";\n");
+        
+        for (int i = declared; i < statements; i++) {
+            switch (shape) {
+                case FLAT:
+                    flatStatement(text, random, declared);
+                    break;
+                    
+                case NESTED:
+                    if ((i - declared) % stride != 0) {
+                        flatStatement(text, random, declared);
+                        break;
+                    }
+                    
+                    text.append(variable(random, declared)).append(" := ");
+                    nested(text, random, declared, depth);
+                    text.append(";\n");
+                    break;
+                    
+                default: // CHAIN
+                    text.append(variable(random, declared)).append(" := ")
+                        .append(variable(random, declared));
+                    
+                    for (int j = 1; j < CHAIN_LENGTH; j++)
+                        text.append(' ').append(OPERATORS[random.nextInt(OPERATORS.length)])
+                            .append(' ').append(operand(random, declared));
+                    
+                    text.append(";\n");
+                    break;
+            }
+        }
+        
+        return text.toString();
+    }
+    
+    /**
+     * Return the number of nodes in the given tree.
+     * 
+     * @param tree a parse tree
+     * @return the node count, tree included
+     */
+    public static int countNodes(TreeNode tree) {
+        int count = 0;
+        ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+        pending.push(tree);
+        
+        while (!pending.isEmpty()) {
+            TreeNode node = pending.pop();
+            count++;
+            
+            for (TreeNode child : node.getChildren())
+                pending.push(child);
+        }
+        
+        return count;
+    }
+    
+    private static void flatStatement(StringBuilder text, Random random, int declared) {
+        switch (random.nextInt(4)) {
+            case 0:
+                text.append("read ").append(variable(random, declared)).append(";\n");
+                break;
+                
+            case 1:
+                text.append("write ").append(variable(random, declared)).append(";\n");
+                break;
+                
+            default:
+                text.append(variable(random, declared)).append(" := ")
+                    .append(operand(random, declared)).append(" + ")
+                    .append(operand(random, declared)).append(" * ")
+                    .append(operand(random, declared)).append(";\n");
+                break;
+        }
+    }
+    
+    private static void nested(StringBuilder text, Random random, int declared, int depth) {
+        if (depth == 0) {
+            text.append(operand(random, declared));
+            return;
+        }
+        
+        text.append('(');
+        nested(text, random, declared, depth - 1);
+        text.append(' ').append(OPERATORS[random.nextInt(3)]).append(' ')
+            .append(operand(random, declared)).append(')');
+    }
+    
+    private static String operand(Random random, int declared) {
+        return random.nextBoolean() ? variable(random, declared) 
+                                    : Integer.toString(random.nextInt(1000) + 1);
+    }
+    
+    private static String variable(Random random, int declared) {
+        return "v" + random.nextInt(declared);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.bench;
+
+import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.tok.SymbolInterner;
+import edu.regis.cs390.tok.Token;
+import edu.regis.cs390.tok.TokenType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scanner throughput, reported per program scanned and, through the
+ * "tokens" counter, in tokens per second.
+ * 
+ * @author CS390_TopDown contributors
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScannerBenchmark {
+    @Param({"100", "10000"})
+    public int statements;
+    
+    @Param({"FLAT", "NESTED", "CHAIN"})
+    public Shape shape;
+    
+    /**
+     * The nesting depth of NESTED programs (FLAT and CHAIN ignore it), up
+     * to near the parser's default limit, CompileLimits.DEFAULT_MAX_DEPTH.
+     */
+    @Param({"16", "256", "900"})
+    public int depth;
+    
+    private char[] text;
+    private int tokenCount;
+    private final SymbolInterner symbols = new SymbolInterner();
+    private Scanner scanner;
+    
+    /**
+     * Counts the tokens scanned, so JMH reports tokens/s.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Tokens {
+        public long tokens;
+        
+        @Setup(Level.Iteration)
+        public void clear() {
+            tokens = 0;
+        }
+    }
+    
+    @Setup
+    public void setup() throws IOException {
+        text = Programs.generate(shape, statements, depth).toCharArray();
+        scanner = new Scanner(text, text.length, "bench", symbols);
+        
+        while (scanner.next().type != TokenType.EOF)
+            ;
+        
+        tokenCount = scanner.getTokenCount();
+    }
+    
+    /**
+     * Scan the program with next(), as the parser does.
+     */
+    @Benchmark
+    public int next(Tokens counter) throws IOException {
+        symbols.clear();
+        scanner.reset(text, text.length, "bench", symbols);
+        
+        int lines = 0;
+        
+        for (Token token = scanner.next(); token.type != TokenType.EOF; token = scanner.next())
+            lines += token.line;
+        
+        counter.tokens += tokenCount;
+        return lines;
+    }
+    
+    /**
+     * Scan the program into a list with scanAll().
+     */
+    @Benchmark
+    public ArrayList<Token> scanAll(Tokens counter) throws IOException {
+        symbols.clear();
+        scanner.reset(text, text.length, "bench", symbols);
+        
+        counter.tokens += tokenCount;
+        return scanner.scanAll();
+    }
+}
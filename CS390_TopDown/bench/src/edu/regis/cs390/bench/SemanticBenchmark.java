@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.bench;
+
+import edu.regis.cs390.Semantic.SemanticAnalyzer;
+import edu.regis.cs390.diag.DiagnosticList;
+import edu.regis.cs390.parser.ParseError;
+import edu.regis.cs390.parser.PredictiveParser;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.tok.SymbolInterner;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Semantic analysis throughput of an already parsed program, in programs
+ * per second.
+ * 
+ * analyzeShared() shares identical expression subtrees first (see
+ * HashConser). Sharing rewrites the tree, so it gets a newly parsed tree
+ * on every invocation; its time includes the sharing, not the parse.
+ * 
+ * @author CS390_TopDown contributors
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SemanticBenchmark {
+    @Param({"100", "10000"})
+    public int statements;
+    
+    @Param({"FLAT", "NESTED", "CHAIN"})
+    public Shape shape;
+    
+    /**
+     * The nesting depth of NESTED programs (FLAT and CHAIN ignore it), up
+     * to near the parser's default limit, CompileLimits.DEFAULT_MAX_DEPTH.
+     */
+    @Param({"16", "256", "900"})
+    public int depth;
+    
+    private final SymbolInterner symbols = new SymbolInterner();
+    private final DiagnosticList sink = new DiagnosticList();
+    private TreeNode tree;
+    
+    @Setup
+    public void setup() throws ParseError, IOException {
+        char[] text = Programs.generate(shape, statements, depth).toCharArray();
+        tree = new PredictiveParser(new Scanner(text, text.length, "bench", symbols)).parse();
+    }
+    
+    @Benchmark
+    public int analyze() {
+        sink.clear();
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(tree, symbols, sink);
+        analyzer.analyzeProgram();
+        
+        return analyzer.getErrors();
+    }
+    
+    @Benchmark
+    public int analyzeShared(FreshTree fresh) {
+        sink.clear();
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(fresh.tree, fresh.symbols, sink);
+        analyzer.setShareExpressions(true);
+        analyzer.analyzeProgram();
+        
+        return analyzer.getErrors();
+    }
+    
+    @Benchmark
+    public int analyzeParallel() {
+        sink.clear();
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(tree, symbols, sink);
+        analyzer.analyzeProgram(ForkJoinPool.commonPool());
+        
+        return analyzer.getErrors();
+    }
+    
+    /**
+     * A tree parsed before each invocation, for benchmarks that rewrite it.
+     */
+    @State(Scope.Thread)
+    public static class FreshTree {
+        private final SymbolInterner symbols = new SymbolInterner();
+        private char[] text;
+        private TreeNode tree;
+        
+        @Setup
+        public void generate(SemanticBenchmark benchmark) {
+            text = Programs.generate(benchmark.shape, benchmark.statements, 
+                                      benchmark.depth).toCharArray();
+        }
+        
+        @Setup(Level.Invocation)
+        public void parse() throws ParseError, IOException {
+            tree = new PredictiveParser(new Scanner(text, text.length, "bench", symbols)).parse();
+        }
+    }
+}
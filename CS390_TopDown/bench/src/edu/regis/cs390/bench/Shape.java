@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.bench;
+
+/**
+ * The kinds of program the benchmarks are run over.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public enum Shape {
+    /**
+     * Many short statements: declarations, reads, writes and assignments
+     * of a few operands.
+     */
+    FLAT,
+    
+    /**
+     * Assignments of deeply nested parenthesized expressions.
+     */
+    NESTED,
+    
+    /**
+     * Assignments of long chains of binary operators.
+     */
+    CHAIN
+    ;
+}
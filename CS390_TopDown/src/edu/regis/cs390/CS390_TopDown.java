@@ -5,12 +5,19 @@
  */
 package edu.regis.cs390;
 
+import edu.regis.cs390.Semantic.SemanticAnalyzer;
+import edu.regis.cs390.daemon.CompileDaemon;
+import edu.regis.cs390.driver.BatchDriver;
+import edu.regis.cs390.metrics.CompilerMetrics;
 import edu.regis.cs390.parser.ParseError;
 import edu.regis.cs390.parser.PredictiveParser;
 import edu.regis.cs390.parser.TreeNode;
-import edu.regis.cs390.tok.Token;
 import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.shard.ShardWorker;
+import edu.regis.cs390.watch.WatchCompiler;
 import java.io.IOException;
+import java.util.Arrays;
+import javax.management.JMException;
 
 /**
  * Demonstrates the execution of a simple Scanner and Predictive Parser 
@@ -20,32 +27,53 @@ import java.io.IOException;
  */
 public class CS390_TopDown {
     /**
-     * If true, only Scanning is done, otherwise parsing is also done.
-     */
-    public static final boolean SCANNER_ONLY = false;
-    
-    /**
-     * Entry point that begins a parse
+     * Entry point that begins a parse. With "--daemon", serves compile
+     * requests (see CompileDaemon); with "--watch", recompiles source trees
+     * as they change (see WatchCompiler); with "--shard-worker", compiles
+     * files for a ShardCoordinator; with other arguments, compiles a
+     * batch of files (see BatchDriver), otherwise demonstrates parsing
+     * "Prog1.txt".
+     * With -Dcs390.metrics=true, the CompilerMetrics MBean is registered.
      * 
-     * @param args not used
+     * @param args daemon, watch or BatchDriver options and inputs, or none
      */
     public static void main(String[] args) {
+        if (CompilerMetrics.ENABLED) {
+            try {
+                CompilerMetrics.register();
+            } catch (JMException e) {
+                System.err.println("metrics not registered: " + e);
+            }
+        }
+        
+        if (args.length > 0 && args[0].equals("--daemon"))
+            System.exit(CompileDaemon.run(Arrays.copyOfRange(args, 1, args.length), System.out));
+        
+        if (args.length > 0 && args[0].equals("--shard-worker"))
+            System.exit(ShardWorker.run(Arrays.copyOfRange(args, 1, args.length)));
+        
+        if (args.length > 0 && args[0].equals("--watch"))
+            System.exit(WatchCompiler.run(Arrays.copyOfRange(args, 1, args.length), System.out));
+        
+        if (args.length > 0)
+            System.exit(BatchDriver.run(args, System.out));
+        
         String file = "Prog1.txt";
         
         try {
             Scanner scanner = new Scanner(file);
+            PredictiveParser parser = new PredictiveParser(scanner);
             
-            if (SCANNER_ONLY) {
-                for (Token token : scanner.scanAll())
-                    System.out.println(token.lexeme + " : " + token.type);
-                
-            } else {
-                PredictiveParser parser = new PredictiveParser(scanner);
+            TreeNode parseTree = parser.parse();
             
-                TreeNode parseTree = parser.parse();
-                
-                parseTree.prettyPrint();
-            }
+            System.out.println("Parse Sucessful");
+            
+            parseTree.prettyPrint();
+            
+            SemanticAnalyzer analyzer = 
+                    new SemanticAnalyzer(parseTree, scanner.getSymbols());
+            
+            analyzer.analyzeProgram();
           
         } catch (ParseError e) {
             System.out.println("Parse error: " + e.toString());
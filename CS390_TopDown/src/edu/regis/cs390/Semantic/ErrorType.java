@@ -0,0 +1,26 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.regis.cs390.Semantic;
+
+// kinds of errors reported by the SemanticAnalyzer
+public enum ErrorType {
+	MULTIPLE_DECLARATION("Declaration Error"),
+	NO_DECLARATION("Declaration Error"),
+	BOOLEAN_INT_CASTING("Casting Error"),
+	INT_BOOLEAN_CASTING("Casting Error"),
+	INVALID_CONDITION("Invalid Condition");
+
+	// report heading (e.g. "Casting Error")
+	private final String category;
+
+	ErrorType(String category) {
+		this.category = category;
+	}
+
+	public String getCategory() {
+		return category;
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.regis.cs390.Semantic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.tok.SymbolInterner;
+
+// A semantic analyzer that keeps its results between edits. A def-use
+// graph links each symbol's declarations (VarDecl) to the statements that
+// use or assign it, so when a statement is replaced only that statement
+// and the statements depending on the symbols it (re)declares are checked
+// again; every other statement's diagnostics are reused.
+//
+// Replacement statements must be parsed with the same SymbolInterner, e.g.
+// by parsing the edited line as a one statement program and taking its
+// first statement (see ParseTrees.statements()).
+public class IncrementalSemanticAnalyzer {
+
+	private final SymbolInterner symbols;
+
+	// the program's statements (declarations included), in source order
+	private final ArrayList<TreeNode> statements = new ArrayList<>();
+	// the declaration made by each statement, or null
+	private final ArrayList<VarDecl> declared = new ArrayList<>();
+	// the distinct symbols used by each statement
+	private final ArrayList<int[]> used = new ArrayList<>();
+	// the cached diagnostics of each statement
+	private final ArrayList<List<Diagnostic>> results = new ArrayList<>();
+
+	// def-use graph, indexed by symbol ID: declaring and using statement indexes
+	private final ArrayList<TreeSet<Integer>> declarations = new ArrayList<>();
+	private final ArrayList<HashSet<Integer>> uses = new ArrayList<>();
+
+	// resolves a symbol to its first declaration
+	private final StatementChecker checker = new StatementChecker(this::lookup);
+
+	// number of statements checked by the last analysis or edit
+	private int rechecked;
+
+	public IncrementalSemanticAnalyzer(SymbolInterner symbols) {
+		this.symbols = symbols;
+	}
+
+	// analyze a whole program from scratch, returning its diagnostics
+	public List<Diagnostic> analyzeProgram(TreeNode parseTree) {
+		statements.clear();
+		declared.clear();
+		used.clear();
+		results.clear();
+		declarations.clear();
+		uses.clear();
+
+		for (TreeNode stmt : ParseTrees.statements(parseTree)) {
+			statements.add(stmt);
+			declared.add(null);
+			used.add(new int[0]);
+			results.add(Collections.emptyList());
+			link(statements.size() - 1);
+		}
+
+		rechecked = 0;
+		for (int i = 0; i < statements.size(); i++)
+			recheck(i);
+
+		return getDiagnostics();
+	}
+
+	// replace the statement at the given index, returning the program's diagnostics
+	public List<Diagnostic> replaceStatement(int index, TreeNode stmt) {
+		BitSet dirty = new BitSet();
+		replace(index, stmt, dirty);
+
+		return recheckAll(dirty);
+	}
+
+	// replace the statements at the given indexes by those at the same indexes
+	// of the given list, checking each affected statement once; returns the
+	// program's diagnostics
+	public List<Diagnostic> replaceStatements(BitSet indexes, List<TreeNode> stmts) {
+		BitSet dirty = new BitSet();
+
+		for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1))
+			replace(i, stmts.get(i), dirty);
+
+		return recheckAll(dirty);
+	}
+
+	// get the statement at the given index
+	public TreeNode getStatement(int index) {
+		return statements.get(index);
+	}
+
+	// replace one statement in the def-use graph, marking it and its dependents dirty
+	private void replace(int index, TreeNode stmt, BitSet dirty) {
+		dirty.set(index);
+
+		VarDecl before = declared.get(index);
+		unlink(index);
+		statements.set(index, stmt);
+		link(index);
+		VarDecl after = declared.get(index);
+
+		// a changed declaration affects every statement depending on its symbol
+		if (before != null)
+			markDependents(before.getSymbol(), dirty);
+		if (after != null && (before == null || before.getSymbol() != after.getSymbol()))
+			markDependents(after.getSymbol(), dirty);
+	}
+
+	// recheck the dirty statements, returning the program's diagnostics
+	private List<Diagnostic> recheckAll(BitSet dirty) {
+		rechecked = 0;
+		for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1))
+			recheck(i);
+
+		return getDiagnostics();
+	}
+
+	// get the diagnostics of the whole program, in source order
+	public List<Diagnostic> getDiagnostics() {
+		ArrayList<Diagnostic> all = new ArrayList<>();
+
+		for (List<Diagnostic> stmtResults : results)
+			all.addAll(stmtResults);
+
+		return all;
+	}
+
+	// get the number of statements checked by the last analysis or edit
+	public int getRecheckedCount() {
+		return rechecked;
+	}
+
+	public int getStatementCount() {
+		return statements.size();
+	}
+
+	// add the statement at the given index to the def-use graph
+	private void link(int index) {
+		TreeNode stmt = statements.get(index);
+		TreeNode declaration = ParseTrees.child(stmt, TreeNode.PRODUCTION.DECLARATION);
+
+		if (declaration != null) {
+			VarDecl varDecl = StatementChecker.declaration(declaration);
+			declared.set(index, varDecl);
+			used.set(index, new int[0]);
+			declarationsOf(varDecl.getSymbol()).add(index);
+			return;
+		}
+
+		int[] symbolsUsed = collectUses(stmt);
+		declared.set(index, null);
+		used.set(index, symbolsUsed);
+
+		for (int symbol : symbolsUsed)
+			usesOf(symbol).add(index);
+	}
+
+	// remove the statement at the given index from the def-use graph
+	private void unlink(int index) {
+		VarDecl varDecl = declared.get(index);
+
+		if (varDecl != null)
+			declarationsOf(varDecl.getSymbol()).remove(index);
+
+		for (int symbol : used.get(index))
+			usesOf(symbol).remove(index);
+	}
+
+	// mark the statements that declare or use the given symbol
+	private void markDependents(int symbol, BitSet dirty) {
+		for (int index : declarationsOf(symbol))
+			dirty.set(index);
+
+		for (int index : usesOf(symbol))
+			dirty.set(index);
+	}
+
+	// recompute the diagnostics of the statement at the given index
+	private void recheck(int index) {
+		VarDecl varDecl = declared.get(index);
+		List<Diagnostic> stmtResults;
+
+		if (varDecl == null) {
+			stmtResults = checker.check(statements.get(index));
+
+		} else if (declarationsOf(varDecl.getSymbol()).first() < index) {
+			stmtResults = Collections.singletonList(StatementChecker.diagnostic(
+					ErrorType.MULTIPLE_DECLARATION, symbols.name(varDecl.getSymbol()),
+					varDecl.getNode().firstLine()));
+
+		} else {
+			stmtResults = Collections.emptyList();
+		}
+
+		results.set(index, stmtResults);
+		rechecked++;
+	}
+
+	// get a symbol's first declaration, or null if it isn't declared
+	private VarDecl lookup(int symbol) {
+		if (symbol >= declarations.size() || declarations.get(symbol).isEmpty())
+			return null;
+
+		return declared.get(declarations.get(symbol).first());
+	}
+
+	// get the distinct symbols used within a statement
+	private static int[] collectUses(TreeNode stmt) {
+		BitSet symbolsUsed = new BitSet();
+		ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+		pending.push(stmt);
+
+		while (!pending.isEmpty()) {
+			TreeNode node = pending.pop();
+
+			if (node.type == TreeNode.PRODUCTION.ID)
+				symbolsUsed.set(node.symbol);
+
+			for (TreeNode child : node.getChildren())
+				pending.push(child);
+		}
+
+		return symbolsUsed.stream().toArray();
+	}
+
+	private TreeSet<Integer> declarationsOf(int symbol) {
+		grow(symbol);
+		return declarations.get(symbol);
+	}
+
+	private HashSet<Integer> usesOf(int symbol) {
+		grow(symbol);
+		return uses.get(symbol);
+	}
+
+	// make room in the graph for the given symbol
+	private void grow(int symbol) {
+		while (declarations.size() <= symbol) {
+			declarations.add(new TreeSet<>());
+			uses.add(new HashSet<>());
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.regis.cs390.Semantic;
+
+// An immutable map from int keys (e.g. symbol IDs) to values, built as a
+// hash array mapped trie. put() copies only the path to the changed entry
+// (at most 7 nodes of up to 32 slots), so every version shares structure
+// with the previous one and keeping old versions is cheap. Lookups visit
+// at most one node per 5 bits of hash, i.e. O(log32 n).
+public final class PersistentIntMap<V> {
+
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+
+	@SuppressWarnings("rawtypes")
+	private static final PersistentIntMap EMPTY = new PersistentIntMap<>(null, 0);
+
+	private final Node root;
+	private final int size;
+
+	private PersistentIntMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	// the empty map
+	@SuppressWarnings("unchecked")
+	public static <V> PersistentIntMap<V> empty() {
+		return EMPTY;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// get the value of the given key, or null if there is none
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int hash = mix(key);
+		Node node = root;
+
+		for (int shift = 0; node != null; shift += BITS) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+
+			if ((node.bitmap & bit) == 0)
+				return null;
+
+			Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+
+			if (slot instanceof Leaf) {
+				Leaf leaf = (Leaf) slot;
+				return leaf.key == key ? (V) leaf.value : null;
+			}
+
+			node = (Node) slot;
+		}
+
+		return null;
+	}
+
+	public boolean containsKey(int key) {
+		return get(key) != null;
+	}
+
+	// return a map that also maps the given key to the given (non-null) value
+	public PersistentIntMap<V> put(int key, V value) {
+		Leaf leaf = new Leaf(key, mix(key), value);
+
+		if (root == null)
+			return new PersistentIntMap<>(Node.of(leaf, 0), 1);
+
+		boolean[] added = new boolean[1];
+		Node newRoot = root.put(leaf, 0, added);
+
+		if (newRoot == root)
+			return this;
+
+		return new PersistentIntMap<>(newRoot, added[0] ? size + 1 : size);
+	}
+
+	// spread the key bits; this is a bijection, so distinct keys never have equal hashes
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static final class Leaf {
+		final int key;
+		final int hash;
+		final Object value;
+
+		Leaf(int key, int hash, Object value) {
+			this.key = key;
+			this.hash = hash;
+			this.value = value;
+		}
+	}
+
+	// a trie node, slots hold a Leaf or a Node for each set bit of bitmap
+	private static final class Node {
+		final int bitmap;
+		final Object[] slots;
+
+		Node(int bitmap, Object[] slots) {
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+
+		static Node of(Leaf leaf, int shift) {
+			return new Node(1 << ((leaf.hash >>> shift) & MASK), new Object[] { leaf });
+		}
+
+		// a node at the given shift holding two leaves with different hashes
+		static Node of(Leaf a, Leaf b, int shift) {
+			int bitA = 1 << ((a.hash >>> shift) & MASK);
+			int bitB = 1 << ((b.hash >>> shift) & MASK);
+
+			if (bitA == bitB)
+				return new Node(bitA, new Object[] { of(a, b, shift + BITS) });
+			else if (Integer.compareUnsigned(bitA, bitB) < 0)
+				return new Node(bitA | bitB, new Object[] { a, b });
+			else
+				return new Node(bitA | bitB, new Object[] { b, a });
+		}
+
+		// return a copy of this node with the leaf added (or this node, if unchanged)
+		Node put(Leaf leaf, int shift, boolean[] added) {
+			int bit = 1 << ((leaf.hash >>> shift) & MASK);
+			int index = Integer.bitCount(bitmap & (bit - 1));
+
+			if ((bitmap & bit) == 0) {
+				Object[] copy = new Object[slots.length + 1];
+				System.arraycopy(slots, 0, copy, 0, index);
+				copy[index] = leaf;
+				System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+				added[0] = true;
+				return new Node(bitmap | bit, copy);
+			}
+
+			Object slot = slots[index];
+			Object replacement;
+
+			if (slot instanceof Node) {
+				replacement = ((Node) slot).put(leaf, shift + BITS, added);
+
+			} else {
+				Leaf existing = (Leaf) slot;
+
+				if (existing.key == leaf.key) {
+					if (existing.value == leaf.value)
+						return this;
+					replacement = leaf;
+				} else {
+					replacement = of(existing, leaf, shift + BITS);
+					added[0] = true;
+				}
+			}
+
+			if (replacement == slot)
+				return this;
+
+			Object[] copy = slots.clone();
+			copy[index] = replacement;
+			return new Node(bitmap, copy);
+		}
+	}
+}
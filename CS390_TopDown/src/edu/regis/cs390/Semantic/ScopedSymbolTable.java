@@ -0,0 +1,73 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.regis.cs390.Semantic;
+
+// An immutable, block scoped symbol table from symbol IDs to declarations.
+// Every operation returns a new table sharing structure with this one, so
+// entering a scope is O(1), lookups are O(log32 n), and any table can be
+// kept as a snapshot (e.g. per statement) and shared between threads.
+public final class ScopedSymbolTable {
+
+	private static final ScopedSymbolTable GLOBAL =
+			new ScopedSymbolTable(PersistentIntMap.empty(), PersistentIntMap.empty(), null);
+
+	// every visible declaration, inner scopes shadowing outer ones
+	private final PersistentIntMap<VarDecl> visible;
+	// the declarations of the innermost scope
+	private final PersistentIntMap<VarDecl> local;
+	// the enclosing scope, or null for the global scope
+	private final ScopedSymbolTable parent;
+
+	private ScopedSymbolTable(PersistentIntMap<VarDecl> visible, PersistentIntMap<VarDecl> local,
+			ScopedSymbolTable parent) {
+		this.visible = visible;
+		this.local = local;
+		this.parent = parent;
+	}
+
+	// an empty global scope
+	public static ScopedSymbolTable global() {
+		return GLOBAL;
+	}
+
+	// a table with a new, empty innermost scope
+	public ScopedSymbolTable enterScope() {
+		return new ScopedSymbolTable(visible, PersistentIntMap.empty(), this);
+	}
+
+	// the table as it was before the innermost scope was entered
+	public ScopedSymbolTable exitScope() {
+		if (parent == null)
+			throw new IllegalStateException("exitScope() of the global scope");
+
+		return parent;
+	}
+
+	// a table with the given declaration added to the innermost scope
+	public ScopedSymbolTable declare(VarDecl decl) {
+		return new ScopedSymbolTable(visible.put(decl.getSymbol(), decl),
+				local.put(decl.getSymbol(), decl), parent);
+	}
+
+	// get the visible declaration of a symbol, or null if it isn't declared
+	public VarDecl lookup(int symbol) {
+		return visible.get(symbol);
+	}
+
+	// get the declaration of a symbol in the innermost scope, or null
+	public VarDecl lookupLocal(int symbol) {
+		return local.get(symbol);
+	}
+
+	public boolean isGlobal() {
+		return parent == null;
+	}
+
+	// number of visible symbols
+	public int size() {
+		return visible.size();
+	}
+}
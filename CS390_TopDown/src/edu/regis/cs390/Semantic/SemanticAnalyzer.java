@@ -5,343 +5,266 @@
  */
 package edu.regis.cs390.Semantic;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-
-import scan.Scanner;
-import parser.TreeNode;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.regis.cs390.diag.BufferedDiagnosticSink;
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.DiagnosticSink;
+import edu.regis.cs390.diag.TextRenderer;
+import edu.regis.cs390.limits.CompileLimits;
+import edu.regis.cs390.metrics.CompilerMetrics;
+import edu.regis.cs390.parser.HashConser;
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.tok.SymbolInterner;
 
 public class SemanticAnalyzer {
 
-	private TreeNode parser;
+	// programs with fewer statements are always checked sequentially
+	private static final int PARALLEL_THRESHOLD = 1024;
+
+	private final TreeNode parseTree;
+	private final SymbolInterner symbols;
+	private final DiagnosticSink sink;
+	// true, if the sink was created by (and is flushed by) this analyzer
+	private final boolean ownsSink;
 	private ArrayList<VarDecl> declerations;
-	private ArrayList<Identifier> identifiers;
-	private ArrayList<Assign> assigns;
-	private ArrayList<Exp> conditions;
+	private ArrayList<VarDecl> redeclerations;
+	private ArrayList<TreeNode> statements;
+
+	// the symbol table once all declarations are collected; it is immutable,
+	// so statement checks can share it between threads
+	private ScopedSymbolTable symbolTable;
+	// the symbol table in effect before each statement, in source order
+	private ArrayList<ScopedSymbolTable> snapshots;
 
 	private int errors;
+	// the wall time limit, and the System.nanoTime() after which analysis stops
+	private CompileLimits limits = CompileLimits.DEFAULT;
+	private long deadline = Long.MAX_VALUE;
+
+	// with CompilerMetrics enabled, the errors of each ErrorType (by ordinal)
+	private int[] errorCounts;
+
+	// true, if identical expression subtrees are shared before checking
+	private boolean shareExpressions;
+	// the canonical expression nodes of the last analysis (0 if not shared)
+	private int canonicalNodes;
+
+	// analyze the given parse tree, whose IDs were interned by the given interner,
+	// printing errors to System.err
+	public SemanticAnalyzer(TreeNode parseTree, SymbolInterner symbols) {
+		this(parseTree, symbols,
+				new BufferedDiagnosticSink(new OutputStreamWriter(System.err), new TextRenderer()), true);
+	}
 
-	public SemanticAnalyzer(FileReader file) throws IOException{
-		this.parser = new TreeNode(file);
+	// analyze the given parse tree, reporting errors to the given sink
+	public SemanticAnalyzer(TreeNode parseTree, SymbolInterner symbols, DiagnosticSink sink) {
+		this(parseTree, symbols, sink, false);
 	}
 
-	// get number of errors
+	private SemanticAnalyzer(TreeNode parseTree, SymbolInterner symbols, DiagnosticSink sink, boolean ownsSink) {
+		this.parseTree = parseTree;
+		this.symbols = symbols;
+		this.sink = sink;
+		this.ownsSink = ownsSink;
+	}
+
+	// get number of errors the sink accepted (duplicates aren't counted)
 	public int getErrors() {
 		return errors;
 	}
-	
-	//start semantic analyzer
-	public void analyzeProgram() throws IOException{
-		this.parser.parseProgram();
-		this.declerations = this.parser.getDecelarations();
-		checkDeclerations();
-		this.identifiers = this.parser.getIdentifiers();
-		checkIdenifiers();
-		this.assigns = this.parser.getAssigns();
-		checkAssigns();
-		this.conditions = this.parser.getConditions();
-		checkConditions();	
-	}
-
-	// check program declarations
-	private void checkDeclerations(){
-		for(int i = 0; i < declerations.size(); i++){
-			VarDecl varDecl = declerations.get(i);
-			String idName = varDecl.getId().getName();
 
-			for(int j = i + 1; j < declerations.size(); j ++){
-				VarDecl _varDecl = declerations.get(j);
-				String _idName = _varDecl.getId().getName();
+	// share identical expression subtrees of the parse tree (see HashConser)
+	// before checking, so each distinct expression's type is inferred once
+	public void setShareExpressions(boolean shareExpressions) {
+		this.shareExpressions = shareExpressions;
+	}
 
-				if(idName.equals(_idName))
-					error(ErrorType.MULTIPLE_DECLARATION, _idName);
-			}
-		}
+	// stop analyzing with a LimitExceededException after the given
+	// System.nanoTime() (see CompileLimits.deadline())
+	public void setLimits(CompileLimits limits, long deadline) {
+		this.limits = limits;
+		this.deadline = deadline;
 	}
 
-	// check program identifiers
-	private void checkIdenifiers(){
-		for (Identifier identifier : identifiers) {
-			if(!isIdentifierExists(identifier.getName()))
-				error(ErrorType.NO_DECLARATION, identifier.getName());
-		}
+	// get the symbol table of the analyzed program
+	public ScopedSymbolTable getSymbolTable() {
+		return symbolTable;
 	}
-	
-	// check program conditions
-	private void checkConditions(){
-		for (Exp exp : conditions) {
-			if((exp instanceof MoreThan || exp instanceof MoreThanEqual ||exp instanceof LessThan ||
-					exp instanceof LessThanEqual || exp instanceof NotEqual || exp instanceof Equal))
-				error(ErrorType.INVALID_CONDITION, null);
-		}
-		
+
+	// get the symbol table in effect before the given statement (index in source order)
+	public ScopedSymbolTable getSymbolTable(int statementIndex) {
+		return snapshots.get(statementIndex);
 	}
-	
-	// check if a specific identifier name is exists
-	private boolean isIdentifierExists(String name){
-		for (VarDecl varDecl : declerations) {
-			String idName = varDecl.getId().getName();
-
-			if(idName.equals(name))
-				return true;
-		}
-		return false;
+
+	//start semantic analyzer
+	public void analyzeProgram() {
+		long start = CompilerMetrics.ENABLED ? System.nanoTime() : 0;
+		collectDeclarations();
+		checkDeclerations();
+
+		StatementChecker checker = new StatementChecker(symbolTable::lookup, canonicalNodes);
+		checkStatements(checker);
+
+		publishMetrics(start);
+		flushOwnSink();
 	}
 
-	// type checking of all the assign expressions
-	private void checkAssigns(){
-		for (Assign assign : assigns) {
-			Exp type = assign.getValue();
-			String idName = assign.getId().getName();
-			Type idType = getIdentifierType(idName);
-
-			// assign to int
-			if(idType != null && (idType instanceof IntegerType || idType instanceof IntegerArrayType)){
-
-				// float to int
-				if(type instanceof FloatLiteral)
-					error(ErrorType.FLOAT_INT_CASTING, idName);
-
-				// boolean to int
-				if(type instanceof BooleanLiteral)
-					error(ErrorType.BOOLEAN_INT_CASTING, idName);
-
-				// type(id) to int
-				if(type instanceof IdentifierExp){
-					String _idName = ((IdentifierExp) type).getName();
-					Type _idType = getIdentifierType(_idName);
-
-					if(_idType != null){
-						// float to int
-						if (_idType instanceof FloatType)
-							error(ErrorType.FLOAT_INT_CASTING, idName);
-
-						// boolean to int
-						else if( _idType instanceof BooleanType)
-							error(ErrorType.BOOLEAN_INT_CASTING, idName);
-
-						if(idType instanceof IntegerType)
-							// identifier with array type
-							if (_idType instanceof FloatArrayType || _idType instanceof BooleanArrayType
-									|| _idType instanceof IntegerArrayType || _idType instanceof CharArrayType)
-								error(ErrorType.ARRAY_TO_SINGLE, idName);
-
-						if(idType instanceof IntegerArrayType)
-							// identifier with single type
-							if (_idType instanceof FloatType || _idType instanceof BooleanType
-									|| _idType instanceof IntegerType || _idType instanceof CharType)
-								error(ErrorType.SINGLE_TO_ARRAY, idName);
+	// start semantic analyzer, checking statements in parallel on the given pool
+	public void analyzeProgram(ForkJoinPool pool) {
+		long start = CompilerMetrics.ENABLED ? System.nanoTime() : 0;
+		collectDeclarations();
+		checkDeclerations();
 
-					}
+		StatementChecker checker = new StatementChecker(symbolTable::lookup, canonicalNodes);
 
-				}
-			}
+		if (statements.size() < PARALLEL_THRESHOLD) {
+			checkStatements(checker);
 
-			// assign to float
-			if(idType != null && (idType instanceof FloatType || idType instanceof FloatArrayType)){
+			publishMetrics(start);
+			flushOwnSink();
+			return;
+		}
 
-				// boolean to float
-				if(type instanceof BooleanLiteral)
-					error(ErrorType.BOOLEAN_FLOAT_CASTING, idName);
+		// the symbol table is frozen, so workers only read it; the ordered
+		// collect keeps each statement's findings in source order. Workers
+		// read the clock, and whether the caller was cancelled, every
+		// CHECK_INTERVAL statements.
+		Thread caller = Thread.currentThread();
 
-				// char to float
-				if(type instanceof CharLiteral)
-					error(ErrorType.CHAR_FLOAT_CASTING, idName);
+		List<List<Diagnostic>> findings = pool.submit(() -> IntStream.range(0, statements.size())
+				.parallel()
+				.mapToObj(i -> {
+					TreeNode stmt = statements.get(i);
 
-				if(type instanceof IdentifierExp){
+					if (i % CompileLimits.CHECK_INTERVAL == CompileLimits.CHECK_INTERVAL - 1) {
+						if (caller.isInterrupted())
+							throw new CancellationException("compile cancelled");
 
-					String _idName = ((IdentifierExp) type).getName();
-					Type _idType = getIdentifierType(_idName);
+						limits.checkDeadline(deadline, stmt.firstLine());
+					}
 
-					if(_idType != null){
-						// boolean to float
-						if (_idType instanceof BooleanType)
-							error(ErrorType.BOOLEAN_FLOAT_CASTING, idName);
+					return checker.check(stmt);
+				})
+				.collect(Collectors.toList())).join();
 
-						// char to float
-						else if( _idType instanceof CharType)
-							error(ErrorType.CHAR_FLOAT_CASTING, idName);
+		for (List<Diagnostic> stmtFindings : findings)
+			report(stmtFindings);
 
-						if(idType instanceof FloatType)
-							// identifier with array type
-							if (_idType instanceof FloatArrayType || _idType instanceof BooleanArrayType
-									|| _idType instanceof IntegerArrayType || _idType instanceof CharArrayType)
-								error(ErrorType.ARRAY_TO_SINGLE, idName);
+		publishMetrics(start);
+		flushOwnSink();
+	}
 
-						if(idType instanceof FloatArrayType)
-							// identifier with single type
-							if (_idType instanceof FloatType || _idType instanceof BooleanType
-									|| _idType instanceof IntegerType || _idType instanceof CharType)
-								error(ErrorType.SINGLE_TO_ARRAY, idName);
-					}
-				}
-			}
+	// check the statements in order, reading the clock every CHECK_INTERVAL statements
+	private void checkStatements(StatementChecker checker) {
+		for (int i = 0; i < statements.size(); i++) {
+			TreeNode stmt = statements.get(i);
 
-			// assign to char
-			if(idType != null && (idType instanceof CharType || idType instanceof CharArrayType)){
+			if (i % CompileLimits.CHECK_INTERVAL == CompileLimits.CHECK_INTERVAL - 1)
+				limits.checkDeadline(deadline, stmt.firstLine());
 
-				//int to char
-				if(type instanceof IntegerLiteral)
-					error(ErrorType.INT_CHAR_CASTING, idName);
+			report(checker.check(stmt));
+		}
+	}
 
-				// float to char
-				if(type instanceof FloatLiteral)
-					error(ErrorType.FLOAT_CHAR_CASTING, idName);
+	// collect the program's statements and build the symbol table from its declarations
+	private void collectDeclarations() {
+		declerations = new ArrayList<>();
+		redeclerations = new ArrayList<>();
+		statements = new ArrayList<>();
+		snapshots = new ArrayList<>();
+		symbolTable = ScopedSymbolTable.global();
 
-				// boolean to char
-				if(type instanceof BooleanLiteral)
-					error(ErrorType.BOOLEAN_CHAR_CASTING, idName);
+		canonicalNodes = 0;
 
-				// type(id) to int
-				if(type instanceof IdentifierExp){
-					String _idName = ((IdentifierExp) type).getName();
-					Type _idType = getIdentifierType(_idName);
+		if (CompilerMetrics.ENABLED)
+			errorCounts = new int[ErrorType.values().length];
 
-					if(_idType != null){
+		if (shareExpressions) {
+			HashConser conser = new HashConser();
+			conser.internProgram(parseTree);
+			canonicalNodes = conser.size();
+		}
 
-						// float to char
-						if (_idType instanceof FloatType)
-							error(ErrorType.FLOAT_CHAR_CASTING, idName);
+		for (TreeNode stmt : ParseTrees.statements(parseTree)) {
+			snapshots.add(symbolTable);
 
-						// int to char
-						else if (_idType instanceof IntegerType)
-							error(ErrorType.INT_CHAR_CASTING, idName);
+			TreeNode declaration = ParseTrees.child(stmt, TreeNode.PRODUCTION.DECLARATION);
 
-						// boolean to char
-						else if( _idType instanceof BooleanType)
-							error(ErrorType.BOOLEAN_CHAR_CASTING, idName);
+			if (declaration != null)
+				collectDeclaration(declaration);
+			else
+				statements.add(stmt);
+		}
+	}
 
-						if(idType instanceof CharType)
-							// identifier with array type
-							if (_idType instanceof FloatArrayType || _idType instanceof BooleanArrayType
-									|| _idType instanceof IntegerArrayType || _idType instanceof CharArrayType)
-								error(ErrorType.ARRAY_TO_SINGLE, idName);
+	// record the declaration "int id" or "bool id"
+	private void collectDeclaration(TreeNode declaration) {
+		VarDecl varDecl = StatementChecker.declaration(declaration);
+		declerations.add(varDecl);
 
-						if(idType instanceof CharArrayType)
-							// identifier with single type
-							if (_idType instanceof FloatType || _idType instanceof BooleanType
-									|| _idType instanceof IntegerType || _idType instanceof CharType)
-								error(ErrorType.SINGLE_TO_ARRAY, idName);
-					}
+		// the first declaration in a scope wins
+		if (symbolTable.lookupLocal(varDecl.getSymbol()) == null)
+			symbolTable = symbolTable.declare(varDecl);
+		else
+			redeclerations.add(varDecl);
+	}
 
-				}
-			}
+	// check program declarations
+	private void checkDeclerations(){
+		for (VarDecl varDecl : redeclerations)
+			error(ErrorType.MULTIPLE_DECLARATION, symbols.name(varDecl.getSymbol()),
+					varDecl.getNode().firstLine());
+	}
 
-			// assign to boolean
-			if(idType != null && (idType instanceof BooleanType || idType instanceof BooleanArrayType)){
-				//int to boolean
-				if(type instanceof IntegerLiteral)
-					error(ErrorType.INT_BOOLEAN_CASTING, idName);
-
-				// float to boolean
-				if(type instanceof FloatLiteral)
-					error(ErrorType.FLOAT_BOOLEAN_CASTING, idName);
-
-				// char to boolean
-				if(type instanceof CharLiteral)
-					error(ErrorType.CHAR_BOOLEAN_CASTING, idName);
-
-				// type(id) to int
-				if(type instanceof IdentifierExp){
-					String _idName = ((IdentifierExp) type).getName();
-					Type _idType = getIdentifierType(_idName);
-
-					if(_idType != null){
-
-						// float to boolean
-						if (_idType instanceof FloatType)
-							error(ErrorType.FLOAT_CHAR_CASTING, idName);
-
-						// int to boolean
-						else if (_idType instanceof IntegerType)
-							error(ErrorType.INT_CHAR_CASTING, idName);
-
-						// char to boolean
-						else if( _idType instanceof CharType)
-							error(ErrorType.CHAR_BOOLEAN_CASTING, idName);
-
-						if(idType instanceof BooleanType)
-							// identifier with array type
-							if (_idType instanceof FloatArrayType || _idType instanceof BooleanArrayType
-									|| _idType instanceof IntegerArrayType || _idType instanceof CharArrayType)
-								error(ErrorType.ARRAY_TO_SINGLE, idName);
-
-						if(_idType instanceof BooleanArrayType)
-							// identifier with single type
-							if (_idType instanceof FloatType || _idType instanceof BooleanType
-									|| _idType instanceof IntegerType || _idType instanceof CharType)
-								error(ErrorType.SINGLE_TO_ARRAY, idName);
-					}
+	// report the errors of one statement
+	private void report(List<Diagnostic> findings) {
+		for (Diagnostic finding : findings) {
+			if (!sink.report(finding))
+				continue;
 
-				}
-			}
+			errors++;
 
+			if (CompilerMetrics.ENABLED)
+				errorCounts[ErrorType.valueOf(finding.code).ordinal()]++;
 		}
 	}
 
-	// get identifier type (IntegerType | IntegerArrayType | FloatType | FloatArrayType | CharType | CharArrayType)
-	private Type getIdentifierType(String name){
-		for (VarDecl dec : declerations) {
-			Identifier id = dec.getId();
-			if(id.getName().equals(name))
-				return dec.getType();
-		}
+	// report an error to the diagnostic sink
+	private void error(ErrorType errorType, String parm, int line){
+		if (!sink.report(StatementChecker.diagnostic(errorType, parm, line)))
+			return;
 
-		return null;
+		errors++;
+
+		if (CompilerMetrics.ENABLED)
+			errorCounts[errorType.ordinal()]++;
 	}
 
-	// print errors report
-	private void error(ErrorType errorType, Object parm){
-		errors++;
-		switch (errorType) {
-		case MULTIPLE_DECLARATION:
-			System.err.println("Declaration Error: MULTIPLE_DECLARATION, variable (" + (String) parm + ")");
-			break;
-		case NO_DECLARATION:
-			System.err.println("Declaration Error: NO_DECLARATION, variable (" + (String) parm + ")");
-			break;
-		case FLOAT_INT_CASTING:
-			System.err.println("Casting Error: FLOAT_INT_CASTING, variable (" + parm + ")");
-			break;
-		case BOOLEAN_INT_CASTING:
-			System.err.println("Casting Error: BOOLEAN_INT_CASTING, variable (" + parm + ")");
-			break;
-		case INT_BOOLEAN_CASTING:
-			System.err.println("Casting Error: INT_BOOLEAN_CASTING, variable (" + parm + ")");
-			break;
-		case BOOLEAN_FLOAT_CASTING:
-			System.err.println("Casting Error: BOOLEAN_FLOAT_CASTING, variable (" + parm + ")");
-			break;
-		case FLOAT_BOOLEAN_CASTING:
-			System.err.println("Casting Error: FLOAT_BOOLEAN_CASTING, variable (" + parm + ")");
-			break;
-		case CHAR_FLOAT_CASTING:
-			System.err.println("Casting Error: CHAR_FLOAT_CASTING, variable (" + parm + ")");
-			break;
-		case CHAR_BOOLEAN_CASTING:
-			System.err.println("Casting Error: CHAR_BOOLEAN_CASTING, variable (" + parm + ")");
-			break;
-		case FLOAT_CHAR_CASTING:
-			System.err.println("Casting Error: FLOAT_CHAR_CASTING, variable (" + parm + ")");
-			break;
-		case BOOLEAN_CHAR_CASTING:
-			System.err.println("Casting Error: BOOLEAN_CHAR_CASTING, variable (" + parm + ")");
-			break;
-		case INT_CHAR_CASTING:
-			System.err.println("Casting Error: INT_CHAR_CASTING, variable (" + parm + ")");
-			break;
-		case ARRAY_TO_SINGLE:
-			System.err.println("Invalid Assignment: ARRAY_TO_SINGLE, variable (" + parm + ")");
-			break;
-		case SINGLE_TO_ARRAY:
-			System.err.println("Invalid Assignment: SINGLE_TO_ARRAY, variable (" + parm + ")");
-			break;
-		case INVALID_CONDITION:
-			System.err.println("Invalid Condition: INVALID_CONDITION");
-			break;
-		default:
-			break;
+	// add this analysis to the CompilerMetrics
+	private void publishMetrics(long start) {
+		if (CompilerMetrics.ENABLED)
+			CompilerMetrics.get().analyzed(declerations.size() - redeclerations.size(),
+					statements.size(), errorCounts, System.nanoTime() - start);
+	}
+
+	// deliver the errors buffered by a sink this analyzer created
+	private void flushOwnSink() {
+		if (ownsSink) {
+			try {
+				sink.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
 		}
 	}
 }
\ No newline at end of file
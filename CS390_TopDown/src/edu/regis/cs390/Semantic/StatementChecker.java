@@ -0,0 +1,210 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.regis.cs390.Semantic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+
+// The identifier, assign and condition checks of one (non-declaration)
+// statement. Declarations are resolved through the given lookup. The only
+// mutable state is the type cache, whose racing writes store equal
+// values, so one checker can be shared by threads.
+final class StatementChecker {
+
+	// type cache entries, indexed by canonical node ID (see HashConser)
+	private static final byte UNCACHED = 0;
+	private static final byte UNKNOWN = 1;
+
+	// the types by cache entry; values() copies its array on every call
+	private static final Type[] TYPES = Type.values();
+
+	// symbol ID -> declaration, or null if the symbol isn't declared
+	private final IntFunction<VarDecl> lookup;
+	// inferred type of each canonical expression node, or null if not hash-consed
+	private final byte[] typeCache;
+
+	StatementChecker(IntFunction<VarDecl> lookup) {
+		this(lookup, 0);
+	}
+
+	// a checker caching the inferred types of the given number of canonical nodes
+	StatementChecker(IntFunction<VarDecl> lookup, int canonicalNodes) {
+		this.lookup = lookup;
+		this.typeCache = canonicalNodes > 0 ? new byte[canonicalNodes] : null;
+	}
+
+	// the declaration made by a DECLARATION node, "int id" or "bool id"
+	static VarDecl declaration(TreeNode declaration) {
+		TreeNode keyword = declaration.getChildren().get(0);
+		TreeNode id = ParseTrees.child(declaration, TreeNode.PRODUCTION.ID);
+		Type type = keyword.lexeme.equals("BOOL") ? Type.BOOLEAN : Type.INTEGER;
+
+		return new VarDecl(id.symbol, type, declaration);
+	}
+
+	// the diagnostic reported for an error
+	static Diagnostic diagnostic(ErrorType errorType, String parm, int line) {
+		String message = errorType.getCategory() + ": " + errorType;
+		if (parm != null)
+			message += ", variable (" + parm + ")";
+
+		return new Diagnostic(errorType.name(), Severity.ERROR, line, parm, message);
+	}
+
+	// check the identifiers, assign and conditions of one statement, in that order;
+	// errors are reported at the statement's line, as expression leaves may be shared
+	List<Diagnostic> check(TreeNode stmt) {
+		int line = stmt.firstLine();
+		List<Diagnostic> findings = Collections.emptyList();
+		ArrayList<TreeNode> conditions = null;
+		ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+		pending.push(stmt);
+
+		while (!pending.isEmpty()) {
+			TreeNode node = pending.pop();
+
+			if (node.type == TreeNode.PRODUCTION.ID) {
+				findings = checkIdenifier(node, line, findings);
+
+			} else if (node.type == TreeNode.PRODUCTION.FACTOR
+					&& ParseTrees.child(node, TreeNode.PRODUCTION.NOT) != null) {
+				if (conditions == null)
+					conditions = new ArrayList<>();
+				conditions.add(node);
+			}
+
+			ArrayList<TreeNode> children = node.getChildren();
+			for (int i = children.size() - 1; i >= 0; i--)
+				pending.push(children.get(i));
+		}
+
+		TreeNode idTail = ParseTrees.child(stmt, TreeNode.PRODUCTION.IDTAIL);
+
+		if (idTail != null && ParseTrees.child(idTail, TreeNode.PRODUCTION.EXPR) != null)
+			findings = checkAssign(stmt, line, findings);
+
+		if (conditions != null)
+			findings = checkConditions(conditions, line, findings);
+
+		return findings;
+	}
+
+	// check that an identifier use is declared
+	private List<Diagnostic> checkIdenifier(TreeNode identifier, int line, List<Diagnostic> findings){
+		if(!isIdentifierExists(identifier.symbol))
+			findings = add(findings, ErrorType.NO_DECLARATION, identifier.lexeme, line);
+
+		return findings;
+	}
+
+	// check conditions, the operand of "!" must be boolean
+	private List<Diagnostic> checkConditions(List<TreeNode> conditions, int line, List<Diagnostic> findings){
+		for (TreeNode factor : conditions) {
+			TreeNode exp = ParseTrees.child(factor, TreeNode.PRODUCTION.EXPR);
+
+			if (getExpressionType(exp) == Type.INTEGER)
+				findings = add(findings, ErrorType.INVALID_CONDITION, null, line);
+		}
+
+		return findings;
+	}
+
+	// check if a specific identifier is declared
+	private boolean isIdentifierExists(int symbol){
+		return lookup.apply(symbol) != null;
+	}
+
+	// type checking of an assign expression
+	private List<Diagnostic> checkAssign(TreeNode assign, int line, List<Diagnostic> findings){
+		TreeNode id = ParseTrees.child(assign, TreeNode.PRODUCTION.ID);
+		TreeNode idTail = ParseTrees.child(assign, TreeNode.PRODUCTION.IDTAIL);
+		Type idType = getIdentifierType(id.symbol);
+		Type type = getExpressionType(ParseTrees.child(idTail, TreeNode.PRODUCTION.EXPR));
+
+		// boolean to int
+		if (idType == Type.INTEGER && type == Type.BOOLEAN)
+			findings = add(findings, ErrorType.BOOLEAN_INT_CASTING, id.lexeme, line);
+
+		// int to boolean
+		if (idType == Type.BOOLEAN && type == Type.INTEGER)
+			findings = add(findings, ErrorType.INT_BOOLEAN_CASTING, id.lexeme, line);
+
+		return findings;
+	}
+
+	// get identifier type (INTEGER | BOOLEAN), or null if it isn't declared
+	Type getIdentifierType(int symbol){
+		VarDecl varDecl = lookup.apply(symbol);
+		return varDecl == null ? null : varDecl.getType();
+	}
+
+	// infer the type of an EXPR, TERM or FACTOR node, or null if it is unknown
+	Type getExpressionType(TreeNode node) {
+		int id = node.getCanonicalId();
+
+		if (typeCache == null || id < 0)
+			return inferType(node);
+
+		byte cached = typeCache[id];
+
+		if (cached == UNCACHED) {
+			Type type = inferType(node);
+			cached = type == null ? UNKNOWN : (byte) (UNKNOWN + 1 + type.ordinal());
+			typeCache[id] = cached;
+		}
+
+		return cached == UNKNOWN ? null : TYPES[cached - UNKNOWN - 1];
+	}
+
+	// infer the type of an EXPR, TERM or FACTOR node from its children
+	private Type inferType(TreeNode node) {
+		switch (node.type) {
+		case EXPR:
+		case TERM:
+			// a non-empty termTail or factorTail is arithmetic
+			if (!ParseTrees.isEmptyTail(node.getChildren().get(1)))
+				return Type.INTEGER;
+
+			return getExpressionType(node.getChildren().get(0));
+
+		case FACTOR:
+			TreeNode first = node.getChildren().get(0);
+
+			switch (first.type) {
+			case ID:
+				return getIdentifierType(first.symbol);
+			case NUMBER:
+				return Type.INTEGER;
+			case TRUE:
+			case FALSE:
+			case NOT:
+				return Type.BOOLEAN;
+			default: // ( expr )
+				return getExpressionType(node.getChildren().get(1));
+			}
+
+		default:
+			return null;
+		}
+	}
+
+	// append a diagnostic, allocating the list on a statement's first one
+	private static List<Diagnostic> add(List<Diagnostic> findings, ErrorType errorType, String parm, int line) {
+		if (findings.isEmpty())
+			findings = new ArrayList<>(2);
+
+		findings.add(diagnostic(errorType, parm, line));
+		return findings;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.regis.cs390.Semantic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.metrics.CompilerMetrics;
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+
+// A semantic analyzer fed one statement at a time, as the parser finishes
+// them, e.g. by a pipelined compile. The first declaration of a symbol
+// wins, so a statement whose identifiers are all declared already can be
+// checked at once; the others wait until every statement has been seen.
+// The diagnostics are the same, and in the same order, as SemanticAnalyzer's.
+//
+// An instance must only be used by one thread.
+public class StreamingSemanticAnalyzer {
+
+	// symbol ID -> first declaration, or null
+	private final ArrayList<VarDecl> declared = new ArrayList<>();
+
+	private final StatementChecker checker = new StatementChecker(this::lookup);
+
+	// the MULTIPLE_DECLARATION errors, in source order
+	private final ArrayList<Diagnostic> redeclarations = new ArrayList<>();
+	// the diagnostics of each checked statement, indexed by statement order
+	private final ArrayList<List<Diagnostic>> results = new ArrayList<>();
+	// the indexes and statements that use a symbol not declared yet
+	private final ArrayList<Integer> deferredIndexes = new ArrayList<>();
+	private final ArrayList<TreeNode> deferred = new ArrayList<>();
+
+	// with CompilerMetrics enabled, the nanoseconds spent analyzing so far
+	private long nanos;
+
+	// accept the next statement of the program
+	public void accept(TreeNode stmt) {
+		if (!CompilerMetrics.ENABLED) {
+			analyze(stmt);
+			return;
+		}
+
+		long start = System.nanoTime();
+		analyze(stmt);
+		nanos += System.nanoTime() - start;
+	}
+
+	private void analyze(TreeNode stmt) {
+		TreeNode declaration = ParseTrees.child(stmt, TreeNode.PRODUCTION.DECLARATION);
+
+		if (declaration != null) {
+			declare(StatementChecker.declaration(declaration));
+			return;
+		}
+
+		int index = results.size();
+
+		if (allDeclared(stmt)) {
+			results.add(checker.check(stmt));
+		} else {
+			results.add(Collections.emptyList());
+			deferredIndexes.add(index);
+			deferred.add(stmt);
+		}
+	}
+
+	// check the deferred statements, returning the program's diagnostics
+	public List<Diagnostic> finish() {
+		long start = CompilerMetrics.ENABLED ? System.nanoTime() : 0;
+
+		for (int i = 0; i < deferred.size(); i++)
+			results.set(deferredIndexes.get(i), checker.check(deferred.get(i)));
+
+		deferredIndexes.clear();
+		deferred.clear();
+
+		ArrayList<Diagnostic> all = new ArrayList<>(redeclarations);
+
+		for (List<Diagnostic> stmtResults : results)
+			all.addAll(stmtResults);
+
+		if (CompilerMetrics.ENABLED)
+			publishMetrics(all, nanos + System.nanoTime() - start);
+
+		return all;
+	}
+
+	// get the number of statements checked before the end of the program
+	public int getEarlyCheckedCount() {
+		return results.size() - deferred.size();
+	}
+
+	// add this analysis to the CompilerMetrics
+	private void publishMetrics(List<Diagnostic> all, long elapsed) {
+		int[] errorCounts = new int[ErrorType.values().length];
+
+		for (Diagnostic diagnostic : all)
+			errorCounts[ErrorType.valueOf(diagnostic.code).ordinal()]++;
+
+		int symbols = 0;
+		for (VarDecl varDecl : declared)
+			if (varDecl != null)
+				symbols++;
+
+		CompilerMetrics.get().analyzed(symbols, results.size(), errorCounts, elapsed);
+	}
+
+	private void declare(VarDecl varDecl) {
+		int symbol = varDecl.getSymbol();
+
+		while (declared.size() <= symbol)
+			declared.add(null);
+
+		if (declared.get(symbol) == null) {
+			declared.set(symbol, varDecl);
+		} else {
+			TreeNode id = ParseTrees.child(varDecl.getNode(), TreeNode.PRODUCTION.ID);
+			redeclarations.add(StatementChecker.diagnostic(ErrorType.MULTIPLE_DECLARATION,
+					id.lexeme, varDecl.getNode().firstLine()));
+		}
+	}
+
+	private VarDecl lookup(int symbol) {
+		return symbol < declared.size() ? declared.get(symbol) : null;
+	}
+
+	// true, if every identifier in the statement is declared already
+	private boolean allDeclared(TreeNode stmt) {
+		ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+		pending.push(stmt);
+
+		while (!pending.isEmpty()) {
+			TreeNode node = pending.pop();
+
+			if (node.type == TreeNode.PRODUCTION.ID && lookup(node.symbol) == null)
+				return false;
+
+			for (TreeNode child : node.getChildren())
+				pending.push(child);
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,12 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.regis.cs390.Semantic;
+
+// types of the calculator language ("int" and "bool" declarations)
+public enum Type {
+	INTEGER,
+	BOOLEAN
+}
@@ -0,0 +1,36 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package edu.regis.cs390.Semantic;
+
+import edu.regis.cs390.parser.TreeNode;
+
+// a variable declaration, e.g. "int x;"
+public class VarDecl {
+
+	private final int symbol;
+	private final Type type;
+	private final TreeNode node;
+
+	public VarDecl(int symbol, Type type, TreeNode node) {
+		this.symbol = symbol;
+		this.type = type;
+		this.node = node;
+	}
+
+	// interned symbol ID of the declared variable (see SymbolInterner)
+	public int getSymbol() {
+		return symbol;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	// the DECLARATION node
+	public TreeNode getNode() {
+		return node;
+	}
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.daemon;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.driver.CompileResult;
+import edu.regis.cs390.driver.Compiler;
+import edu.regis.cs390.driver.Phase;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A long lived compiler that serves compile requests on a loopback TCP
+ * port (see Protocol), so the JIT stays warm across files.
+ * 
+ * Each connection is served by its own thread, and at most maxConcurrent
+ * requests compile at once; further requests wait for a permit. At most
+ * maxConnections connections are open at once; further clients wait in
+ * the listen backlog until one closes. shutdown() stops accepting
+ * connections, closes the idle ones and lets requests in progress finish.
+ * 
+ * Usage: --daemon [--port n] [--max-concurrent n] [--max-connections n]
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class CompileDaemon {
+    /**
+     * The default port, when none is given.
+     */
+    public static final int DEFAULT_PORT = 7390;
+    
+    /**
+     * The default limit on open connections, when none is given.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 64;
+    
+    /**
+     * The longest a stopping daemon waits for the requests in progress.
+     */
+    private static final int SHUTDOWN_SECONDS = 30;
+    
+    private static final String USAGE = 
+            "usage: --daemon [--port n] [--max-concurrent n] [--max-connections n]";
+    
+    private final ServerSocket server;
+    
+    /**
+     * Runs one thread per connection.
+     */
+    private final ExecutorService connections;
+    
+    /**
+     * Limits the number of requests compiling at once.
+     */
+    private final Semaphore permits;
+    
+    /**
+     * Limits the number of connections open at once, and so the threads
+     * serving them.
+     */
+    private final Semaphore connectionSlots;
+    
+    /**
+     * The connections currently open.
+     */
+    private final Set<Connection> open = ConcurrentHashMap.newKeySet();
+    
+    private volatile boolean running = true;
+    
+    /**
+     * Listen on the given loopback port, with at most
+     * DEFAULT_MAX_CONNECTIONS connections open.
+     * 
+     * @param port the port, or 0 for any free port
+     * @param maxConcurrent the most requests compiled at once
+     * @throws IOException the port can't be opened
+     */
+    public CompileDaemon(int port, int maxConcurrent) throws IOException {
+        this(port, maxConcurrent, DEFAULT_MAX_CONNECTIONS);
+    }
+    
+    /**
+     * Listen on the given loopback port.
+     * 
+     * @param port the port, or 0 for any free port
+     * @param maxConcurrent the most requests compiled at once
+     * @param maxConnections the most connections open at once
+     * @throws IOException the port can't be opened
+     */
+    public CompileDaemon(int port, int maxConcurrent, int maxConnections) throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        permits = new Semaphore(maxConcurrent);
+        connectionSlots = new Semaphore(maxConnections);
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        
+        connections = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "compile-daemon-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Return the port this daemon listens on.
+     * 
+     * @return the local port
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+    
+    /**
+     * Accept connections until shutdown() is called.
+     * 
+     * @throws IOException the server socket failed
+     */
+    public void serve() throws IOException {
+        while (running) {
+            // a slot is released when its connection closes
+            try {
+                connectionSlots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted waiting for a connection to close");
+            }
+            
+            Socket socket;
+            
+            try {
+                socket = server.accept();
+            } catch (SocketException e) {
+                connectionSlots.release();
+                
+                if (!running)
+                    break;   // closed by shutdown()
+                
+                throw e;
+            }
+            
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket);
+            open.add(connection);
+            
+            try {
+                connections.execute(connection);
+            } catch (RejectedExecutionException e) {
+                // accepted just as shutdown() began
+                open.remove(connection);
+                connection.close();
+                connectionSlots.release();
+            }
+        }
+    }
+    
+    /**
+     * Stop accepting connections and close the idle ones. Requests in
+     * progress finish, then their connections close.
+     */
+    public void shutdown() {
+        running = false;
+        
+        try {
+            server.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        
+        for (Connection connection : open)
+            connection.closeIfIdle();
+        
+        connections.shutdown();
+    }
+    
+    /**
+     * Wait for the requests in progress after shutdown().
+     * 
+     * @param timeout the longest to wait
+     * @param unit the unit of the timeout
+     * @return true, if every connection has closed
+     * @throws InterruptedException the wait was interrupted
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return connections.awaitTermination(timeout, unit);
+    }
+    
+    /**
+     * Run a daemon from the command line until a SHUTDOWN request or the
+     * JVM is stopped.
+     * 
+     * @param args the options (see the class comment)
+     * @param out receives the startup message
+     * @return the process exit status
+     */
+    public static int run(String[] args, PrintStream out) {
+        int port = DEFAULT_PORT;
+        int maxConcurrent = Runtime.getRuntime().availableProcessors();
+        int maxConnections = DEFAULT_MAX_CONNECTIONS;
+        
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException(args[i] + " requires a value");
+                
+                int value = Integer.parseInt(args[i + 1]);
+                
+                if (args[i].equals("--port") && value >= 0)
+                    port = value;
+                else if (args[i].equals("--max-concurrent") && value > 0)
+                    maxConcurrent = value;
+                else if (args[i].equals("--max-connections") && value > 0)
+                    maxConnections = value;
+                else
+                    throw new IllegalArgumentException("invalid option: " + args[i] + " " + value);
+            }
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return 2;
+        }
+        
+        try {
+            CompileDaemon daemon = new CompileDaemon(port, maxConcurrent, maxConnections);
+            
+            // the JVM halts once the hook returns, so it waits for the
+            // requests in progress like a SHUTDOWN request does
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                daemon.shutdown();
+                
+                try {
+                    daemon.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "compile-daemon-shutdown"));
+            
+            out.println("compile daemon listening on " + daemon.server.getLocalSocketAddress());
+            out.flush();
+            
+            daemon.serve();
+            daemon.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+            return 0;
+            
+        } catch (IOException e) {
+            out.println(e.toString());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+    
+    /**
+     * Answer one request payload.
+     * 
+     * @return the response payload
+     */
+    private ByteArrayOutputStream handle(byte[] request) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(response);
+        
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(request));
+        int kind = in.readUnsignedByte();
+        int phase = in.readUnsignedByte();
+        int flags = in.readUnsignedByte();
+        String name = in.readUTF();
+        
+        Path file;
+        
+        try {
+            file = Paths.get(name);
+        } catch (InvalidPathException e) {
+            return badRequest("invalid name: " + name);
+        }
+        
+        if (phase >= Phase.values().length)
+            return badRequest("invalid phase: " + phase);
+        
+        Phase last = Phase.values()[phase];
+        boolean wantTree = (flags & Protocol.WANT_TREE) != 0;
+        CompileResult result;
+        
+        switch (kind) {
+            case Protocol.SOURCE:
+                int offset = request.length - in.available();
+                result = compile(file, Arrays.copyOfRange(request, offset, request.length), 
+                                 last, wantTree);
+                break;
+                
+            case Protocol.PATH:
+                result = compile(file, null, last, wantTree);
+                break;
+                
+            case Protocol.SHUTDOWN:
+                shutdown();
+                out.writeByte(Protocol.OK);
+                out.writeInt(0);
+                out.writeInt(0);
+                out.writeInt(-1);
+                return response;
+                
+            default:
+                return badRequest("invalid request kind: " + kind);
+        }
+        
+        byte[] text = null;
+        Diagnostic tooLarge = null;
+        
+        if (result.parseTree != null) {
+            StringBuilder tree = new StringBuilder();
+            
+            if (result.parseTree.render(tree, Protocol.MAX_FRAME_SIZE))
+                text = tree.toString().getBytes(StandardCharsets.UTF_8);
+            
+            else
+                tooLarge = treeTooLarge();
+        }
+        
+        writeResult(out, result, tooLarge, tooLarge == null ? text : null);
+        
+        // a tree just under the limit can still push the frame over it
+        if (response.size() > Protocol.MAX_FRAME_SIZE) {
+            response.reset();
+            writeResult(out, result, treeTooLarge(), null);
+        }
+        
+        return response;
+    }
+    
+    /**
+     * Write a compile result's response, with an extra diagnostic (or
+     * null) and the rendered tree (or null).
+     */
+    private static void writeResult(DataOutputStream out, CompileResult result, 
+                                    Diagnostic extra, byte[] tree) throws IOException {
+        boolean errors = result.getErrorCount() > 0 || extra != null;
+        
+        out.writeByte(errors ? Protocol.ERRORS : Protocol.OK);
+        out.writeInt(result.tokens);
+        out.writeInt(result.diagnostics.size() + (extra == null ? 0 : 1));
+        
+        for (Diagnostic diagnostic : result.diagnostics)
+            writeDiagnostic(out, diagnostic);
+        
+        if (extra != null)
+            writeDiagnostic(out, extra);
+        
+        if (tree == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(tree.length);
+            out.write(tree);
+        }
+    }
+    
+    private static Diagnostic treeTooLarge() {
+        return new Diagnostic("TREE_TOO_LARGE", Severity.ERROR, Diagnostic.NO_LINE, null, 
+                "parse tree is larger than the " + Protocol.MAX_FRAME_SIZE + " byte frame limit");
+    }
+    
+    /**
+     * Compile a source or file while holding a concurrency permit.
+     */
+    private CompileResult compile(Path file, byte[] source, Phase last, boolean wantTree) 
+            throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted waiting to compile");
+        }
+        
+        try {
+            Compiler compiler = Compiler.forCurrentThread();
+            
+            if (source == null)
+                return compiler.compile(file, last, wantTree);
+            else
+                return compiler.compile(file, source, source.length, last, wantTree);
+            
+        } finally {
+            permits.release();
+        }
+    }
+    
+    private static ByteArrayOutputStream badRequest(String message) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(response);
+        
+        out.writeByte(Protocol.BAD_REQUEST);
+        out.writeInt(0);
+        out.writeInt(1);
+        writeDiagnostic(out, new Diagnostic("BAD_REQUEST", 
+                Severity.ERROR, Diagnostic.NO_LINE, null, message));
+        out.writeInt(-1);
+        return response;
+    }
+    
+    private static ByteArrayOutputStream internalError(Throwable e) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(response);
+        
+        out.writeByte(Protocol.ERRORS);
+        out.writeInt(0);
+        out.writeInt(1);
+        writeDiagnostic(out, new Diagnostic("INTERNAL_ERROR", 
+                Severity.ERROR, Diagnostic.NO_LINE, null, "compiler failed: " + e));
+        out.writeInt(-1);
+        return response;
+    }
+    
+    private static void writeDiagnostic(DataOutputStream out, Diagnostic diagnostic) 
+            throws IOException {
+        out.writeUTF(diagnostic.code);
+        out.writeByte(diagnostic.severity.ordinal());
+        out.writeInt(diagnostic.line);
+        out.writeUTF(diagnostic.message);
+    }
+    
+    /**
+     * Serves the requests of one client connection in turn.
+     */
+    private class Connection implements Runnable {
+        private final Socket socket;
+        
+        /**
+         * True, while a request is being answered.
+         */
+        private boolean busy;
+        
+        /**
+         * True, once the socket is closed.
+         */
+        private boolean closed;
+        
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(socket.getOutputStream()));
+                
+                byte[] request;
+                
+                while ((request = Protocol.readFrame(in)) != null && begin()) {
+                    ByteArrayOutputStream response;
+                    
+                    try {
+                        response = handle(request);
+                    } catch (IOException e) {
+                        // a malformed payload; the framing is still intact
+                        response = badRequest(e.toString());
+                    } catch (RuntimeException | Error e) {
+                        // this request failed, but the connection can go on
+                        response = internalError(e);
+                    }
+                    
+                    Protocol.writeFrame(out, response.toByteArray(), response.size());
+                    
+                    if (!end())
+                        break;
+                }
+                
+            } catch (IOException e) {
+                // the client went away, or shutdown() closed an idle connection
+            } finally {
+                close();
+                open.remove(this);
+                connectionSlots.release();
+            }
+        }
+        
+        /**
+         * Mark a request as started, unless the connection was closed.
+         */
+        private synchronized boolean begin() {
+            busy = !closed;
+            return busy;
+        }
+        
+        /**
+         * Mark a request as answered, returning false if the daemon is
+         * shutting down.
+         */
+        private synchronized boolean end() {
+            busy = false;
+            return running;
+        }
+        
+        synchronized void closeIfIdle() {
+            if (!busy)
+                close();
+        }
+        
+        synchronized void close() {
+            closed = true;
+            
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+}
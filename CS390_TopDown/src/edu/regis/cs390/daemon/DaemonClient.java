@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.daemon;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.driver.Phase;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A connection to a CompileDaemon, sending one request at a time.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class DaemonClient implements Closeable {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    
+    /**
+     * The answer to one request.
+     */
+    public static class Response {
+        /**
+         * Protocol.OK, ERRORS or BAD_REQUEST.
+         */
+        public final int status;
+        
+        public final int tokens;
+        
+        public final List<Diagnostic> diagnostics;
+        
+        /**
+         * The pretty printed parse tree, or null if it wasn't requested or
+         * the source didn't parse.
+         */
+        public final String tree;
+        
+        Response(int status, int tokens, List<Diagnostic> diagnostics, String tree) {
+            this.status = status;
+            this.tokens = tokens;
+            this.diagnostics = diagnostics;
+            this.tree = tree;
+        }
+    }
+    
+    /**
+     * Connect to the daemon on the given loopback port.
+     * 
+     * @param port the daemon's port
+     * @throws IOException the daemon can't be reached
+     */
+    public DaemonClient(int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+    
+    /**
+     * Compile the given source text.
+     * 
+     * @param name the source's name, used in the results
+     * @param source the program
+     * @param last the last phase run
+     * @param wantTree true, to receive the parse tree
+     * @return the daemon's response
+     * @throws IOException the connection failed
+     */
+    public Response compileSource(String name, String source, Phase last, boolean wantTree) 
+            throws IOException {
+        return send(Protocol.SOURCE, name, source.getBytes(StandardCharsets.UTF_8), last, wantTree);
+    }
+    
+    /**
+     * Compile a file the daemon can read.
+     * 
+     * @param path the file's path, on the daemon's host
+     * @param last the last phase run
+     * @param wantTree true, to receive the parse tree
+     * @return the daemon's response
+     * @throws IOException the connection failed
+     */
+    public Response compilePath(String path, Phase last, boolean wantTree) throws IOException {
+        return send(Protocol.PATH, path, new byte[0], last, wantTree);
+    }
+    
+    /**
+     * Ask the daemon to shut down once its requests in progress finish.
+     * 
+     * @throws IOException the connection failed
+     */
+    public void shutdownDaemon() throws IOException {
+        send(Protocol.SHUTDOWN, "", new byte[0], Phase.SCAN, false);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+    
+    private Response send(int kind, String name, byte[] source, Phase last, boolean wantTree) 
+            throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream(source.length + 64);
+        DataOutputStream payload = new DataOutputStream(request);
+        payload.writeByte(kind);
+        payload.writeByte(last.ordinal());
+        payload.writeByte(wantTree ? Protocol.WANT_TREE : 0);
+        payload.writeUTF(name);
+        payload.write(source);
+        
+        Protocol.writeFrame(out, request.toByteArray(), request.size());
+        
+        byte[] frame = Protocol.readFrame(in);
+        
+        if (frame == null)
+            throw new EOFException("the daemon closed the connection");
+        
+        DataInputStream response = new DataInputStream(new ByteArrayInputStream(frame));
+        int status = response.readUnsignedByte();
+        int tokens = response.readInt();
+        int count = response.readInt();
+        ArrayList<Diagnostic> diagnostics = new ArrayList<>(count);
+        
+        for (int i = 0; i < count; i++) {
+            String code = response.readUTF();
+            Severity severity = Severity.values()[response.readUnsignedByte()];
+            int line = response.readInt();
+            String message = response.readUTF();
+            diagnostics.add(new Diagnostic(code, severity, line, null, message));
+        }
+        
+        int treeLength = response.readInt();
+        String tree = null;
+        
+        if (treeLength >= 0) {
+            byte[] text = new byte[treeLength];
+            response.readFully(text);
+            tree = new String(text, StandardCharsets.UTF_8);
+        }
+        
+        return new Response(status, tokens, diagnostics, tree);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The compile daemon's wire format. A connection carries any number of
+ * request/response exchanges; every message is one frame, a 4 byte
+ * big-endian length followed by that many bytes of payload.
+ * 
+ * Request payload:
+ *   u1 kind (SOURCE, PATH or SHUTDOWN), u1 last phase (Phase ordinal),
+ *   u1 flags (WANT_TREE), UTF name (the path, for PATH),
+ *   for SOURCE: the rest of the payload is the UTF-8 source text.
+ * 
+ * Response payload:
+ *   u1 status (OK, ERRORS or BAD_REQUEST), i4 tokens, i4 diagnostic count,
+ *   per diagnostic: UTF code, u1 Severity ordinal, i4 line, UTF message;
+ *   then i4 tree text length (-1 if none) and the UTF-8 tree text.
+ *   A tree too large for a frame is left out, with a TREE_TOO_LARGE
+ *   error; a request the compiler fails on gets an INTERNAL_ERROR.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class Protocol {
+    // Request kinds
+    public static final int SOURCE = 1;
+    public static final int PATH = 2;
+    public static final int SHUTDOWN = 3;
+    
+    // Request flags
+    public static final int WANT_TREE = 1;
+    
+    // Response statuses
+    public static final int OK = 0;
+    public static final int ERRORS = 1;
+    public static final int BAD_REQUEST = 2;
+    
+    /**
+     * The largest frame accepted, so a corrupt length can't exhaust memory.
+     */
+    public static final int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+    
+    private Protocol() {
+    }
+    
+    /**
+     * Read one frame.
+     * 
+     * @param in the connection's input
+     * @return the payload, or null if the peer closed the connection
+     * @throws IOException the frame is truncated or too large
+     */
+    public static byte[] readFrame(DataInputStream in) throws IOException {
+        int b = in.read();
+        
+        if (b < 0)
+            return null;
+        
+        int length = (b << 24) | (in.readUnsignedByte() << 16) | in.readUnsignedShort();
+        
+        if (length < 0 || length > MAX_FRAME_SIZE)
+            throw new IOException("invalid frame length " + length);
+        
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+    
+    /**
+     * Write one frame and flush it.
+     * 
+     * @param out the connection's output
+     * @param payload the frame's contents is payload[0, length)
+     * @param length the size of the payload
+     * @throws IOException the connection failed
+     */
+    public static void writeFrame(DataOutputStream out, byte[] payload, int length) 
+            throws IOException {
+        out.writeInt(length);
+        out.write(payload, 0, length);
+        out.flush();
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+
+/**
+ * A DiagnosticSink that buffers diagnostics and renders them to a Writer
+ * in batches, rather than performing console I/O per diagnostic.
+ * 
+ * Duplicate diagnostics are dropped (see DuplicateFilter), and once the maximum number of
+ * errors has been accepted, further diagnostics are only counted. When
+ * diagnostics of several files pass through one sink, setSource() names
+ * the file of those reported next.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class BufferedDiagnosticSink implements DiagnosticSink {
+    /**
+     * Default number of diagnostics rendered per batch.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+    
+    /**
+     * Default number of errors accepted before further ones are suppressed.
+     */
+    public static final int DEFAULT_MAX_ERRORS = 1000;
+    
+    /**
+     * The rendered diagnostics are written to this output.
+     */
+    private final Writer out;
+    
+    /**
+     * Renders each batch of diagnostics (e.g. TextRenderer, JsonRenderer).
+     */
+    private final DiagnosticRenderer renderer;
+    
+    /**
+     * Diagnostics accepted, but not yet rendered.
+     */
+    private final ArrayList<Diagnostic> buffer;
+    
+    /**
+     * The buffer is rendered once it holds this many diagnostics.
+     */
+    private final int bufferSize;
+    
+    /**
+     * The number of errors accepted before further ones are suppressed.
+     */
+    private final int maxErrors;
+    
+    /**
+     * Drops duplicate diagnostics.
+     */
+    private final DuplicateFilter duplicates = new DuplicateFilter();
+    
+    /**
+     * The name of the file the buffered diagnostics are about, or null.
+     */
+    private String source;
+    
+    /**
+     * The number of ERROR diagnostics accepted so far.
+     */
+    private int errorCount;
+    
+    /**
+     * The number of WARNING diagnostics accepted so far.
+     */
+    private int warningCount;
+    
+    /**
+     * The number of diagnostics dropped after the error limit was reached.
+     */
+    private int suppressedCount;
+    
+    /**
+     * Initialize this sink with the default buffer size and error limit.
+     * 
+     * @param out the rendered diagnostics are written to this output
+     * @param renderer the output format (e.g. TextRenderer)
+     */
+    public BufferedDiagnosticSink(Writer out, DiagnosticRenderer renderer) {
+        this(out, renderer, DEFAULT_BUFFER_SIZE, DEFAULT_MAX_ERRORS);
+    }
+    
+    /**
+     * Initialize this sink.
+     * 
+     * @param out the rendered diagnostics are written to this output
+     * @param renderer the output format (e.g. TextRenderer)
+     * @param bufferSize the number of diagnostics rendered per batch
+     * @param maxErrors the number of errors accepted before further
+     *   diagnostics are suppressed
+     */
+    public BufferedDiagnosticSink(Writer out, DiagnosticRenderer renderer,
+                                  int bufferSize, int maxErrors) {
+        this.out = out;
+        this.renderer = renderer;
+        this.bufferSize = bufferSize;
+        this.maxErrors = maxErrors;
+        
+        buffer = new ArrayList<>(bufferSize);
+    }
+    
+    /**
+     * Accept the given diagnostic, unless it's a duplicate or the error
+     * limit has been reached, rendering the buffer once it's full.
+     * 
+     * @param diagnostic an error or warning
+     * @return true, if the diagnostic was accepted
+     * @throws UncheckedIOException the output couldn't be written
+     */
+    @Override
+    public boolean report(Diagnostic diagnostic) {
+        if (isLimitReached()) {
+            suppressedCount++;
+            return false;
+        }
+        
+        if (!duplicates.accept(diagnostic))
+            return false;
+        
+        if (diagnostic.severity == Severity.ERROR)
+            errorCount++;
+        else
+            warningCount++;
+        
+        buffer.add(diagnostic);
+        
+        if (buffer.size() >= bufferSize) {
+            try {
+                renderBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Render the diagnostics of the previous file, and name the file the
+     * diagnostics reported next are about. Duplicates are only dropped
+     * within a file.
+     * 
+     * @param source the file's name, or null
+     * @throws UncheckedIOException the output couldn't be written
+     */
+    public void setSource(String source) {
+        try {
+            renderBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        duplicates.clear();
+        this.source = source;
+    }
+    
+    /**
+     * Render any buffered diagnostics and flush the output.
+     * 
+     * @throws IOException an unexpected non-recoverable error occurred
+     */
+    @Override
+    public void flush() throws IOException {
+        renderBuffer();
+        out.flush();
+    }
+    
+    /**
+     * Return true, if the error limit has been reached, so further
+     * diagnostics will be suppressed.
+     * 
+     * @return true, if no further diagnostics are accepted
+     */
+    public boolean isLimitReached() {
+        return errorCount >= maxErrors;
+    }
+    
+    /**
+     * Return the number of ERROR diagnostics accepted.
+     * 
+     * @return the error count
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+    
+    /**
+     * Return the number of WARNING diagnostics accepted.
+     * 
+     * @return the warning count
+     */
+    public int getWarningCount() {
+        return warningCount;
+    }
+    
+    /**
+     * Return the number of diagnostics dropped after the error limit.
+     * 
+     * @return the suppressed count
+     */
+    public int getSuppressedCount() {
+        return suppressedCount;
+    }
+    
+    /**
+     * Render and clear the buffered diagnostics.
+     */
+    private void renderBuffer() throws IOException {
+        if (!buffer.isEmpty()) {
+            renderer.render(source, buffer, out);
+            buffer.clear();
+        }
+    }
+}
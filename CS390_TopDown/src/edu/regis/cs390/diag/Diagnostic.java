@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+import java.util.Objects;
+
+/**
+ * An error or warning found while compiling a source file, such as a
+ * parse error or a semantic error.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class Diagnostic {
+    /**
+     * Line number used when a diagnostic has no known position.
+     */
+    public static final int NO_LINE = 0;
+    
+    /**
+     * A stable code identifying the kind of diagnostic (e.g. "NO_DECLARATION")
+     */
+    public final String code;
+    
+    /**
+     * This diagnostic's severity (see Severity)
+     */
+    public final Severity severity;
+    
+    /**
+     * The 1-based source line this diagnostic refers to, or NO_LINE
+     */
+    public final int line;
+    
+    /**
+     * The name of the symbol this diagnostic refers to, if any
+     */
+    public final String symbol;
+    
+    /**
+     * A human readable description
+     */
+    public final String message;
+    
+    /**
+     * Instantiate this diagnostic.
+     * 
+     * @param code the kind of diagnostic (e.g. "NO_DECLARATION")
+     * @param severity ERROR or WARNING
+     * @param line the 1-based source line, or NO_LINE
+     * @param symbol the symbol's name or null, if none
+     * @param message a human readable description
+     */
+    public Diagnostic(String code, Severity severity, int line, 
+                      String symbol, String message) {
+        this.code = code;
+        this.severity = severity;
+        this.line = line;
+        this.symbol = symbol;
+        this.message = message;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        
+        if (!(obj instanceof Diagnostic))
+            return false;
+        
+        Diagnostic other = (Diagnostic) obj;
+        
+        return line == other.line && severity == other.severity &&
+               code.equals(other.code) && 
+               Objects.equals(symbol, other.symbol) &&
+               Objects.equals(message, other.message);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(code, severity, line, symbol, message);
+    }
+    
+    @Override
+    public String toString() {
+        return "line " + line + ": " + message;
+    }
+}
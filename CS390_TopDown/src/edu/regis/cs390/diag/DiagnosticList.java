@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DiagnosticSink that keeps every diagnostic in memory, in the order
+ * reported. Duplicate diagnostics are dropped (see DuplicateFilter).
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class DiagnosticList implements DiagnosticSink {
+    /**
+     * The diagnostics reported so far.
+     */
+    private final ArrayList<Diagnostic> diagnostics = new ArrayList<>();
+    
+    /**
+     * Drops duplicate diagnostics.
+     */
+    private final DuplicateFilter duplicates = new DuplicateFilter();
+    
+    /**
+     * The number of ERROR diagnostics accepted so far.
+     */
+    private int errorCount;
+    
+    @Override
+    public boolean report(Diagnostic diagnostic) {
+        if (!duplicates.accept(diagnostic))
+            return false;
+        
+        diagnostics.add(diagnostic);
+        
+        if (diagnostic.severity == Severity.ERROR)
+            errorCount++;
+        
+        return true;
+    }
+    
+    @Override
+    public void flush() {
+    }
+    
+    /**
+     * Return the diagnostics accepted so far.
+     * 
+     * @return the diagnostics in report order
+     */
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+    
+    /**
+     * Return the number of ERROR diagnostics accepted so far.
+     * 
+     * @return the error count
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+    
+    /**
+     * Discard all diagnostics, so this list can be reused.
+     */
+    public void clear() {
+        diagnostics.clear();
+        duplicates.clear();
+        errorCount = 0;
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Renders batches of Diagnostics in some output format.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public interface DiagnosticRenderer {
+    /**
+     * Append the given diagnostics to the given output.
+     * 
+     * @param source the name of the file the diagnostics are about, or
+     *   null, if there's only one (e.g. standard input)
+     * @param batch the diagnostics to render, in report order
+     * @param out the rendered diagnostics are appended to this output
+     * @throws IOException an unexpected non-recoverable error occurred
+     */
+    void render(String source, List<Diagnostic> batch, Appendable out) throws IOException;
+}
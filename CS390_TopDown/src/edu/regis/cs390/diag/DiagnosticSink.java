@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+import java.io.IOException;
+
+/**
+ * A destination for the Diagnostics produced by the compilation phases.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public interface DiagnosticSink {
+    /**
+     * Accept the given diagnostic, unless it's a duplicate or otherwise
+     * dropped.
+     * 
+     * @param diagnostic an error or warning
+     * @return true, if the diagnostic was accepted
+     */
+    boolean report(Diagnostic diagnostic);
+    
+    /**
+     * Deliver any buffered diagnostics.
+     * 
+     * @throws IOException an unexpected non-recoverable error occurred
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The duplicate policy shared by the DiagnosticSinks: a diagnostic equal
+ * to one of the last WINDOW accepted is dropped.
+ * 
+ * Duplicates come from the same statement (e.g. an undeclared variable
+ * used twice in one expression), so remembering only recent diagnostics
+ * catches them without holding every warning of a large file.
+ * 
+ * @author CS390_TopDown contributors
+ */
+final class DuplicateFilter {
+    /**
+     * The number of recently accepted diagnostics remembered.
+     */
+    static final int WINDOW = 4096;
+    
+    /**
+     * The recently accepted diagnostics, oldest first.
+     */
+    private final LinkedHashMap<Diagnostic, Boolean> recent =
+            new LinkedHashMap<Diagnostic, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Diagnostic, Boolean> eldest) {
+                    return size() > WINDOW;
+                }
+            };
+    
+    /**
+     * Return true, if the given diagnostic isn't a recent duplicate, and
+     * remember it.
+     * 
+     * @param diagnostic an error or warning
+     * @return true, if the diagnostic should be accepted
+     */
+    boolean accept(Diagnostic diagnostic) {
+        return recent.put(diagnostic, Boolean.TRUE) == null;
+    }
+    
+    /**
+     * Forget every diagnostic accepted so far.
+     */
+    void clear() {
+        recent.clear();
+    }
+}
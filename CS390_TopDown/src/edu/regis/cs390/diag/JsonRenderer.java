@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders each Diagnostic as a JSON object on its own line (JSON Lines),
+ * so tools can consume the output without scraping text. The object has
+ * a "file" member when the source file is named.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class JsonRenderer implements DiagnosticRenderer {
+    @Override
+    public void render(String source, List<Diagnostic> batch, Appendable out) 
+            throws IOException {
+        for (Diagnostic diagnostic : batch) {
+            out.append('{');
+            
+            if (source != null) {
+                out.append("\"file\":");
+                string(source, out);
+                out.append(',');
+            }
+            
+            out.append("\"code\":");
+            string(diagnostic.code, out);
+            out.append(",\"severity\":");
+            string(diagnostic.severity.name().toLowerCase(Locale.ROOT), out);
+            out.append(",\"line\":").append(Integer.toString(diagnostic.line));
+            out.append(",\"symbol\":");
+            string(diagnostic.symbol, out);
+            out.append(",\"message\":");
+            string(diagnostic.message, out);
+            out.append("}\n");
+        }
+    }
+    
+    /**
+     * Append the given string as a quoted JSON string (or null).
+     */
+    private static void string(String str, Appendable out) throws IOException {
+        if (str == null) {
+            out.append("null");
+            return;
+        }
+        
+        out.append('"');
+        
+        for (int i = 0; i < str.length(); i++) {
+            char ch = str.charAt(i);
+            
+            switch (ch) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        out.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        out.append(ch);
+                    }
+            }
+        }
+        
+        out.append('"');
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+/**
+ * The severity of a Diagnostic.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public enum Severity {
+    ERROR,
+    WARNING
+    ;
+}
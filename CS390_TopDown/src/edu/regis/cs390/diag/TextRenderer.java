@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.diag;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Renders each Diagnostic as one line of text, e.g.
+ * "line 4: Declaration Error: NO_DECLARATION, variable (c)", or
+ * "prog.txt:4: Declaration Error: NO_DECLARATION, variable (c)" when the
+ * source file is named.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class TextRenderer implements DiagnosticRenderer {
+    @Override
+    public void render(String source, List<Diagnostic> batch, Appendable out) 
+            throws IOException {
+        for (Diagnostic diagnostic : batch) {
+            if (source != null) {
+                out.append(source).append(':');
+                
+                if (diagnostic.line != Diagnostic.NO_LINE)
+                    out.append(Integer.toString(diagnostic.line)).append(':');
+                
+                out.append(' ');
+                
+            } else if (diagnostic.line != Diagnostic.NO_LINE) {
+                out.append("line ").append(Integer.toString(diagnostic.line))
+                   .append(": ");
+            }
+            
+            out.append(diagnostic.message).append('\n');
+        }
+    }
+}
@@ -0,0 +1,775 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.driver;
+
+import edu.regis.cs390.diag.BufferedDiagnosticSink;
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.DiagnosticRenderer;
+import edu.regis.cs390.diag.JsonRenderer;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.diag.TextRenderer;
+import edu.regis.cs390.index.SymbolIndex;
+import edu.regis.cs390.limits.CompileLimits;
+import edu.regis.cs390.metrics.CompilerMetrics;
+import edu.regis.cs390.opt.Optimizer;
+import edu.regis.cs390.pipeline.PipelinedCompiler;
+import edu.regis.cs390.shard.ShardCoordinator;
+import edu.regis.cs390.tok.TokenCache;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Compiles many source files in one JVM, on a work-stealing pool.
+ * 
+ * Usage: [--phase scan|parse|semantic] [--threads n] [--pipelined] 
+ *        [--profile-memory] [--max-depth n] [--max-lexeme n] [--max-tokens n]
+ *        [--max-nodes n] [--timeout ms] [--token-cache dir] [--find id] 
+ *        [--processes n] [--worker-heap size] [--optimize passes] [--dataflow]
+ *        [--share-expressions] [--format text|json] [--max-errors n] [--quiet]
+ *        input...
+ * 
+ * Each input is a file, a directory (every file below it) or a glob
+ * pattern such as "progs/**.txt". Files are scheduled largest first, so
+ * a large file doesn't start last and hold up the end of the batch. Each
+ * worker thread reuses its own Compiler. With --pipelined, each file's
+ * phases run concurrently instead (see PipelinedCompiler), which suits a
+ * few very large files. With -Dcs390.metrics=true, the CompilerMetrics
+ * are printed after the summary.
+ * 
+ * With --profile-memory, every phase is run on each file, one after
+ * another, and a table of the bytes each phase allocated and the
+ * estimated size of the token list and parse tree is printed (see
+ * MemoryProfile).
+ * 
+ * The --max options and --timeout set the CompileLimits of each file; a
+ * file exceeding one gets a LIMIT_EXCEEDED error.
+ * 
+ * With --token-cache, each file's tokens are kept in a token cache file
+ * in the given directory, and an unchanged file is parsed from its cache
+ * instead of being read and scanned again (see TokenCache); --pipelined
+ * is then ignored.
+ * 
+ * With --find, each file's identifier uses are indexed as it's parsed
+ * (see SymbolIndex), and the uses of the given identifier are printed
+ * after the file's diagnostics, in line order; --pipelined is ignored.
+ * 
+ * With --optimize, the given optimization passes ("all", or a comma
+ * separated list such as "constant-folding,dead-store-elimination") run
+ * on the tree of each file without semantic errors, and the nodes each
+ * pass removed are printed after the summary (see Optimizer);
+ * --pipelined is then ignored.
+ * 
+ * With --dataflow, each file without semantic errors is also checked for
+ * variables read before any definition (errors) and assignments never
+ * read (warnings), before any optimization (see DataflowAnalyzer);
+ * --pipelined is then ignored.
+ * 
+ * With --share-expressions, identical expression subtrees of each file
+ * are shared before semantic analysis, so each distinct expression's type
+ * is inferred once (see HashConser); --pipelined is then ignored.
+ * 
+ * Each file's diagnostics are printed through a BufferedDiagnosticSink,
+ * as "file:line: message" lines or, with --format json, as JSON objects
+ * with a "file" member (see JsonRenderer); the summary lines follow
+ * either way. Once --max-errors errors have been printed (1000 by
+ * default), further diagnostics are only counted.
+ * 
+ * With --processes, the files are compiled on that many worker JVMs
+ * instead, each with a maximum heap of --worker-heap (e.g. "512m"), and
+ * a worker that fails is restarted (see ShardCoordinator); --threads,
+ * --pipelined, --token-cache, --find, --optimize, --dataflow and
+ * --share-expressions are then ignored.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class BatchDriver {
+    /**
+     * Exit status when every file compiled without errors.
+     */
+    public static final int EXIT_OK = 0;
+    
+    /**
+     * Exit status when some file had errors.
+     */
+    public static final int EXIT_ERRORS = 1;
+    
+    /**
+     * Exit status when the command line is invalid.
+     */
+    public static final int EXIT_USAGE = 2;
+    
+    private static final String USAGE = 
+            "usage: [--phase scan|parse|semantic] [--threads n] [--pipelined] " +
+            "[--profile-memory] [--max-depth n] [--max-lexeme n] [--max-tokens n] " +
+            "[--max-nodes n] [--timeout ms] [--token-cache dir] [--find id] " +
+            "[--processes n] [--worker-heap size] [--optimize passes] [--dataflow] " +
+            "[--share-expressions] [--format text|json] [--max-errors n] [--quiet] input...";
+    
+    private Phase phase = Phase.SEMANTIC;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean quiet;
+    private boolean pipelined;
+    private boolean profileMemory;
+    private final CompileLimits limits = new CompileLimits();
+    private Path tokenCache;
+    private String find;
+    private int processes;
+    private String workerHeap;
+    private EnumSet<Optimizer.Pass> optimizations = EnumSet.noneOf(Optimizer.Pass.class);
+    private boolean dataflow;
+    private boolean shareExpressions;
+    private DiagnosticRenderer renderer = new TextRenderer();
+    private int maxErrors = BufferedDiagnosticSink.DEFAULT_MAX_ERRORS;
+    private final ArrayList<String> inputs = new ArrayList<>();
+    
+    /**
+     * Where results and the summary are printed.
+     */
+    private final PrintStream out;
+    
+    /**
+     * Initialize a driver printing to the given stream.
+     * 
+     * @param out receives each file's diagnostics and the summary
+     */
+    public BatchDriver(PrintStream out) {
+        this.out = out;
+    }
+    
+    /**
+     * Compile the files named by the given command line.
+     * 
+     * @param args the command line (see the class comment)
+     * @param out receives each file's diagnostics and the summary
+     * @return EXIT_OK, EXIT_ERRORS or EXIT_USAGE
+     */
+    public static int run(String[] args, PrintStream out) {
+        BatchDriver driver = new BatchDriver(out);
+        
+        try {
+            driver.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return EXIT_USAGE;
+        }
+        
+        return driver.run();
+    }
+    
+    /**
+     * Compile the inputs given on the command line.
+     * 
+     * @return EXIT_OK or EXIT_ERRORS
+     */
+    public int run() {
+        long start = System.nanoTime();
+        List<Path> files;
+        
+        try {
+            files = expand(inputs);
+        } catch (IOException e) {
+            out.println(e.toString());
+            return EXIT_ERRORS;
+        }
+        
+        if (profileMemory) {
+            List<MemoryProfile> profiles = profileAll(files);
+            long elapsed = System.nanoTime() - start;
+            ArrayList<CompileResult> results = new ArrayList<>(profiles.size());
+            
+            for (MemoryProfile profile : profiles)
+                results.add(profile.result);
+            
+            int status = report(results, elapsed);
+            reportMemory(profiles);
+            return status;
+        }
+        
+        List<CompileResult> results = compileAll(files);
+        long elapsed = System.nanoTime() - start;
+        
+        return report(results, elapsed);
+    }
+    
+    /**
+     * Compile the given files on a pool of the configured size.
+     * 
+     * @return the results, in the order of the given files
+     */
+    public List<CompileResult> compileAll(List<Path> files) {
+        if (processes > 0) {
+            ShardCoordinator coordinator = new ShardCoordinator(processes, phase, limits, workerHeap);
+            
+            try {
+                return coordinator.compileAll(files);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted compiling on worker processes", e);
+            }
+        }
+        
+        if (tokenCache != null)
+            return runAll(files, file -> compiler().compileCached(file, cacheFile(file), phase, false),
+                          Function.identity());
+        
+        PipelinedCompiler pipeline = pipelined && phase != Phase.SCAN && find == null &&
+                optimizations.isEmpty() && !dataflow && !shareExpressions 
+                ? new PipelinedCompiler() : null;
+        
+        try {
+            if (pipeline != null) {
+                pipeline.setLimits(limits);
+                return runAll(files, file -> pipeline.compile(file, phase), Function.identity());
+            }
+            
+            return runAll(files, file -> compiler().compile(file, phase), Function.identity());
+            
+        } finally {
+            if (pipeline != null)
+                pipeline.close();
+        }
+    }
+    
+    /**
+     * Profile the memory used to compile the given files, on a pool of the
+     * configured size.
+     * 
+     * @return the profiles, in the order of the given files
+     */
+    public List<MemoryProfile> profileAll(List<Path> files) {
+        return runAll(files, file -> compiler().profileMemory(file), 
+                      failed -> new MemoryProfile(failed, 0, 0, 0, 0, 0, 0));
+    }
+    
+    /**
+     * Return the calling worker's Compiler, set to this driver's limits.
+     */
+    private Compiler compiler() {
+        Compiler compiler = Compiler.forCurrentThread();
+        compiler.setLimits(limits);
+        compiler.setIndexSymbols(find != null);
+        compiler.setOptimizations(optimizations);
+        compiler.setDataflow(dataflow);
+        compiler.setShareExpressions(shareExpressions);
+        return compiler;
+    }
+    
+    /**
+     * Return the given file's token cache file (see TokenCache.cacheName()).
+     */
+    private Path cacheFile(Path file) {
+        return tokenCache.resolve(TokenCache.cacheName(file));
+    }
+    
+    /**
+     * Run the given task on each file, on a pool of the configured size.
+     * A task that throws gets an INTERNAL_ERROR result for its file, from
+     * the given failure function, rather than ending the batch.
+     * 
+     * @return the task results, in the order of the given files
+     */
+    private <T> List<T> runAll(List<Path> files, Function<Path, T> task, 
+                               Function<CompileResult, T> failure) {
+        int count = files.size();
+        long[] sizes = new long[count];
+        Integer[] order = new Integer[count];
+        
+        for (int i = 0; i < count; i++) {
+            sizes[i] = size(files.get(i));
+            order[i] = i;
+        }
+        
+        // largest first; FIFO mode makes workers take tasks in submission order
+        Arrays.sort(order, (a, b) -> Long.compare(sizes[b], sizes[a]));
+        
+        ForkJoinPool pool = new ForkJoinPool(threads, 
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        
+        try {
+            // in file order, whatever order they're submitted in
+            List<ForkJoinTask<T>> tasks = new ArrayList<>(Collections.nCopies(count, null));
+            
+            for (int i : order) {
+                Path file = files.get(i);
+                tasks.set(i, pool.submit(() -> {
+                    try {
+                        return task.apply(file);
+                    } catch (RuntimeException | Error e) {
+                        return failure.apply(failed(file, e));
+                    }
+                }));
+            }
+            
+            ArrayList<T> results = new ArrayList<>(count);
+            
+            for (ForkJoinTask<T> submitted : tasks)
+                results.add(submitted.join());
+            
+            return results;
+            
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Return the result of a file whose compile threw, e.g. a
+     * StackOverflowError on input deeper than the limits allow for.
+     */
+    private static CompileResult failed(Path file, Throwable e) {
+        Diagnostic diagnostic = new Diagnostic("INTERNAL_ERROR", Severity.ERROR, 
+                Diagnostic.NO_LINE, null, "compiler failed: " + e);
+        
+        return new CompileResult(file, size(file), 0, 
+                                 Collections.singletonList(diagnostic), 0, null);
+    }
+    
+    /**
+     * Print each file's diagnostics and the totals.
+     * 
+     * @return EXIT_OK or EXIT_ERRORS
+     */
+    private int report(List<CompileResult> results, long elapsedNanos) {
+        long bytes = 0;
+        long tokens = 0;
+        int failed = 0;
+        int errors = 0;
+        int uses = 0;
+        EnumMap<Optimizer.Pass, Integer> removed = new EnumMap<>(Optimizer.Pass.class);
+        int optimized = 0;
+        BufferedDiagnosticSink sink = quiet ? null : new BufferedDiagnosticSink(
+                new OutputStreamWriter(out), renderer, 
+                BufferedDiagnosticSink.DEFAULT_BUFFER_SIZE, maxErrors);
+        
+        for (CompileResult result : results) {
+            bytes += result.bytes;
+            tokens += result.tokens;
+            
+            int fileErrors = result.getErrorCount();
+            errors += fileErrors;
+            
+            if (fileErrors > 0)
+                failed++;
+            
+            if (sink != null) {
+                sink.setSource(result.file.toString());
+                
+                for (Diagnostic diagnostic : result.diagnostics)
+                    sink.report(diagnostic);
+            }
+            
+            if (result.symbolIndex != null) {
+                flush(sink);   // the uses follow the file's diagnostics
+                uses += printUses(result);
+            }
+            
+            if (result.optimized != null) {
+                result.optimized.forEach((pass, nodes) -> removed.merge(pass, nodes, Integer::sum));
+                optimized++;
+            }
+        }
+        
+        flush(sink);
+        
+        if (sink != null && sink.getSuppressedCount() > 0)
+            out.printf("%d more diagnostics not shown (--max-errors %d)%n", 
+                       sink.getSuppressedCount(), maxErrors);
+        
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        
+        out.printf("%d files (%d with errors, %d errors), %d tokens, %d bytes, phase %s%n",
+                   results.size(), failed, errors, tokens, bytes, 
+                   phase.name().toLowerCase(Locale.ROOT));
+        out.printf("%.1f ms on %d %s: %.0f files/s, %.2f MB/s%n", 
+                   seconds * 1e3, processes > 0 ? processes : threads, 
+                   processes > 0 ? "processes" : "threads", results.size() / seconds, 
+                   bytes / seconds / (1024 * 1024));
+        
+        if (find != null)
+            out.printf("%d uses of %s%n", uses, find);
+        
+        if (!optimizations.isEmpty())
+            reportOptimizations(removed, optimized);
+        
+        if (CompilerMetrics.ENABLED)
+            out.print(CompilerMetrics.get().snapshot());
+        
+        return failed > 0 ? EXIT_ERRORS : EXIT_OK;
+    }
+    
+    /**
+     * Write out the diagnostics buffered in the given sink, if any.
+     */
+    private static void flush(BufferedDiagnosticSink sink) {
+        if (sink == null)
+            return;
+        
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Print the total number of nodes each optimization pass removed.
+     */
+    private void reportOptimizations(EnumMap<Optimizer.Pass, Integer> removed, int files) {
+        int total = 0;
+        StringBuilder passes = new StringBuilder();
+        
+        for (Optimizer.Pass pass : optimizations) {
+            int nodes = removed.getOrDefault(pass, 0);
+            total += nodes;
+            
+            passes.append(passes.length() == 0 ? "" : ", ").append(pass.getName())
+                  .append(' ').append(nodes);
+        }
+        
+        out.printf("optimized %d files: %d nodes removed (%s)%n", files, total, passes);
+    }
+    
+    /**
+     * Print the uses of the identifier being found in the given file, in
+     * line order (in role order on the same line).
+     * 
+     * @return the number of uses
+     */
+    private int printUses(CompileResult result) {
+        SymbolIndex.Role[] roles = SymbolIndex.Role.values();
+        int[][] lines = new int[roles.length][];
+        int[] next = new int[roles.length];
+        int uses = 0;
+        
+        for (SymbolIndex.Role role : roles) {
+            lines[role.ordinal()] = result.symbolIndex.lines(find, role);
+            uses += lines[role.ordinal()].length;
+        }
+        
+        // merge the roles' ordered lines
+        for (int printed = 0; printed < uses; printed++) {
+            int first = -1;
+            
+            for (int r = 0; r < roles.length; r++) {
+                if (next[r] < lines[r].length && 
+                        (first < 0 || lines[r][next[r]] < lines[first][next[first]]))
+                    first = r;
+            }
+            
+            out.print(result.file);
+            out.print(':');
+            out.print(lines[first][next[first]++]);
+            out.print(": ");
+            out.print(roles[first].name().toLowerCase(Locale.ROOT));
+            out.print(' ');
+            out.println(find);
+        }
+        
+        return uses;
+    }
+    
+    /**
+     * Print each file's allocation and retained sizes (unless quiet), and
+     * the totals.
+     */
+    private void reportMemory(List<MemoryProfile> profiles) {
+        if (!MemoryProfile.isSupported())
+            out.println("allocation can't be measured on this JVM");
+        
+        out.printf("%12s %7s %12s %7s %12s %7s %12s %12s  %s%n", 
+                   "scan", "B/token", "parse", "B/node", "semantic", "B/node", 
+                   "token list", "tree", "file");
+        
+        long tokens = 0;
+        long nodes = 0;
+        long scan = 0;
+        long parse = 0;
+        long semantic = 0;
+        long tokenList = 0;
+        long tree = 0;
+        
+        for (MemoryProfile profile : profiles) {
+            tokens += profile.tokens;
+            nodes += profile.nodes;
+            scan += profile.scanAllocated;
+            parse += profile.parseAllocated;
+            semantic += profile.semanticAllocated;
+            tokenList += profile.tokenListRetained;
+            tree += profile.treeRetained;
+            
+            if (!quiet)
+                printMemoryRow(profile.tokens, profile.nodes, profile.scanAllocated, 
+                               profile.parseAllocated, profile.semanticAllocated,
+                               profile.tokenListRetained, profile.treeRetained, 
+                               profile.file.toString());
+        }
+        
+        printMemoryRow(tokens, nodes, scan, parse, semantic, tokenList, tree, 
+                       "total (" + profiles.size() + " files)");
+    }
+    
+    private void printMemoryRow(long tokens, long nodes, long scan, long parse, 
+                                long semantic, long tokenList, long tree, String name) {
+        boolean measured = MemoryProfile.isSupported();
+        
+        out.printf("%12s %7s %12s %7s %12s %7s %12d %12d  %s%n",
+                   measured ? Long.toString(scan) : "n/a", perUnit(scan, tokens, measured),
+                   measured ? Long.toString(parse) : "n/a", perUnit(parse, nodes, measured),
+                   measured ? Long.toString(semantic) : "n/a", perUnit(semantic, nodes, measured),
+                   tokenList, tree, name);
+    }
+    
+    private static String perUnit(long bytes, long units, boolean measured) {
+        return measured && units > 0 ? String.format("%.1f", (double) bytes / units) : "-";
+    }
+    
+    /**
+     * Set the options and inputs from the command line.
+     * 
+     * @throws IllegalArgumentException the command line is invalid
+     */
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--phase":
+                    try {
+                        phase = Phase.fromName(value(args, ++i));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("unknown phase: " + args[i]);
+                    }
+                    break;
+                    
+                case "--threads":
+                    try {
+                        threads = Integer.parseInt(value(args, ++i));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("invalid thread count: " + args[i]);
+                    }
+                    
+                    if (threads < 1)
+                        throw new IllegalArgumentException("invalid thread count: " + args[i]);
+                    break;
+                    
+                case "--pipelined":
+                    pipelined = true;
+                    break;
+                    
+                case "--profile-memory":
+                    profileMemory = true;
+                    break;
+                    
+                case "--max-depth":
+                    limits.setMaxDepth(limit(args, ++i));
+                    break;
+                    
+                case "--max-lexeme":
+                    limits.setMaxLexemeLength(limit(args, ++i));
+                    break;
+                    
+                case "--max-tokens":
+                    limits.setMaxTokens(limit(args, ++i));
+                    break;
+                    
+                case "--max-nodes":
+                    limits.setMaxNodes(limit(args, ++i));
+                    break;
+                    
+                case "--timeout":
+                    limits.setMaxWallNanos(limit(args, ++i) * 1000000L);
+                    break;
+                    
+                case "--token-cache":
+                    tokenCache = Paths.get(value(args, ++i));
+                    break;
+                    
+                case "--find":
+                    find = value(args, ++i);
+                    break;
+                    
+                case "--processes":
+                    try {
+                        processes = Integer.parseInt(value(args, ++i));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("invalid process count: " + args[i]);
+                    }
+                    
+                    if (processes < 1)
+                        throw new IllegalArgumentException("invalid process count: " + args[i]);
+                    break;
+                    
+                case "--worker-heap":
+                    workerHeap = value(args, ++i);
+                    
+                    if (!workerHeap.matches("[0-9]+[kKmMgG]?"))
+                        throw new IllegalArgumentException("invalid heap size: " + workerHeap);
+                    break;
+                    
+                case "--optimize":
+                    optimizations = Optimizer.parsePasses(value(args, ++i));
+                    break;
+                    
+                case "--dataflow":
+                    dataflow = true;
+                    break;
+                    
+                case "--share-expressions":
+                    shareExpressions = true;
+                    break;
+                    
+                case "--format":
+                    String format = value(args, ++i);
+                    
+                    if (format.equals("text"))
+                        renderer = new TextRenderer();
+                    else if (format.equals("json"))
+                        renderer = new JsonRenderer();
+                    else
+                        throw new IllegalArgumentException("unknown format: " + format);
+                    break;
+                    
+                case "--max-errors":
+                    maxErrors = limit(args, ++i);
+                    break;
+                    
+                case "--quiet":
+                    quiet = true;
+                    break;
+                    
+                default:
+                    if (args[i].startsWith("--"))
+                        throw new IllegalArgumentException("unknown option: " + args[i]);
+                    
+                    inputs.add(args[i]);
+            }
+        }
+        
+        if (inputs.isEmpty())
+            throw new IllegalArgumentException("no input files");
+        
+        if (!optimizations.isEmpty() && phase != Phase.SEMANTIC)
+            throw new IllegalArgumentException("--optimize needs --phase semantic");
+        
+        if (dataflow && phase != Phase.SEMANTIC)
+            throw new IllegalArgumentException("--dataflow needs --phase semantic");
+        
+        if (shareExpressions && phase != Phase.SEMANTIC)
+            throw new IllegalArgumentException("--share-expressions needs --phase semantic");
+    }
+    
+    private static int limit(String[] args, int i) {
+        try {
+            int limit = Integer.parseInt(value(args, i));
+            
+            if (limit > 0)
+                return limit;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        
+        throw new IllegalArgumentException("invalid limit: " + args[i - 1] + " " + args[i]);
+    }
+    
+    private static String value(String[] args, int i) {
+        if (i >= args.length)
+            throw new IllegalArgumentException(args[i - 1] + " requires a value");
+        
+        return args[i];
+    }
+    
+    /**
+     * Expand files, directories and glob patterns into a list of files,
+     * without duplicates.
+     * 
+     * @param inputs the command line inputs
+     * @return the files, in command line order
+     * @throws IOException an input doesn't exist or can't be listed
+     */
+    public static List<Path> expand(List<String> inputs) throws IOException {
+        Set<Path> files = new LinkedHashSet<>();
+        
+        for (String input : inputs) {
+            if (isGlob(input)) {
+                Path base = globBase(input);
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + input);
+                
+                try (Stream<Path> walk = Files.walk(base)) {
+                    walk.filter(Files::isRegularFile)
+                        .filter(matcher::matches)
+                        .sorted()
+                        .forEach(files::add);
+                }
+                
+            } else {
+                Path path = Paths.get(input);
+                
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> walk = Files.walk(path)) {
+                        walk.filter(Files::isRegularFile).sorted().forEach(files::add);
+                    }
+                } else if (Files.isRegularFile(path)) {
+                    files.add(path);
+                } else {
+                    throw new IOException("no such file: " + input);
+                }
+            }
+        }
+        
+        return new ArrayList<>(files);
+    }
+    
+    private static boolean isGlob(String input) {
+        for (char ch : "*?[{".toCharArray()) {
+            if (input.indexOf(ch) >= 0)
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Return the directory to walk for a glob: its path up to the first
+     * name with a wildcard.
+     */
+    private static Path globBase(String glob) {
+        Path base = Paths.get("");
+        
+        for (String name : glob.split("[/\\\\]")) {
+            if (isGlob(name))
+                break;
+            
+            base = base.resolve(name.isEmpty() ? "/" : name);
+        }
+        
+        return base;
+    }
+    
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
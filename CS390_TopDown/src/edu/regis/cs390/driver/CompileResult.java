@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.driver;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.index.SymbolIndex;
+import edu.regis.cs390.opt.Optimizer;
+import edu.regis.cs390.parser.TreeNode;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * The outcome of compiling one source file.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class CompileResult {
+    /**
+     * The source file compiled.
+     */
+    public final Path file;
+    
+    /**
+     * The size of the source file, in bytes.
+     */
+    public final long bytes;
+    
+    /**
+     * The number of tokens scanned, not counting EOF.
+     */
+    public final int tokens;
+    
+    /**
+     * The errors and warnings found, in source order per phase.
+     */
+    public final List<Diagnostic> diagnostics;
+    
+    /**
+     * The time spent compiling the file.
+     */
+    public final long elapsedNanos;
+    
+    /**
+     * The parse tree, if it was requested and the file parsed, else null.
+     */
+    public final TreeNode parseTree;
+    
+    /**
+     * The index of the file's identifier uses, if it was requested and 
+     * the file was parsed (perhaps only partly), else null.
+     */
+    public final SymbolIndex symbolIndex;
+    
+    /**
+     * The number of parse tree nodes each optimization pass removed, if
+     * passes were enabled and the file had no semantic errors, else null.
+     */
+    public final EnumMap<Optimizer.Pass, Integer> optimized;
+    
+    public CompileResult(Path file, long bytes, int tokens, 
+                         List<Diagnostic> diagnostics, long elapsedNanos,
+                         TreeNode parseTree) {
+        this(file, bytes, tokens, diagnostics, elapsedNanos, parseTree, null);
+    }
+    
+    public CompileResult(Path file, long bytes, int tokens, 
+                         List<Diagnostic> diagnostics, long elapsedNanos,
+                         TreeNode parseTree, SymbolIndex symbolIndex) {
+        this(file, bytes, tokens, diagnostics, elapsedNanos, parseTree, symbolIndex, null);
+    }
+    
+    public CompileResult(Path file, long bytes, int tokens, 
+                         List<Diagnostic> diagnostics, long elapsedNanos,
+                         TreeNode parseTree, SymbolIndex symbolIndex,
+                         EnumMap<Optimizer.Pass, Integer> optimized) {
+        this.file = file;
+        this.bytes = bytes;
+        this.tokens = tokens;
+        this.diagnostics = diagnostics;
+        this.elapsedNanos = elapsedNanos;
+        this.parseTree = parseTree;
+        this.symbolIndex = symbolIndex;
+        this.optimized = optimized;
+    }
+    
+    /**
+     * Return the number of ERROR diagnostics.
+     * 
+     * @return the error count
+     */
+    public int getErrorCount() {
+        int errors = 0;
+        
+        for (Diagnostic diagnostic : diagnostics) {
+            if (diagnostic.severity == Severity.ERROR)
+                errors++;
+        }
+        
+        return errors;
+    }
+}
@@ -0,0 +1,617 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.driver;
+
+import edu.regis.cs390.Semantic.SemanticAnalyzer;
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.DiagnosticList;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.index.SymbolIndex;
+import edu.regis.cs390.flow.DataflowAnalyzer;
+import edu.regis.cs390.flow.StatementFacts;
+import edu.regis.cs390.jfr.CompileEvents;
+import edu.regis.cs390.jfr.PhaseEvent;
+import edu.regis.cs390.limits.CompileLimits;
+import edu.regis.cs390.limits.LimitExceededException;
+import edu.regis.cs390.opt.Optimizer;
+import edu.regis.cs390.parser.ParseError;
+import edu.regis.cs390.parser.PredictiveParser;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.tok.MappedTokenSource;
+import edu.regis.cs390.tok.SymbolInterner;
+import edu.regis.cs390.tok.Token;
+import edu.regis.cs390.tok.TokenCache;
+import edu.regis.cs390.tok.TokenSource;
+import edu.regis.cs390.tok.TokenType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntSupplier;
+
+/**
+ * Compiles one source file at a time through the selected phases. A
+ * Compiler keeps its read and decode buffers, Scanner, parser and symbol
+ * interner between files, resetting them for each one, so once warm it
+ * allocates little besides each file's tree and diagnostics. A Compiler
+ * isn't thread safe; forCurrentThread() gives each thread its own.
+ * 
+ * Each phase of each file is recorded as a JFR event, and each diagnostic
+ * too, when a flight recording with those events enabled is running (see
+ * CompileEvents).
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class Compiler {
+    /**
+     * Each thread's Compiler.
+     */
+    private static final ThreadLocal<Compiler> perThread = 
+            ThreadLocal.withInitial(Compiler::new);
+    
+    /**
+     * The source file's bytes, reused between files.
+     */
+    private byte[] bytes = new byte[16 * 1024];
+    
+    /**
+     * The source file's text, reused between files.
+     */
+    private char[] text = new char[16 * 1024];
+    
+    /**
+     * Decodes the source files (UTF-8, so plain ASCII is unchanged).
+     */
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    
+    /**
+     * The front end, reset for each file.
+     */
+    private final SymbolInterner symbols = new SymbolInterner();
+    private final Scanner scanner = new Scanner(text, 0, "", symbols);
+    private final PredictiveParser parser = new PredictiveParser(scanner);
+    
+    /**
+     * Return the calling thread's Compiler.
+     * 
+     * @return a Compiler only used by this thread
+     */
+    public static Compiler forCurrentThread() {
+        return perThread.get();
+    }
+    
+    /**
+     * The parse tree of the file being compiled, if it's kept.
+     */
+    private TreeNode parseTree;
+    
+    /**
+     * The limits each file is compiled within, and the deadline of the
+     * file being compiled.
+     */
+    private CompileLimits limits = CompileLimits.DEFAULT;
+    private long deadline;
+    
+    /**
+     * Set the limits each file is compiled within. A file exceeding them
+     * gets a LIMIT_EXCEEDED diagnostic; its wall time counts from the start
+     * of its compile, reading included.
+     * 
+     * @param limits the limits for later files
+     */
+    public void setLimits(CompileLimits limits) {
+        this.limits = limits;
+    }
+    
+    /**
+     * True, if each file's identifier uses are indexed as it's parsed.
+     */
+    private boolean indexSymbols;
+    
+    /**
+     * Set whether each file's identifier uses are indexed as it's parsed,
+     * giving each result a SymbolIndex.
+     * 
+     * @param indexSymbols true, to index later files
+     */
+    public void setIndexSymbols(boolean indexSymbols) {
+        this.indexSymbols = indexSymbols;
+    }
+    
+    /**
+     * The optimization passes run on each semantically valid tree, and
+     * the nodes each removed from the file being compiled (null if they
+     * didn't run).
+     */
+    private Set<Optimizer.Pass> optimizations = EnumSet.noneOf(Optimizer.Pass.class);
+    private EnumMap<Optimizer.Pass, Integer> optimized;
+    
+    /**
+     * Set the optimization passes run on the tree of each file that has
+     * no semantic errors, giving each result the nodes each pass removed.
+     * The passes only run when the semantic phase does.
+     * 
+     * @param passes the passes to run on later files (none, to not optimize)
+     */
+    public void setOptimizations(Set<Optimizer.Pass> passes) {
+        optimizations = EnumSet.noneOf(Optimizer.Pass.class);
+        optimizations.addAll(passes);
+    }
+    
+    /**
+     * True, if the DataflowAnalyzer runs on each semantically valid tree.
+     */
+    private boolean dataflow;
+    
+    /**
+     * Set whether the DataflowAnalyzer runs on the tree of each file that
+     * has no semantic errors, adding its USE_BEFORE_DEFINITION errors and
+     * DEAD_STORE warnings to the file's diagnostics. It runs before the
+     * optimization passes, which skip a file it found errors in. It only
+     * runs when the semantic phase does.
+     * 
+     * @param dataflow true, to analyze later files
+     */
+    public void setDataflow(boolean dataflow) {
+        this.dataflow = dataflow;
+    }
+    
+    /**
+     * True, if identical expression subtrees are shared before semantic
+     * analysis.
+     */
+    private boolean shareExpressions;
+    
+    /**
+     * Set whether the SemanticAnalyzer shares identical expression
+     * subtrees of each tree (see HashConser) before checking it, so each
+     * distinct expression's type is inferred once. A shared subtree's
+     * leaves keep the line of its first occurrence.
+     * 
+     * @param shareExpressions true, to share the expressions of later files
+     */
+    public void setShareExpressions(boolean shareExpressions) {
+        this.shareExpressions = shareExpressions;
+    }
+    
+    /**
+     * Compile the given file through the given phase.
+     * 
+     * @param file a source program
+     * @param last the last phase run
+     * @return the file's diagnostics and statistics
+     */
+    public CompileResult compile(Path file, Phase last) {
+        return compile(file, last, false);
+    }
+    
+    /**
+     * Compile the given file through the given phase.
+     * 
+     * @param file a source program
+     * @param last the last phase run
+     * @param keepTree true, if the result should hold the parse tree
+     * @return the file's diagnostics and statistics
+     */
+    public CompileResult compile(Path file, Phase last, boolean keepTree) {
+        long start = System.nanoTime();
+        int size;
+        
+        try {
+            size = read(file);
+        } catch (IOException e) {
+            List<Diagnostic> diagnostics = ioError(e);
+            CompileEvents.diagnostics(file, diagnostics);
+            
+            return new CompileResult(file, 0, 0, diagnostics, System.nanoTime() - start, null);
+        }
+        
+        return compile(file, bytes, size, last, keepTree, start);
+    }
+    
+    /**
+     * Compile source text that's already in memory through the given phase.
+     * 
+     * @param name the source's name, used as the result's file
+     * @param source the UTF-8 source text is source[0, length)
+     * @param length the size of the source text, in bytes
+     * @param last the last phase run
+     * @param keepTree true, if the result should hold the parse tree
+     * @return the source's diagnostics and statistics
+     */
+    public CompileResult compile(Path name, byte[] source, int length, 
+                                 Phase last, boolean keepTree) {
+        return compile(name, source, length, last, keepTree, System.nanoTime());
+    }
+    
+    private CompileResult compile(Path name, byte[] source, int size, 
+                                  Phase last, boolean keepTree, long start) {
+        int tokens = 0;
+        List<Diagnostic> diagnostics;
+        SymbolIndex index = startIndex();
+        parseTree = null;
+        optimized = null;
+        
+        try {
+            int length = decode(source, size);
+            symbols.clear();
+            scanner.reset(text, length, name.toString(), symbols);
+            applyLimits(start);
+            
+            try {
+                diagnostics = run(name, size, last);
+            } finally {
+                tokens = scanner.getTokenCount();
+                
+                // the text is in memory, so this only ends the scan, e.g.
+                // publishing its metrics if a parse error stopped it early
+                scanner.close();
+            }
+            
+        } catch (ParseError e) {
+            diagnostics = Collections.singletonList(e.getDiagnostic());
+        } catch (LimitExceededException e) {
+            diagnostics = Collections.singletonList(e.getDiagnostic());
+        } catch (IOException e) {
+            diagnostics = ioError(e);
+        }
+        
+        CompileEvents.diagnostics(name, diagnostics);
+        
+        TreeNode tree = keepTree ? parseTree : null;
+        parseTree = null;
+        
+        return new CompileResult(name, size, tokens, diagnostics, 
+                                 System.nanoTime() - start, tree, index, optimized);
+    }
+    
+    /**
+     * Compile the given file through the given phase, reading its tokens
+     * from the given token cache file (see TokenCache). If the cache isn't
+     * current, the file is scanned into it first, so later compiles of the
+     * unchanged file neither read nor scan it.
+     *
+     * @param file a source program
+     * @param cache the file's token cache
+     * @param last the last phase run
+     * @param keepTree true, if the result should hold the parse tree
+     * @return the file's diagnostics and statistics
+     */
+    public CompileResult compileCached(Path file, Path cache, Phase last, boolean keepTree) {
+        long start = System.nanoTime();
+        int size = 0;
+        int tokens = 0;
+        List<Diagnostic> diagnostics;
+        SymbolIndex index = startIndex();
+        parseTree = null;
+        optimized = null;
+        
+        try {
+            symbols.clear();
+            
+            if (!TokenCache.isCurrent(cache, file)) {
+                // stamped as it was before reading, so an edit made in
+                // between makes the cache stale rather than wrong
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                size = read(file);
+                int length = decode(bytes, size);
+                scanner.reset(text, length, file.toString(), symbols);
+                applyLimits(start);
+                
+                try {
+                    TokenCache.write(scanner, file, size, modified, cache);
+                } finally {
+                    tokens = scanner.getTokenCount();
+                    scanner.close();
+                }
+            }
+            
+            // the scan interned the file's identifiers in the order the
+            // cache reads them, so reading it assigns the same symbol IDs
+            MappedTokenSource source = TokenCache.open(cache, file, symbols);
+            size = (int) source.getSourceSize();
+            applyLimits(start);
+            
+            try {
+                diagnostics = run(file, size, last, source, source::getTokenCount);
+            } finally {
+                tokens = source.getTokenCount();
+            }
+        
+        } catch (ParseError e) {
+            diagnostics = Collections.singletonList(e.getDiagnostic());
+        } catch (LimitExceededException e) {
+            diagnostics = Collections.singletonList(e.getDiagnostic());
+        } catch (IOException e) {
+            diagnostics = ioError(e);
+        }
+        
+        CompileEvents.diagnostics(file, diagnostics);
+        
+        TreeNode tree = keepTree ? parseTree : null;
+        parseTree = null;
+        
+        return new CompileResult(file, size, tokens, diagnostics,
+                                 System.nanoTime() - start, tree, index, optimized);
+    }
+    
+    /**
+     * Compile the given file, measuring the memory each phase allocates
+     * and the size of the token list and parse tree. The phases are run
+     * one after another, with the parser reading the scanned token list,
+     * so each one's allocation is measured on its own.
+     * 
+     * @param file a source program
+     * @return the file's allocation and retained sizes, and its diagnostics
+     */
+    public MemoryProfile profileMemory(Path file) {
+        long start = System.nanoTime();
+        int size;
+        
+        try {
+            size = read(file);
+        } catch (IOException e) {
+            CompileResult result = new CompileResult(file, 0, 0, ioError(e), 
+                                                     System.nanoTime() - start, null);
+            return new MemoryProfile(result, 0, 0, 0, 0, 0, 0);
+        }
+        
+        long scanAllocated = 0;
+        long parseAllocated = 0;
+        long semanticAllocated = 0;
+        ArrayList<Token> tokens = new ArrayList<>();
+        TreeNode tree = null;
+        List<Diagnostic> diagnostics;
+        
+        try {
+            int length = decode(bytes, size);
+            symbols.clear();
+            scanner.reset(text, length, file.toString(), symbols);
+            applyLimits(start);
+            
+            long before = MemoryProfile.allocatedBytes();
+            tokens = scanner.scanAll();
+            scanAllocated = MemoryProfile.allocatedSince(before);
+            
+            Iterator<Token> scanned = tokens.iterator();
+            Token eof = tokens.get(tokens.size() - 1);
+            parser.reset(() -> scanned.hasNext() ? scanned.next() : eof);
+            parser.setSymbolIndex(null);
+            
+            before = MemoryProfile.allocatedBytes();
+            tree = parser.parse();
+            parseAllocated = MemoryProfile.allocatedSince(before);
+            
+            before = MemoryProfile.allocatedBytes();
+            DiagnosticList sink = new DiagnosticList();
+            SemanticAnalyzer analyzer = new SemanticAnalyzer(tree, symbols, sink);
+            analyzer.setLimits(limits, deadline);
+            analyzer.setShareExpressions(shareExpressions);
+            analyzer.analyzeProgram();
+            semanticAllocated = MemoryProfile.allocatedSince(before);
+            
+            diagnostics = sink.getDiagnostics();
+            
+        } catch (ParseError e) {
+            diagnostics = Collections.singletonList(e.getDiagnostic());
+        } catch (LimitExceededException e) {
+            diagnostics = Collections.singletonList(e.getDiagnostic());
+        } catch (IOException e) {
+            diagnostics = ioError(e);
+        }
+        
+        CompileResult result = new CompileResult(file, size, scanner.getTokenCount(), 
+                diagnostics, System.nanoTime() - start, null);
+        
+        return new MemoryProfile(result, CompileEvents.countNodes(tree), 
+                scanAllocated, parseAllocated, semanticAllocated,
+                MemoryProfile.estimateRetained(tokens), 
+                tree == null ? 0 : MemoryProfile.estimateRetained(tree));
+    }
+    
+    /**
+     * Run the phases through the given phase on the scanner's source,
+     * emitting an event for each phase.
+     * 
+     * @param name the source's name
+     * @param size the source's size, in bytes
+     */
+    private List<Diagnostic> run(Path name, int size, Phase last) 
+            throws ParseError, IOException {
+        return run(name, size, last, scanner, scanner::getTokenCount);
+    }
+    
+    /**
+     * Return the pool to check statements on, or null if it has no idle
+     * threads. A batch worker's own pool is used, so the checks share its
+     * threads rather than competing with them.
+     */
+    private static ForkJoinPool analysisPool() {
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() 
+                ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        
+        return pool.getActiveThreadCount() < pool.getParallelism() ? pool : null;
+    }
+    
+    /**
+     * Run the phases through the given phase on the given tokens,
+     * emitting an event for each phase.
+     * 
+     * @param name the source's name
+     * @param size the source's size, in bytes
+     * @param source the source's tokens
+     * @param tokenCount the number of tokens read from source so far
+     */
+    private List<Diagnostic> run(Path name, int size, Phase last, TokenSource source,
+                                 IntSupplier tokenCount) throws ParseError, IOException {
+        if (last == Phase.SCAN) {
+            PhaseEvent scan = CompileEvents.scan();
+            scan.begin();
+            
+            while (source.next().type != TokenType.EOF)
+                ;
+            
+            scan.end();
+            
+            if (scan.shouldCommit()) {
+                scan.setFile(name.toString(), size);
+                scan.setTokens(tokenCount.getAsInt());
+                scan.commit();
+            }
+            
+            return Collections.emptyList();
+        }
+        
+        PhaseEvent parse = CompileEvents.parse();
+        int nodes = -1;
+        parse.begin();
+        
+        try {
+            parser.reset(source);
+            parseTree = parser.parse();
+            
+        } finally {
+            parse.end();
+            
+            if (parse.shouldCommit()) {
+                parse.setFile(name.toString(), size);
+                parse.setTokens(tokenCount.getAsInt());
+                parse.setNodes(nodes = CompileEvents.countNodes(parseTree));
+                parse.setFailed(parseTree == null);
+                parse.commit();
+            }
+        }
+        
+        if (last == Phase.PARSE)
+            return Collections.emptyList();
+        
+        PhaseEvent semantic = CompileEvents.semantic();
+        semantic.begin();
+        
+        DiagnosticList sink = new DiagnosticList();
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(parseTree, symbols, sink);
+        analyzer.setLimits(limits, deadline);
+        analyzer.setShareExpressions(shareExpressions);
+        
+        // a large program's statements are checked in parallel (see
+        // analyzeProgram(ForkJoinPool)) when the pool has idle threads
+        ForkJoinPool pool = analysisPool();
+        
+        if (pool != null)
+            analyzer.analyzeProgram(pool);
+        else
+            analyzer.analyzeProgram();
+        
+        semantic.end();
+        
+        if (semantic.shouldCommit()) {
+            semantic.setFile(name.toString(), size);
+            semantic.setTokens(tokenCount.getAsInt());
+            semantic.setNodes(nodes >= 0 ? nodes : CompileEvents.countNodes(parseTree));
+            semantic.setErrors(sink.getDiagnostics().size());
+            semantic.commit();
+        }
+        
+        if (dataflow && !hasErrors(sink.getDiagnostics()))
+            new DataflowAnalyzer(symbols, sink).analyze(new StatementFacts(parseTree));
+        
+        if (!optimizations.isEmpty() && !hasErrors(sink.getDiagnostics()))
+            optimized = new Optimizer(symbols, optimizations).optimize(parseTree);
+        
+        return sink.getDiagnostics();
+    }
+    
+    private static boolean hasErrors(List<Diagnostic> diagnostics) {
+        for (Diagnostic diagnostic : diagnostics) {
+            if (diagnostic.severity == Severity.ERROR)
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Return a new index for the parser to add the next file's identifier
+     * uses to, if they're indexed, else null.
+     */
+    private SymbolIndex startIndex() {
+        SymbolIndex index = indexSymbols ? new SymbolIndex() : null;
+        parser.setSymbolIndex(index);
+        
+        return index;
+    }
+    
+    /**
+     * Start the limits of a file whose compile started at the given time.
+     */
+    private void applyLimits(long start) {
+        deadline = limits.deadline(start);
+        scanner.setLimits(limits, deadline);
+        parser.setLimits(limits, deadline);
+    }
+    
+    private static List<Diagnostic> ioError(IOException e) {
+        return Collections.singletonList(new Diagnostic("IO_ERROR", 
+                Severity.ERROR, Diagnostic.NO_LINE, null, e.toString()));
+    }
+    
+    /**
+     * Read the whole file into the byte buffer, returning its size.
+     */
+    private int read(Path file) throws IOException {
+        int size = 0;
+        
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int count; (count = in.read(bytes, size, bytes.length - size)) >= 0; ) {
+                size += count;
+                
+                if (size == bytes.length)
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+        }
+        
+        return size;
+    }
+    
+    /**
+     * Decode source[0, size) into the text buffer, returning the number
+     * of chars.
+     */
+    private int decode(byte[] source, int size) throws IOException {
+        if (text.length < size)
+            text = new char[Math.max(size, text.length * 2)];
+        
+        // UTF-8 never decodes to more chars than bytes
+        ByteBuffer in = ByteBuffer.wrap(source, 0, size);
+        CharBuffer out = CharBuffer.wrap(text);
+        
+        decoder.reset();
+        CoderResult result = decoder.decode(in, out, true);
+        
+        if (!result.isUnderflow())
+            result.throwException();
+        
+        decoder.flush(out);
+        return out.position();
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.driver;
+
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.tok.Token;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * The memory used to compile one file (see Compiler.profileMemory()): the
+ * bytes each phase allocated on the compiling thread, and estimates of
+ * the retained size of the token list and parse tree.
+ * 
+ * Allocation is measured with com.sun.management.ThreadMXBean, so it's
+ * exact for the phase's thread but includes any class loading or JIT
+ * work the phase triggered; profile a warm JVM (e.g. many files) for
+ * steady state figures. Retained sizes are computed from HotSpot's object
+ * layout (12 byte headers and 4 byte references with compressed oops,
+ * otherwise 16 and 8, 8 byte alignment), counting each String once,
+ * except node names, which are shared constants.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class MemoryProfile {
+    /**
+     * Returned by allocatedBytes() when allocation can't be measured.
+     */
+    public static final long UNSUPPORTED = -1;
+    
+    private static final com.sun.management.ThreadMXBean threads = threadBean();
+    
+    private static final boolean COMPRESSED_OOPS = compressedOops();
+    private static final int REFERENCE = COMPRESSED_OOPS ? 4 : 8;
+    private static final int HEADER = COMPRESSED_OOPS ? 12 : 16;
+    private static final int ARRAY_HEADER = HEADER + 4;
+    
+    /**
+     * Strings hold a byte[] (Java 9 or later) rather than a char[].
+     */
+    private static final boolean COMPACT_STRINGS = 
+            !System.getProperty("java.specification.version").startsWith("1.");
+    
+    public final Path file;
+    public final long bytes;
+    public final int tokens;
+    public final int nodes;
+    
+    /**
+     * Bytes allocated by each phase, or UNSUPPORTED; 0 for a phase that
+     * didn't run.
+     */
+    public final long scanAllocated;
+    public final long parseAllocated;
+    public final long semanticAllocated;
+    
+    /**
+     * Estimated retained bytes of the token list and the parse tree (0 if
+     * the parse failed).
+     */
+    public final long tokenListRetained;
+    public final long treeRetained;
+    
+    /**
+     * The file's diagnostics.
+     */
+    public final CompileResult result;
+    
+    MemoryProfile(CompileResult result, int nodes, 
+                  long scanAllocated, long parseAllocated, long semanticAllocated,
+                  long tokenListRetained, long treeRetained) {
+        this.file = result.file;
+        this.bytes = result.bytes;
+        this.tokens = result.tokens;
+        this.nodes = nodes;
+        this.scanAllocated = scanAllocated;
+        this.parseAllocated = parseAllocated;
+        this.semanticAllocated = semanticAllocated;
+        this.tokenListRetained = tokenListRetained;
+        this.treeRetained = treeRetained;
+        this.result = result;
+    }
+    
+    /**
+     * Return true, if this JVM can measure the bytes a thread allocates.
+     * 
+     * @return true, if allocatedBytes() is supported
+     */
+    public static boolean isSupported() {
+        return threads != null;
+    }
+    
+    /**
+     * Return the bytes allocated by the current thread so far.
+     * 
+     * @return a running total, or UNSUPPORTED
+     */
+    public static long allocatedBytes() {
+        if (threads == null)
+            return UNSUPPORTED;
+        
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    
+    /**
+     * Return the bytes allocated since the given allocatedBytes() total.
+     */
+    static long allocatedSince(long before) {
+        return before == UNSUPPORTED ? UNSUPPORTED : allocatedBytes() - before;
+    }
+    
+    /**
+     * Estimate the bytes a list of tokens retains: the list, the Tokens and
+     * their distinct lexemes.
+     * 
+     * @param tokens a token list, e.g. from Scanner.scanAll()
+     * @return the estimated retained size, in bytes
+     */
+    public static long estimateRetained(List<Token> tokens) {
+        IdentityHashMap<String, Boolean> strings = new IdentityHashMap<>();
+        
+        // ArrayList: size, modCount and elementData
+        long size = align(HEADER + 8 + REFERENCE) + array(tokens.size(), REFERENCE);
+        
+        // Token: type, lexeme, symbol and line
+        long token = align(HEADER + 2 * REFERENCE + 8);
+        
+        for (Token t : tokens)
+            size += token + string(t.lexeme, strings);
+        
+        return size;
+    }
+    
+    /**
+     * Estimate the bytes a parse tree retains: its nodes, their child
+     * lists and their distinct lexemes.
+     * 
+     * @param root the parse tree
+     * @return the estimated retained size, in bytes
+     */
+    public static long estimateRetained(TreeNode root) {
+        IdentityHashMap<String, Boolean> strings = new IdentityHashMap<>();
+        
+        // TreeNode: type, lexeme, name, parent, children, symbol, line, canonicalId
+        long node = align(HEADER + 5 * REFERENCE + 12);
+        long list = align(HEADER + 8 + REFERENCE);
+        
+        long size = 0;
+        ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        
+        while (!pending.isEmpty()) {
+            TreeNode current = pending.pop();
+            ArrayList<TreeNode> children = current.getChildren();
+            
+            size += node + list;
+            
+            // a list's array is shared while it's empty, then grows to 10,
+            // then by half, as nodes are added
+            if (!children.isEmpty())
+                size += array(capacity(children.size()), REFERENCE);
+            size += string(current.lexeme, strings);
+            
+            for (TreeNode child : children)
+                pending.push(child);
+        }
+        
+        return size;
+    }
+    
+    private static long string(String s, IdentityHashMap<String, Boolean> seen) {
+        if (s == null || seen.put(s, Boolean.TRUE) != null)
+            return 0;
+        
+        // String: value, hash (and coder, hashIsZero)
+        long header = align(HEADER + REFERENCE + 4 + (COMPACT_STRINGS ? 2 : 0));
+        
+        if (s.isEmpty())
+            return header;
+        
+        return header + array(s.length(), COMPACT_STRINGS ? 1 : 2);
+    }
+    
+    private static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+    
+    private static int capacity(int size) {
+        int capacity = 10;
+        
+        while (capacity < size)
+            capacity += capacity >> 1;
+        
+        return capacity;
+    }
+    
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+    
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            
+            if (!(bean instanceof com.sun.management.ThreadMXBean))
+                return null;
+            
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            
+            if (!threads.isThreadAllocatedMemorySupported())
+                return null;
+            
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+            
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+    
+    private static boolean compressedOops() {
+        try {
+            com.sun.management.HotSpotDiagnosticMXBean hotSpot = ManagementFactory
+                    .getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+            
+            return hotSpot == null || 
+                   Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+            
+        } catch (IllegalArgumentException | SecurityException e) {
+            return true;
+        }
+    }
+}
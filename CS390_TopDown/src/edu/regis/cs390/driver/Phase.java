@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.driver;
+
+import java.util.Locale;
+
+/**
+ * The compiler phases a batch run can stop after. Each phase includes
+ * the phases before it.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public enum Phase {
+    SCAN,
+    PARSE,
+    SEMANTIC
+    ;
+    
+    /**
+     * Return the phase with the given name, ignoring case.
+     * 
+     * @param name "scan", "parse" or "semantic"
+     * @return the named phase
+     * @throws IllegalArgumentException there's no such phase
+     */
+    public static Phase fromName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.flow;
+
+/**
+ * Operations on bit sets stored as long[] words, indexed by symbol ID.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class Bits {
+    /**
+     * Return a cleared bit set able to hold the given number of bits.
+     * 
+     * @param size the number of bits (e.g. SymbolInterner.size())
+     * @return the bit set's words
+     */
+    public static long[] create(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+    
+    /**
+     * Return true, if the given bit is set.
+     */
+    public static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+    
+    /**
+     * Set the given bit.
+     */
+    public static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+    
+    /**
+     * Clear the given bit.
+     */
+    public static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+    
+    /**
+     * Return the number of set bits.
+     */
+    public static int count(long[] bits) {
+        int count = 0;
+        
+        for (long word : bits)
+            count += Long.bitCount(word);
+        
+        return count;
+    }
+}
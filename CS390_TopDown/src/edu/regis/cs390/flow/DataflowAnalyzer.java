@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.flow;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.DiagnosticSink;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.tok.SymbolInterner;
+import java.util.Arrays;
+
+/**
+ * Dataflow analysis over a program's statement sequence, reporting reads
+ * of variables that have no reaching definition and assignments whose
+ * value is never read (dead stores).
+ * 
+ * The language has no branches, so each analysis is one linear pass:
+ * reaching definitions forward and liveness backward, with the dataflow
+ * state held in long[] bit sets indexed by symbol ID.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class DataflowAnalyzer {
+    /**
+     * Diagnostic code of a read with no reaching definition.
+     */
+    public static final String USE_BEFORE_DEFINITION = "USE_BEFORE_DEFINITION";
+    
+    /**
+     * Diagnostic code of an assignment that is never read.
+     */
+    public static final String DEAD_STORE = "DEAD_STORE";
+    
+    /**
+     * The interner of the analyzed program's symbols.
+     */
+    private final SymbolInterner symbols;
+    
+    /**
+     * Problems found are reported to this sink.
+     */
+    private final DiagnosticSink sink;
+    
+    /**
+     * The statement defining the value read by each use, or -1.
+     */
+    private int[] reachingDefs;
+    
+    /**
+     * Bit set of the statements that are dead stores.
+     */
+    private long[] deadStores;
+    
+    /**
+     * The number of uses reported as having no reaching definition.
+     */
+    private int useBeforeDefinitionCount;
+    
+    /**
+     * The number of dead stores found.
+     */
+    private int deadStoreCount;
+    
+    /**
+     * Initialize this analyzer.
+     * 
+     * @param symbols the interner of the analyzed program's symbols
+     * @param sink problems found are reported to this sink
+     */
+    public DataflowAnalyzer(SymbolInterner symbols, DiagnosticSink sink) {
+        this.symbols = symbols;
+        this.sink = sink;
+    }
+    
+    /**
+     * Analyze the given program's statements.
+     * 
+     * @param facts the definitions and uses of each statement
+     */
+    public void analyze(StatementFacts facts) {
+        useBeforeDefinitionCount = 0;
+        deadStoreCount = 0;
+        
+        reachingDefinitions(facts);
+        liveness(facts);
+    }
+    
+    /**
+     * Forward pass: gen is a statement's definition, kill is any earlier
+     * definition of the same symbol. A read with no reaching definition
+     * is reported once per symbol.
+     */
+    private void reachingDefinitions(StatementFacts facts) {
+        int symbolCount = symbols.size();
+        long[] defined = Bits.create(symbolCount);
+        long[] reported = Bits.create(symbolCount);
+        int[] lastDef = new int[symbolCount];
+        Arrays.fill(lastDef, -1);
+        
+        reachingDefs = new int[facts.useCount()];
+        
+        for (int stmt = 0; stmt < facts.size(); stmt++) {
+            for (int use = facts.firstUse(stmt); use < facts.endUse(stmt); use++) {
+                int symbol = facts.use(use);
+                
+                reachingDefs[use] = lastDef[symbol];
+                
+                if (!Bits.get(defined, symbol) && !Bits.get(reported, symbol)) {
+                    Bits.set(reported, symbol);
+                    useBeforeDefinitionCount++;
+                    
+                    report(USE_BEFORE_DEFINITION, Severity.ERROR, "Dataflow Error",
+                           symbol, facts.useNode(use).line);
+                }
+            }
+            
+            int def = facts.def(stmt);
+            
+            if (def >= 0) {
+                Bits.set(defined, def);
+                lastDef[def] = stmt;
+            }
+        }
+    }
+    
+    /**
+     * Backward pass: a statement's uses are gen and its definition is
+     * kill. An assignment to a symbol that isn't live afterwards is a
+     * dead store; "read id" consumes input, so it is never reported.
+     */
+    private void liveness(StatementFacts facts) {
+        long[] live = Bits.create(symbols.size());
+        deadStores = Bits.create(facts.size());
+        
+        for (int stmt = facts.size() - 1; stmt >= 0; stmt--) {
+            int def = facts.def(stmt);
+            
+            if (def >= 0) {
+                if (!Bits.get(live, def) && 
+                    facts.defKind(stmt) == StatementFacts.DefKind.ASSIGN) {
+                    Bits.set(deadStores, stmt);
+                    deadStoreCount++;
+                }
+                
+                Bits.clear(live, def);
+            }
+            
+            for (int use = facts.firstUse(stmt); use < facts.endUse(stmt); use++)
+                Bits.set(live, facts.use(use));
+        }
+        
+        // reported in source order, after the backward pass
+        for (int stmt = 0; stmt < facts.size(); stmt++) {
+            if (Bits.get(deadStores, stmt))
+                report(DEAD_STORE, Severity.WARNING, "Dataflow Warning",
+                       facts.def(stmt), facts.statements.get(stmt).firstLine());
+        }
+    }
+    
+    /**
+     * Return the statement whose definition reaches the given use.
+     * 
+     * @param use a use index (see StatementFacts)
+     * @return a statement index, or -1 if no definition reaches the use
+     */
+    public int reachingDefinition(int use) {
+        return reachingDefs[use];
+    }
+    
+    /**
+     * Return true, if the given statement is an assignment that is
+     * never read.
+     * 
+     * @param stmt a statement index (see StatementFacts)
+     * @return true, if the statement is a dead store
+     */
+    public boolean isDeadStore(int stmt) {
+        return Bits.get(deadStores, stmt);
+    }
+    
+    /**
+     * Return the number of symbols read before any definition.
+     */
+    public int getUseBeforeDefinitionCount() {
+        return useBeforeDefinitionCount;
+    }
+    
+    /**
+     * Return the number of dead stores.
+     */
+    public int getDeadStoreCount() {
+        return deadStoreCount;
+    }
+    
+    /**
+     * Report a problem with the given symbol.
+     */
+    private void report(String code, Severity severity, String category,
+                        int symbol, int line) {
+        String name = symbols.name(symbol);
+        
+        sink.report(new Diagnostic(code, severity, line, name,
+                    category + ": " + code + ", variable (" + name + ")"));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.flow;
+
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The definitions and uses of each statement in a program, in source
+ * order, as the gen/kill input of a DataflowAnalyzer.
+ * 
+ * A statement defines at most one symbol ("read id" or "id := expr"),
+ * and its uses are kept in one flat array with per-statement offsets,
+ * so a program costs a few ints per statement rather than a set object.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class StatementFacts {
+    /**
+     * Kinds of definition made by a statement.
+     */
+    public enum DefKind {NONE, READ, ASSIGN};
+    
+    /**
+     * The program's statements, in source order.
+     */
+    public final ArrayList<TreeNode> statements;
+    
+    /**
+     * The symbol defined by each statement, or -1.
+     */
+    private final int[] defs;
+    
+    /**
+     * The kind of definition made by each statement.
+     */
+    private final DefKind[] defKinds;
+    
+    /**
+     * Statement i's uses are uses[useStart[i]] to uses[useStart[i + 1] - 1].
+     */
+    private final int[] useStart;
+    
+    /**
+     * The symbols used by all statements, in source order.
+     */
+    private int[] uses;
+    
+    /**
+     * The ID nodes of the uses (for diagnostic positions).
+     */
+    private TreeNode[] useNodes;
+    
+    /**
+     * Collect the definitions and uses of the given program's statements.
+     * 
+     * @param program the PROGRAM root returned by PredictiveParser.parse()
+     */
+    public StatementFacts(TreeNode program) {
+        statements = ParseTrees.statements(program);
+        
+        int count = statements.size();
+        defs = new int[count];
+        defKinds = new DefKind[count];
+        useStart = new int[count + 1];
+        uses = new int[Math.max(16, count * 2)];
+        useNodes = new TreeNode[uses.length];
+        
+        int useCount = 0;
+        ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+        
+        for (int i = 0; i < count; i++) {
+            TreeNode stmt = statements.get(i);
+            TreeNode first = stmt.getChildren().get(0);
+            TreeNode idTail = ParseTrees.child(stmt, TreeNode.PRODUCTION.IDTAIL);
+            
+            defs[i] = -1;
+            defKinds[i] = DefKind.NONE;
+            useStart[i] = useCount;
+            
+            if (first.type == TreeNode.PRODUCTION.DECLARATION)
+                continue;
+            
+            pending.clear();
+            
+            if (first.type == TreeNode.PRODUCTION.READ) {
+                defs[i] = ParseTrees.child(stmt, TreeNode.PRODUCTION.ID).symbol;
+                defKinds[i] = DefKind.READ;
+                
+            } else if (idTail != null && 
+                       ParseTrees.child(idTail, TreeNode.PRODUCTION.EXPR) != null) {
+                defs[i] = first.symbol;
+                defKinds[i] = DefKind.ASSIGN;
+                pending.push(idTail);
+                
+            } else {
+                pending.push(stmt);   // write expr, or call style id(id)
+            }
+            
+            while (!pending.isEmpty()) {
+                TreeNode node = pending.pop();
+                
+                if (node.type == TreeNode.PRODUCTION.ID) {
+                    if (useCount == uses.length) {
+                        uses = Arrays.copyOf(uses, useCount * 2);
+                        useNodes = Arrays.copyOf(useNodes, useCount * 2);
+                    }
+                    
+                    useNodes[useCount] = node;
+                    uses[useCount++] = node.symbol;
+                }
+                
+                ArrayList<TreeNode> children = node.getChildren();
+                for (int c = children.size() - 1; c >= 0; c--)
+                    pending.push(children.get(c));
+            }
+        }
+        
+        useStart[count] = useCount;
+    }
+    
+    /**
+     * Return the number of statements.
+     */
+    public int size() {
+        return defs.length;
+    }
+    
+    /**
+     * Return the number of uses in all statements.
+     */
+    public int useCount() {
+        return useStart[defs.length];
+    }
+    
+    /**
+     * Return the symbol defined by the given statement, or -1.
+     */
+    public int def(int stmt) {
+        return defs[stmt];
+    }
+    
+    /**
+     * Return the kind of definition made by the given statement.
+     */
+    public DefKind defKind(int stmt) {
+        return defKinds[stmt];
+    }
+    
+    /**
+     * Return the index of the given statement's first use.
+     */
+    public int firstUse(int stmt) {
+        return useStart[stmt];
+    }
+    
+    /**
+     * Return the index after the given statement's last use.
+     */
+    public int endUse(int stmt) {
+        return useStart[stmt + 1];
+    }
+    
+    /**
+     * Return the symbol of the use at the given index.
+     */
+    public int use(int index) {
+        return uses[index];
+    }
+    
+    /**
+     * Return the ID node of the use at the given index.
+     */
+    public TreeNode useNode(int index) {
+        return useNodes[index];
+    }
+}
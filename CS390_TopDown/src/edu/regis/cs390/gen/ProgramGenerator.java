@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.gen;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates random programs for the grammar PredictiveParser accepts, for
+ * load and stress testing. The same seed and settings always generate the
+ * same program, and the program is written a statement at a time, so its
+ * size isn't limited by memory.
+ * 
+ * Programs are valid unless an error rate is set: identifiers are declared
+ * ("int" or "bool") before their first use, and every assignment, read
+ * and "!" is type correct.
+ * 
+ * Usage: [--seed n] [--statements n] [--depth n] [--identifiers n]
+ *        [--comments p] [--errors p] [--syntax-errors p] output|-
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class ProgramGenerator {
+    /**
+     * Identifier stems; the n-th identifier is STEMS[n % length] + n / length.
+     */
+    private static final String[] STEMS = {
+        "x", "y", "count", "total", "sum", "value", "flag", "done", "ok", "idx"
+    };
+    
+    private static final String USAGE = 
+            "usage: [--seed n] [--statements n] [--depth n] [--identifiers n] " +
+            "[--comments p] [--errors p] [--syntax-errors p] output|-";
+    
+    private final Random random;
+    
+    private long statements = 1000;
+    private int maxDepth = 3;
+    private int identifiers = 50;
+    private double commentDensity;
+    private double errorRate;
+    private double syntaxErrorRate;
+    private double booleanRatio = 0.25;
+    
+    /**
+     * The type of each declared identifier, in declaration order.
+     */
+    private boolean[] isBoolean;
+    private int declared;
+    
+    /**
+     * The number of declared int and bool identifiers, and the index of
+     * each by type, so expressions can pick one of a type directly.
+     */
+    private int[] ints;
+    private int intCount;
+    private int[] bools;
+    private int boolCount;
+    
+    /**
+     * Initialize a generator.
+     * 
+     * @param seed selects the program generated
+     */
+    public ProgramGenerator(long seed) {
+        random = new Random(seed);
+    }
+    
+    /**
+     * @param statements the number of statements, declarations included
+     */
+    public void setStatements(long statements) {
+        this.statements = statements;
+    }
+    
+    /**
+     * @param maxDepth the deepest expressions nest (in parentheses or "!")
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+    
+    /**
+     * @param identifiers the number of distinct identifiers declared
+     */
+    public void setIdentifiers(int identifiers) {
+        this.identifiers = Math.max(identifiers, 2);
+    }
+    
+    /**
+     * @param commentDensity the probability of a comment before a statement
+     */
+    public void setCommentDensity(double commentDensity) {
+        this.commentDensity = commentDensity;
+    }
+    
+    /**
+     * @param errorRate the probability of a statement having a semantic
+     *        error: an undeclared identifier, a type mismatch, "!" of an
+     *        int or a redeclaration
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+    
+    /**
+     * @param syntaxErrorRate the probability of a statement having a syntax
+     *        error; the parser stops at the first one
+     */
+    public void setSyntaxErrorRate(double syntaxErrorRate) {
+        this.syntaxErrorRate = syntaxErrorRate;
+    }
+    
+    /**
+     * @param booleanRatio the fraction of identifiers declared "bool"
+     */
+    public void setBooleanRatio(double booleanRatio) {
+        this.booleanRatio = booleanRatio;
+    }
+    
+    /**
+     * Write a program.
+     * 
+     * @param out receives the program; it isn't closed or flushed
+     * @throws IOException the output failed
+     */
+    public void generate(Appendable out) throws IOException {
+        isBoolean = new boolean[identifiers];
+        ints = new int[identifiers];
+        bools = new int[identifiers];
+        declared = intCount = boolCount = 0;
+        
+        StringBuilder line = new StringBuilder(256);
+        
+        for (long i = 0; i < statements; i++) {
+            line.setLength(0);
+            
+            if (random.nextDouble() < commentDensity)
+                comment(line);
+            
+            // spread the declarations evenly over the program
+            long remaining = statements - i;
+            boolean declare = declared < 2 || 
+                    random.nextDouble() * remaining < identifiers - declared;
+            
+            if (declared < identifiers && declare)
+                declaration(line);
+            else if (random.nextDouble() < errorRate)
+                semanticError(line);
+            else
+                statement(line);
+            
+            if (random.nextDouble() < syntaxErrorRate)
+                syntaxError(line);
+            
+            out.append(line).append('\n');
+        }
+    }
+    
+    /**
+     * Generate a program from the command line.
+     * 
+     * @param args the options and output (see the class comment)
+     */
+    public static void main(String[] args) {
+        try {
+            if (args.length == 0 || args.length % 2 == 0)
+                throw new IllegalArgumentException("missing output");
+            
+            ProgramGenerator generator = new ProgramGenerator(0);
+            long seed = 0;
+            
+            for (int i = 0; i < args.length - 1; i += 2) {
+                String value = args[i + 1];
+                
+                switch (args[i]) {
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--statements": generator.setStatements(Long.parseLong(value)); break;
+                    case "--depth": generator.setMaxDepth(Integer.parseInt(value)); break;
+                    case "--identifiers": generator.setIdentifiers(Integer.parseInt(value)); break;
+                    case "--comments": generator.setCommentDensity(Double.parseDouble(value)); break;
+                    case "--errors": generator.setErrorRate(Double.parseDouble(value)); break;
+                    case "--syntax-errors": generator.setSyntaxErrorRate(Double.parseDouble(value)); break;
+                    default: throw new IllegalArgumentException("unknown option: " + args[i]);
+                }
+            }
+            
+            generator.random.setSeed(seed);
+            String output = args[args.length - 1];
+            
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    output.equals("-") ? System.out : new FileOutputStream(output),
+                    StandardCharsets.UTF_8), 1 << 16)) {
+                generator.generate(out);
+            }
+            
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println(e.toString());
+            System.exit(1);
+        }
+    }
+    
+    private void declaration(StringBuilder line) {
+        // the first two identifiers are an int and a bool, so both kinds
+        // of expression always have a variable to use
+        boolean bool = declared == 1 || (declared > 1 && random.nextDouble() < booleanRatio);
+        int index = declared++;
+        isBoolean[index] = bool;
+        
+        if (bool)
+            bools[boolCount++] = index;
+        else
+            ints[intCount++] = index;
+        
+        line.append(bool ? "bool " : "int ").append(name(index)).append(';');
+    }
+    
+    private void statement(StringBuilder line) {
+        int kind = random.nextInt(10);
+        
+        if (kind < 2) {                        // read an int
+            line.append("read ").append(name(ints[random.nextInt(intCount)])).append(';');
+            
+        } else if (kind < 4) {                 // write
+            line.append("write ");
+            expression(line, random.nextInt(4) == 0, maxDepth);
+            line.append(';');
+            
+        } else {                               // assign
+            int index = random.nextInt(declared);
+            line.append(name(index)).append(" := ");
+            expression(line, isBoolean[index], maxDepth);
+            line.append(';');
+        }
+    }
+    
+    private void semanticError(StringBuilder line) {
+        switch (random.nextInt(4)) {
+            case 0:                            // undeclared identifier
+                line.append("undeclared").append(random.nextInt(1000)).append(" := 1;");
+                break;
+                
+            case 1:                            // bool := int
+                line.append(name(bools[random.nextInt(boolCount)])).append(" := ");
+                expression(line, false, maxDepth);
+                line.append(';');
+                break;
+                
+            case 2:                            // ! of an int
+                line.append("write !(");
+                expression(line, false, maxDepth);
+                line.append(");");
+                break;
+                
+            default:                           // redeclaration
+                line.append("int ").append(name(random.nextInt(declared))).append(';');
+                break;
+        }
+    }
+    
+    private void syntaxError(StringBuilder line) {
+        switch (random.nextInt(3)) {
+            case 0:                            // missing delimiter
+                line.setLength(line.length() - 1);
+                break;
+                
+            case 1:                            // dangling operator
+                line.insert(line.length() - 1, " +");
+                break;
+                
+            default:                           // unbalanced parenthesis
+                line.insert(line.length() - 1, ")");
+                break;
+        }
+    }
+    
+    /**
+     * Append an expression of the given type, nesting at most depth deep.
+     */
+    private void expression(StringBuilder line, boolean bool, int depth) {
+        if (bool) {
+            booleanFactor(line, depth);
+            return;
+        }
+        
+        int terms = 1 + random.nextInt(3);
+        
+        for (int i = 0; i < terms; i++) {
+            if (i > 0)
+                line.append(random.nextBoolean() ? " + " : " - ");
+            
+            int factors = 1 + random.nextInt(3);
+            
+            for (int j = 0; j < factors; j++) {
+                if (j > 0)
+                    line.append(random.nextBoolean() ? " * " : " / ");
+                
+                intFactor(line, depth);
+            }
+        }
+    }
+    
+    private void intFactor(StringBuilder line, int depth) {
+        int kind = random.nextInt(10);
+        
+        if (depth > 0 && kind < 2) {
+            line.append('(');
+            expression(line, false, depth - 1);
+            line.append(')');
+        } else if (kind < 6) {
+            line.append(name(ints[random.nextInt(intCount)]));
+        } else {
+            // no zero literals, so generated programs can be run
+            line.append(1 + random.nextInt(999));
+        }
+    }
+    
+    private void booleanFactor(StringBuilder line, int depth) {
+        int kind = random.nextInt(10);
+        
+        if (depth > 0 && kind < 3) {
+            line.append('!');
+            booleanFactor(line, depth - 1);
+        } else if (depth > 0 && kind < 4) {
+            line.append('(');
+            booleanFactor(line, depth - 1);
+            line.append(')');
+        } else if (kind < 8) {
+            line.append(name(bools[random.nextInt(boolCount)]));
+        } else {
+            line.append(random.nextBoolean() ? "true" : "false");
+        }
+    }
+    
+    private void comment(StringBuilder line) {
+        if (random.nextBoolean())
+            line.append("// note ").append(random.nextInt(100000)).append('\n');
+        else
+            line.append("/* note ").append(random.nextInt(100000)).append(" */ ");
+    }
+    
+    private static String name(int index) {
+        return STEMS[index % STEMS.length] + index / STEMS.length;
+    }
+}
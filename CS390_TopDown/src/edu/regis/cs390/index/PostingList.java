@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed list of non-negative ints in non-decreasing order, e.g.
+ * the lines an identifier is used on. Each value is stored as the
+ * difference from the one before it, as an unsigned varint (7 bits per
+ * byte, low bits first), so a use on the same or a nearby line takes one
+ * byte.
+ *
+ * @author CS390_TopDown contributors
+ */
+public class PostingList {
+    /**
+     * The encoded values are bytes[0, size).
+     */
+    private byte[] bytes = new byte[4];
+    private int size;
+
+    /**
+     * The number of values, and the last one added.
+     */
+    private int count;
+    private int last;
+
+    /**
+     * Add a value, which must not be less than the last one added.
+     *
+     * @param value the next value
+     * @throws IllegalArgumentException the value is less than the last one
+     */
+    public void add(int value) {
+        int delta = value - last;
+
+        if (delta < 0)
+            throw new IllegalArgumentException(value + " added after " + last);
+
+        if (size + 5 > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(size + 5, bytes.length * 2));
+
+        while ((delta & ~0x7f) != 0) {
+            bytes[size++] = (byte) ((delta & 0x7f) | 0x80);
+            delta >>>= 7;
+        }
+
+        bytes[size++] = (byte) delta;
+        last = value;
+        count++;
+    }
+
+    /**
+     * Call the given consumer with each value, in order.
+     *
+     * @param action receives each value
+     */
+    public void forEach(IntConsumer action) {
+        int value = 0;
+        int pos = 0;
+
+        while (pos < size) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+
+            do {
+                b = bytes[pos++];
+                delta |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            value += delta;
+            action.accept(value);
+        }
+    }
+
+    /**
+     * Return the values, in order.
+     *
+     * @return a new array of the values
+     */
+    public int[] toArray() {
+        int[] values = new int[count];
+        int[] next = new int[1];
+
+        forEach(value -> values[next[0]++] = value);
+
+        return values;
+    }
+
+    /**
+     * Return the number of values.
+     *
+     * @return the value count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Return the first value, which is also the smallest.
+     *
+     * @return the first value added
+     * @throws IllegalStateException the list is empty
+     */
+    public int first() {
+        if (count == 0)
+            throw new IllegalStateException("empty posting list");
+
+        int value = 0;
+        int shift = 0;
+        byte b;
+        int pos = 0;
+
+        do {
+            b = bytes[pos++];
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        return value;
+    }
+
+    /**
+     * Return the last value, which is also the largest.
+     *
+     * @return the last value added
+     * @throws IllegalStateException the list is empty
+     */
+    public int last() {
+        if (count == 0)
+            throw new IllegalStateException("empty posting list");
+
+        return last;
+    }
+
+    /**
+     * Return the number of bytes the encoded values take.
+     *
+     * @return the encoded size
+     */
+    public int getEncodedSize() {
+        return size;
+    }
+}
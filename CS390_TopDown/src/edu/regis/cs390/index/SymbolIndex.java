@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * An inverted index from each identifier of one program to the lines of
+ * its uses, built by the PredictiveParser as it parses (see
+ * PredictiveParser.setSymbolIndex()). Each identifier has a PostingList
+ * of lines per Role, so "where is x assigned" is a hash lookup and a
+ * decode of x's WRITE list, rather than a walk of the parse tree.
+ *
+ * Identifiers are indexed by their symbol IDs (see SymbolInterner), but
+ * the index keeps its own copy of their names, so it stays valid after
+ * the interner is cleared for another file.
+ *
+ * @author CS390_TopDown contributors
+ */
+public class SymbolIndex {
+    /**
+     * How an identifier is used.
+     */
+    public enum Role {
+        DECLARATION,   // int id | bool id
+        READ,          // read id, or an id in an expression
+        WRITE,         // the target of id := expr
+        CALL           // id ( id )
+    }
+
+    private static final Role[] ROLES = Role.values();
+
+    private static final int[] NO_LINES = new int[0];
+
+    /**
+     * The posting list of each symbol and role, at symbol * ROLES.length
+     * + role ordinal, or null if the symbol has no uses in that role.
+     */
+    private PostingList[] postings = new PostingList[64 * ROLES.length];
+
+    /**
+     * The name of each indexed symbol, by symbol ID, and each name's
+     * symbol ID.
+     */
+    private String[] names = new String[64];
+    private final HashMap<String, Integer> symbols = new HashMap<>();
+
+    /**
+     * The total number of uses indexed.
+     */
+    private int uses;
+
+    /**
+     * Record a use of an identifier. Each symbol's uses in a role must be
+     * added in line order, as the parser does.
+     *
+     * @param symbol the identifier's symbol ID
+     * @param name the identifier's name
+     * @param role how the identifier is used
+     * @param line the line of the use
+     */
+    public void add(int symbol, String name, Role role, int line) {
+        if (symbol >= names.length) {
+            int capacity = Math.max(symbol + 1, names.length * 2);
+            names = Arrays.copyOf(names, capacity);
+            postings = Arrays.copyOf(postings, capacity * ROLES.length);
+        }
+
+        if (names[symbol] == null) {
+            names[symbol] = name;
+            symbols.put(name, symbol);
+        }
+
+        int slot = symbol * ROLES.length + role.ordinal();
+
+        if (postings[slot] == null)
+            postings[slot] = new PostingList();
+
+        postings[slot].add(line);
+        uses++;
+    }
+
+    /**
+     * Return the lines on which the named identifier is used in the given
+     * role, in order, with a line repeated for each use on it.
+     *
+     * @param name an identifier
+     * @param role the uses wanted
+     * @return the lines of those uses (empty, if there are none)
+     */
+    public int[] lines(String name, Role role) {
+        PostingList list = postings(name, role);
+
+        return list == null ? NO_LINES : list.toArray();
+    }
+
+    /**
+     * Return the number of uses of the named identifier in the given role.
+     *
+     * @param name an identifier
+     * @param role the uses counted
+     * @return the number of uses
+     */
+    public int count(String name, Role role) {
+        PostingList list = postings(name, role);
+
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * Return the posting list of the named identifier's uses in the given
+     * role.
+     *
+     * @param name an identifier
+     * @param role the uses wanted
+     * @return the lines of those uses, or null if there are none
+     */
+    public PostingList postings(String name, Role role) {
+        Integer symbol = symbols.get(name);
+
+        return symbol == null ? null : postings[symbol * ROLES.length + role.ordinal()];
+    }
+
+    /**
+     * Return true, if the named identifier is used anywhere.
+     *
+     * @param name an identifier
+     * @return true, if it's been indexed
+     */
+    public boolean contains(String name) {
+        return symbols.containsKey(name);
+    }
+
+    /**
+     * Return the number of distinct identifiers indexed.
+     *
+     * @return the identifier count
+     */
+    public int getSymbolCount() {
+        return symbols.size();
+    }
+
+    /**
+     * Return the total number of uses indexed.
+     *
+     * @return the use count
+     */
+    public int getUseCount() {
+        return uses;
+    }
+
+    /**
+     * Return the number of bytes taken by the encoded posting lists.
+     *
+     * @return the encoded size of every posting list
+     */
+    public long getEncodedSize() {
+        long size = 0;
+
+        for (PostingList list : postings) {
+            if (list != null)
+                size += list.getEncodedSize();
+        }
+
+        return size;
+    }
+
+    /**
+     * Forget every use, e.g. to index another program.
+     */
+    public void clear() {
+        Arrays.fill(postings, null);
+        Arrays.fill(names, null);
+        symbols.clear();
+        uses = 0;
+    }
+}
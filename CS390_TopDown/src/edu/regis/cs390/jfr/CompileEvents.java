@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jfr;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.parser.TreeNode;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Helpers for emitting the compiler's JFR events.
+ * 
+ * The events are ordinary jdk.jfr events, enabled and thresholded by the
+ * recording's settings (e.g. "edu.regis.cs390.FileParse#threshold=10 ms"
+ * in a .jfc file). Callers get an event, begin() and end() it, and only
+ * fill in its fields when shouldCommit() is true, so with no recording
+ * running the event is never used and the JIT removes it.
+ * 
+ * Only JfrEvents and the event classes refer to jdk.jfr, and JfrEvents is
+ * only loaded when jdk.jfr is present. On a runtime without it (Java 8
+ * before 8u262), or a build that leaves those classes out (e.g. one made
+ * with javac --release 8), the events record nothing.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public final class CompileEvents {
+    /**
+     * The JfrEvents, or NoEvents without jdk.jfr.
+     */
+    private static final EventFactory EVENTS = load();
+    
+    private CompileEvents() {
+    }
+    
+    /**
+     * Return a new event for scanning a source file on its own.
+     * 
+     * @return a FileScan event
+     */
+    public static PhaseEvent scan() {
+        return EVENTS.scan();
+    }
+    
+    /**
+     * Return a new event for parsing a source file.
+     * 
+     * @return a FileParse event
+     */
+    public static PhaseEvent parse() {
+        return EVENTS.parse();
+    }
+    
+    /**
+     * Return a new event for the semantic analysis of a source file.
+     * 
+     * @return a SemanticAnalysis event
+     */
+    public static PhaseEvent semantic() {
+        return EVENTS.semantic();
+    }
+    
+    /**
+     * Emit a DiagnosticEvent for each of a file's diagnostics.
+     * 
+     * @param file the source file
+     * @param diagnostics its diagnostics
+     */
+    public static void diagnostics(Path file, List<Diagnostic> diagnostics) {
+        EVENTS.diagnostics(file, diagnostics);
+    }
+    
+    /**
+     * Return the number of nodes in a parse tree.
+     * 
+     * @param root the tree's root, or null
+     * @return the number of nodes, or 0 for no tree
+     */
+    public static int countNodes(TreeNode root) {
+        return count(root, false);
+    }
+    
+    /**
+     * Return the number of tokens a parse tree was built from: its leaves
+     * other than EMPTY and the EOF marker.
+     * 
+     * @param root the tree's root, or null
+     * @return the number of tokens, not counting EOF, or 0 for no tree
+     */
+    public static int countTokens(TreeNode root) {
+        // the PROGRAM's last child is the "$$" EOF leaf
+        return root == null ? 0 : count(root, true) - 1;
+    }
+    
+    private static int count(TreeNode root, boolean tokensOnly) {
+        if (root == null)
+            return 0;
+        
+        int count = 0;
+        ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        
+        while (!pending.isEmpty()) {
+            TreeNode node = pending.pop();
+            List<TreeNode> children = node.getChildren();
+            
+            if (!tokensOnly || (children.isEmpty() && node.type != TreeNode.PRODUCTION.EMPTY))
+                count++;
+            
+            for (TreeNode child : children)
+                pending.push(child);
+        }
+        
+        return count;
+    }
+    
+    private static EventFactory load() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            
+            return (EventFactory) Class.forName("edu.regis.cs390.jfr.JfrEvents")
+                                       .getDeclaredConstructor().newInstance();
+            
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new NoEvents();
+        }
+    }
+    
+    /**
+     * The events without jdk.jfr, which are never committed.
+     */
+    private static final class NoEvents implements EventFactory, PhaseEvent {
+        @Override
+        public PhaseEvent scan() {
+            return this;
+        }
+        
+        @Override
+        public PhaseEvent parse() {
+            return this;
+        }
+        
+        @Override
+        public PhaseEvent semantic() {
+            return this;
+        }
+        
+        @Override
+        public void diagnostics(Path file, List<Diagnostic> diagnostics) {
+        }
+        
+        @Override
+        public void begin() {
+        }
+        
+        @Override
+        public void end() {
+        }
+        
+        @Override
+        public boolean shouldCommit() {
+            return false;
+        }
+        
+        @Override
+        public void commit() {
+        }
+        
+        @Override
+        public void setFile(String path, long bytes) {
+        }
+        
+        @Override
+        public void setTokens(int tokens) {
+        }
+    }
+}
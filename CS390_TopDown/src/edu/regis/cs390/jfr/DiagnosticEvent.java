@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event for each diagnostic reported for a source file.
+ * 
+ * @author CS390_TopDown contributors
+ */
+@Name("edu.regis.cs390.Diagnostic")
+@Label("Diagnostic")
+@Category({"CS390", "Compiler"})
+@Description("A diagnostic reported for a source file")
+@StackTrace(false)
+public class DiagnosticEvent extends Event {
+    @Label("Path")
+    public String path;
+    
+    @Label("Code")
+    public String code;
+    
+    @Label("Severity")
+    public String severity;
+    
+    @Label("Line")
+    public int line;
+    
+    @Label("Message")
+    public String message;
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jfr;
+
+import edu.regis.cs390.diag.Diagnostic;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Creates the compiler's events: JfrEvents when jdk.jfr is present, else
+ * events that record nothing (see CompileEvents).
+ * 
+ * @author CS390_TopDown contributors
+ */
+interface EventFactory {
+    PhaseEvent scan();
+    
+    PhaseEvent parse();
+    
+    PhaseEvent semantic();
+    
+    void diagnostics(Path file, List<Diagnostic> diagnostics);
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jfr;
+
+import edu.regis.cs390.diag.Diagnostic;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The EventFactory of the jdk.jfr events. It and the event classes are
+ * the only classes that refer to jdk.jfr, and CompileEvents only loads
+ * this class (by name) once it's found jdk.jfr, so the rest of the
+ * compiler builds and runs without it.
+ * 
+ * @author CS390_TopDown contributors
+ */
+final class JfrEvents implements EventFactory {
+    @Override
+    public PhaseEvent scan() {
+        return new ScanEvent();
+    }
+    
+    @Override
+    public PhaseEvent parse() {
+        return new ParseEvent();
+    }
+    
+    @Override
+    public PhaseEvent semantic() {
+        return new SemanticEvent();
+    }
+    
+    @Override
+    public void diagnostics(Path file, List<Diagnostic> diagnostics) {
+        for (Diagnostic diagnostic : diagnostics) {
+            DiagnosticEvent event = new DiagnosticEvent();
+            
+            if (!event.shouldCommit())
+                return;
+            
+            event.path = file.toString();
+            event.code = diagnostic.code;
+            event.severity = diagnostic.severity.name();
+            event.line = diagnostic.line;
+            event.message = diagnostic.message;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event for parsing one source file. Except in a pipelined compile,
+ * the parser pulls tokens from the scanner as it goes, so the duration
+ * includes scanning.
+ * 
+ * @author CS390_TopDown contributors
+ */
+@Name("edu.regis.cs390.FileParse")
+@Label("File Parse")
+@Category({"CS390", "Compiler"})
+@Description("Parsing one source file, including scanning unless pipelined")
+@StackTrace(false)
+public class ParseEvent extends Event implements PhaseEvent {
+    @Label("Path")
+    public String path;
+    
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+    
+    @Label("Tokens")
+    public int tokens;
+    
+    @Label("Nodes")
+    @Description("Parse tree nodes created")
+    public int nodes;
+    
+    @Label("Failed")
+    @Description("The parse stopped at a parse error")
+    public boolean failed;
+    
+    @Override
+    public void setFile(String path, long bytes) {
+        this.path = path;
+        this.bytes = bytes;
+    }
+    
+    @Override
+    public void setTokens(int tokens) {
+        this.tokens = tokens;
+    }
+    
+    @Override
+    public void setNodes(int nodes) {
+        this.nodes = nodes;
+    }
+    
+    @Override
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jfr;
+
+/**
+ * The JFR event for one compilation phase of one source file, as the
+ * compiler sees it. Get one from CompileEvents, begin() and end() it, and
+ * only set its fields and commit() it when shouldCommit() is true.
+ * 
+ * The setters for fields a phase's event doesn't have do nothing.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public interface PhaseEvent {
+    /**
+     * Start timing the phase.
+     */
+    void begin();
+    
+    /**
+     * Stop timing the phase.
+     */
+    void end();
+    
+    /**
+     * Return true, if a recording wants this event, so its fields should
+     * be set and it should be committed.
+     * 
+     * @return true, if the event should be committed
+     */
+    boolean shouldCommit();
+    
+    /**
+     * Write the event to the recording.
+     */
+    void commit();
+    
+    /**
+     * Set the source file the phase was run on.
+     * 
+     * @param path the source's path
+     * @param bytes the source's size
+     */
+    void setFile(String path, long bytes);
+    
+    /**
+     * Set the number of tokens the phase read.
+     * 
+     * @param tokens the token count, not counting EOF
+     */
+    void setTokens(int tokens);
+    
+    /**
+     * Set the number of parse tree nodes the phase created or analyzed.
+     * 
+     * @param nodes the node count
+     */
+    default void setNodes(int nodes) {
+    }
+    
+    /**
+     * Set whether the phase stopped at an error.
+     * 
+     * @param failed true, if the phase failed
+     */
+    default void setFailed(boolean failed) {
+    }
+    
+    /**
+     * Set the number of diagnostics the phase reported.
+     * 
+     * @param errors the diagnostic count
+     */
+    default void setErrors(int errors) {
+    }
+}
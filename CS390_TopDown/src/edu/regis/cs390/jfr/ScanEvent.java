@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event for scanning one source file, when scanning is run on its
+ * own (--phase scan, or the scanner stage of a pipelined compile).
+ * 
+ * @author CS390_TopDown contributors
+ */
+@Name("edu.regis.cs390.FileScan")
+@Label("File Scan")
+@Category({"CS390", "Compiler"})
+@Description("Scanning one source file")
+@StackTrace(false)
+public class ScanEvent extends Event implements PhaseEvent {
+    @Label("Path")
+    public String path;
+    
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+    
+    @Label("Tokens")
+    public int tokens;
+    
+    @Override
+    public void setFile(String path, long bytes) {
+        this.path = path;
+        this.bytes = bytes;
+    }
+    
+    @Override
+    public void setTokens(int tokens) {
+        this.tokens = tokens;
+    }
+}
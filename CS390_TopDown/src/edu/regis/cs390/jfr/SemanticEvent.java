@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event for the semantic analysis of one source file.
+ * 
+ * @author CS390_TopDown contributors
+ */
+@Name("edu.regis.cs390.SemanticAnalysis")
+@Label("Semantic Analysis")
+@Category({"CS390", "Compiler"})
+@Description("Semantic analysis of one source file")
+@StackTrace(false)
+public class SemanticEvent extends Event implements PhaseEvent {
+    @Label("Path")
+    public String path;
+    
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+    
+    @Label("Tokens")
+    public int tokens;
+    
+    @Label("Nodes")
+    @Description("Parse tree nodes analyzed")
+    public int nodes;
+    
+    @Label("Errors")
+    public int errors;
+    
+    @Override
+    public void setFile(String path, long bytes) {
+        this.path = path;
+        this.bytes = bytes;
+    }
+    
+    @Override
+    public void setTokens(int tokens) {
+        this.tokens = tokens;
+    }
+    
+    @Override
+    public void setNodes(int nodes) {
+        this.nodes = nodes;
+    }
+    
+    @Override
+    public void setErrors(int errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jvm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Writes a minimal class file: a constant pool, the implemented
+ * interfaces and methods with a Code attribute. Fields, exception tables
+ * and debugging attributes aren't supported.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class ClassFileWriter {
+    /**
+     * Java 8 class files.
+     */
+    private static final int MAJOR_VERSION = 52;
+    
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+    
+    // Constant pool tags
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    
+    /**
+     * The constant pool entries written so far.
+     */
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    
+    /**
+     * The index of each constant added, keyed by its tag and contents.
+     */
+    private final HashMap<String, Integer> constants = new HashMap<>();
+    
+    /**
+     * The next free constant pool index.
+     */
+    private int poolSize = 1;
+    
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+    
+    /**
+     * The methods, each already encoded as a method_info.
+     */
+    private final ArrayList<byte[]> methods = new ArrayList<>();
+    
+    /**
+     * Initialize a public final class.
+     * 
+     * @param name the class's internal name, e.g. "pkg/Name"
+     * @param superName the superclass's internal name
+     * @param interfaceNames the internal names of the implemented interfaces
+     */
+    public ClassFileWriter(String name, String superName, String... interfaceNames) {
+        thisClass = classRef(name);
+        superClass = classRef(superName);
+        interfaces = new int[interfaceNames.length];
+        
+        for (int i = 0; i < interfaceNames.length; i++)
+            interfaces[i] = classRef(interfaceNames[i]);
+    }
+    
+    public int utf8(String value) {
+        return constant("U" + value, out -> {
+            out.writeByte(CONSTANT_UTF8);
+            out.writeUTF(value);
+        });
+    }
+    
+    public int integer(int value) {
+        return constant("I" + value, out -> {
+            out.writeByte(CONSTANT_INTEGER);
+            out.writeInt(value);
+        });
+    }
+    
+    public int classRef(String name) {
+        int nameIndex = utf8(name);
+        
+        return constant("C" + name, out -> {
+            out.writeByte(CONSTANT_CLASS);
+            out.writeShort(nameIndex);
+        });
+    }
+    
+    public int methodRef(String owner, String name, String descriptor) {
+        return memberRef(CONSTANT_METHODREF, owner, name, descriptor);
+    }
+    
+    public int interfaceMethodRef(String owner, String name, String descriptor) {
+        return memberRef(CONSTANT_INTERFACE_METHODREF, owner, name, descriptor);
+    }
+    
+    /**
+     * Return the constant pool count, one more than the number of
+     * constants added.
+     * 
+     * @return constant_pool_count of the class file
+     */
+    public int getConstantPoolCount() {
+        return poolSize;
+    }
+    
+    /**
+     * Add a method.
+     * 
+     * @param access the method's access flags
+     * @param name the method's name
+     * @param descriptor the method's descriptor, e.g. "(I)V"
+     * @param code the method's bytecode
+     */
+    public void addMethod(int access, String name, String descriptor, CodeBuffer code) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int codeIndex = utf8("Code");
+        byte[] bytecode = code.toByteArray();
+        
+        methods.add(encode(out -> {
+            out.writeShort(access);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            out.writeShort(1); // attributes: Code
+            
+            out.writeShort(codeIndex);
+            out.writeInt(12 + bytecode.length);
+            out.writeShort(code.getMaxStack());
+            out.writeShort(code.getMaxLocals());
+            out.writeInt(bytecode.length);
+            out.write(bytecode);
+            out.writeShort(0); // exception table
+            out.writeShort(0); // attributes
+        }));
+    }
+    
+    /**
+     * Return the class file.
+     * 
+     * @return the encoded class
+     */
+    public byte[] toByteArray() {
+        return encode(out -> {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            out.writeShort(poolSize);
+            poolBytes.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.length);
+            
+            for (int index : interfaces)
+                out.writeShort(index);
+            
+            out.writeShort(0); // fields
+            out.writeShort(methods.size());
+            
+            for (byte[] method : methods)
+                out.write(method);
+            
+            out.writeShort(0); // attributes
+        });
+    }
+    
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        
+        int nameAndType = constant("N" + name + ' ' + descriptor, out -> {
+            out.writeByte(CONSTANT_NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+        
+        return constant(tag + owner + '.' + name + descriptor, out -> {
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+    
+    /**
+     * Return the index of the constant with the given key, writing it with
+     * the given writer if it isn't in the pool yet.
+     */
+    private int constant(String key, Encoder writer) {
+        Integer index = constants.get(key);
+        
+        if (index == null) {
+            try {
+                writer.write(pool);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            
+            index = poolSize++;
+            constants.put(key, index);
+        }
+        
+        return index;
+    }
+    
+    private static byte[] encode(Encoder encoder) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        try {
+            encoder.write(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        return bytes.toByteArray();
+    }
+    
+    private interface Encoder {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jvm;
+
+import java.util.Arrays;
+
+/**
+ * The bytecode of one method, tracking the operand stack depth as
+ * instructions are emitted so the Code attribute's max_stack is known.
+ * Only straight-line code is supported: there are no branches, so the
+ * method needs no StackMapTable.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class CodeBuffer {
+    // The opcodes used by the generated classes (JVMS chapter 6)
+    public static final int ICONST_0 = 0x03;
+    public static final int BIPUSH = 0x10;
+    public static final int SIPUSH = 0x11;
+    public static final int LDC_W = 0x13;
+    public static final int ILOAD = 0x15;
+    public static final int ALOAD = 0x19;
+    public static final int ISTORE = 0x36;
+    public static final int POP = 0x57;
+    public static final int DUP = 0x59;
+    public static final int IADD = 0x60;
+    public static final int ISUB = 0x64;
+    public static final int IMUL = 0x68;
+    public static final int IDIV = 0x6c;
+    public static final int INEG = 0x74;
+    public static final int IOR = 0x80;
+    public static final int IUSHR = 0x7c;
+    public static final int IXOR = 0x82;
+    public static final int RETURN = 0xb1;
+    public static final int INVOKESPECIAL = 0xb7;
+    public static final int INVOKEINTERFACE = 0xb9;
+    
+    /**
+     * The code emitted so far.
+     */
+    private byte[] code = new byte[256];
+    
+    /**
+     * The number of bytes of code emitted.
+     */
+    private int size;
+    
+    /**
+     * The current operand stack depth, in slots.
+     */
+    private int depth;
+    
+    /**
+     * The deepest the operand stack gets.
+     */
+    private int maxStack;
+    
+    /**
+     * The number of local variable slots used.
+     */
+    private int maxLocals;
+    
+    /**
+     * Initialize an empty method whose parameters (including "this")
+     * occupy the given number of local slots.
+     * 
+     * @param parameterSlots the local slots taken by the parameters
+     */
+    public CodeBuffer(int parameterSlots) {
+        maxLocals = parameterSlots;
+    }
+    
+    /**
+     * Emit an instruction without operands.
+     * 
+     * @param opcode the instruction
+     * @param stackDelta the change to the operand stack depth
+     */
+    public void op(int opcode, int stackDelta) {
+        u1(opcode);
+        adjust(stackDelta);
+    }
+    
+    /**
+     * Emit an instruction with a constant pool index operand.
+     * 
+     * @param opcode the instruction
+     * @param index a constant pool index
+     * @param stackDelta the change to the operand stack depth
+     */
+    public void op(int opcode, int index, int stackDelta) {
+        u1(opcode);
+        u2(index);
+        adjust(stackDelta);
+    }
+    
+    /**
+     * Emit invokeinterface.
+     * 
+     * @param method an InterfaceMethodref constant pool index
+     * @param argumentSlots the slots taken by the arguments, including the receiver
+     * @param stackDelta the change to the operand stack depth
+     */
+    public void invokeInterface(int method, int argumentSlots, int stackDelta) {
+        u1(INVOKEINTERFACE);
+        u2(method);
+        u1(argumentSlots);
+        u1(0);
+        adjust(stackDelta);
+    }
+    
+    /**
+     * Push an int constant, using the shortest instruction that holds it.
+     * 
+     * @param value the value pushed
+     * @param pool the constant pool, used for values beyond a short
+     */
+    public void iconst(int value, ClassFileWriter pool) {
+        if (value >= -1 && value <= 5) {
+            u1(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            u1(BIPUSH);
+            u1(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            u1(SIPUSH);
+            u2(value);
+        } else {
+            u1(LDC_W);
+            u2(pool.integer(value));
+        }
+        
+        adjust(1);
+    }
+    
+    /**
+     * Emit a load or store of a local variable slot.
+     * 
+     * @param opcode ILOAD, ALOAD or ISTORE
+     * @param slot the local variable slot
+     */
+    public void local(int opcode, int slot) {
+        if (slot <= 3) {
+            // iload_<n> etc. follow their generic form at 0x1a + 4 * type
+            int base = opcode == ISTORE ? 0x3b : opcode == ALOAD ? 0x2a : 0x1a;
+            u1(base + slot);
+        } else if (slot <= 0xff) {
+            u1(opcode);
+            u1(slot);
+        } else {
+            u1(0xc4); // wide
+            u1(opcode);
+            u2(slot);
+        }
+        
+        adjust(opcode == ISTORE ? -1 : 1);
+        maxLocals = Math.max(maxLocals, slot + 1);
+    }
+    
+    /**
+     * Return the number of bytes of code emitted.
+     * 
+     * @return code_length of the Code attribute
+     */
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * Return the deepest the operand stack gets.
+     * 
+     * @return max_stack of the Code attribute
+     */
+    public int getMaxStack() {
+        return maxStack;
+    }
+    
+    /**
+     * Return the number of local variable slots used.
+     * 
+     * @return max_locals of the Code attribute
+     */
+    public int getMaxLocals() {
+        return maxLocals;
+    }
+    
+    /**
+     * Return the code emitted.
+     * 
+     * @return a copy of the bytecode
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(code, size);
+    }
+    
+    private void adjust(int stackDelta) {
+        depth += stackDelta;
+        maxStack = Math.max(maxStack, depth);
+    }
+    
+    private void u1(int value) {
+        if (size == code.length)
+            code = Arrays.copyOf(code, size * 2);
+        
+        code[size++] = (byte) value;
+    }
+    
+    private void u2(int value) {
+        u1(value >> 8);
+        u1(value);
+    }
+}
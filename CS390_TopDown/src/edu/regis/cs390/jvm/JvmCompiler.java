@@ -0,0 +1,455 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jvm;
+
+import edu.regis.cs390.Semantic.SemanticAnalyzer;
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.DiagnosticList;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.opt.Optimizer;
+import edu.regis.cs390.parser.ParseError;
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.PredictiveParser;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.parser.TreeNode.PRODUCTION;
+import edu.regis.cs390.rt.Executable;
+import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.tok.SymbolInterner;
+import edu.regis.cs390.vm.CompileError;
+import edu.regis.cs390.vm.ProgramTypes;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.regis.cs390.jvm.CodeBuffer.*;
+
+/**
+ * Compiles a parse tree into a generated JVM class implementing
+ * Executable, so HotSpot can JIT the program like any other method.
+ * 
+ * Each variable is a local of run(CalcIO), and "read"/"write" are
+ * interface calls on its CalcIO. Booleans are the ints 0 and 1, as in
+ * the bytecode VM. Programs compiled from files are cached by the SHA-256
+ * of their source, so running the same program again costs one call; the
+ * least recently used program is dropped once the cache is full. Each
+ * program's class has its own class loader, so a dropped program's class
+ * is unloaded once nothing references the program.
+ * Programs compiled from files are checked by the SemanticAnalyzer, and
+ * those without errors are optimized by the enabled passes (see
+ * setOptimizations()); a tree passed to compile(TreeNode) is compiled as
+ * it is.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class JvmCompiler {
+    private static final String OBJECT = "java/lang/Object";
+    private static final String EXECUTABLE = "edu/regis/cs390/rt/Executable";
+    private static final String CALC_IO = "edu/regis/cs390/rt/CalcIO";
+    
+    /**
+     * Locals 0 and 1 are "this" and the CalcIO parameter.
+     */
+    private static final int IO_SLOT = 1;
+    private static final int FIRST_VARIABLE_SLOT = 2;
+    
+    /**
+     * The class file limits on a method's code length, stack and locals,
+     * and on the constant pool count; the JVM rejects a class exceeding
+     * one with a ClassFormatError.
+     */
+    private static final int MAX_CODE_LENGTH = 65535;
+    private static final int MAX_SLOTS = 65535;
+    private static final int MAX_CONSTANT_POOL_COUNT = 65535;
+    
+    /**
+     * Default number of compiled programs cached.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+    
+    /**
+     * Names the generated classes.
+     */
+    private static final AtomicInteger classCount = new AtomicInteger();
+    
+    /**
+     * The compiled programs, keyed by the hex SHA-256 of their source, in
+     * least recently used order, guarded by itself.
+     */
+    private final LinkedHashMap<String, Executable> cache;
+    
+    /**
+     * The optimization passes run on programs compiled from files.
+     */
+    private volatile Set<Optimizer.Pass> optimizations = EnumSet.noneOf(Optimizer.Pass.class);
+    
+    // Per compilation state
+    private ClassFileWriter writer;
+    private CodeBuffer code;
+    private ProgramTypes types;
+    private int[] slots;
+    private int readInt;
+    private int writeInt;
+    private int writeBoolean;
+    
+    /**
+     * Initialize a compiler caching DEFAULT_CACHE_SIZE programs.
+     */
+    public JvmCompiler() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+    
+    /**
+     * Initialize a compiler caching the given number of programs.
+     * 
+     * @param cacheSize the most programs compiled from files kept (0, to
+     *   not cache them)
+     */
+    public JvmCompiler(int cacheSize) {
+        if (cacheSize < 0)
+            throw new IllegalArgumentException("invalid cache size: " + cacheSize);
+        
+        cache = new LinkedHashMap<String, Executable>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Executable> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+    
+    /**
+     * Set the optimization passes run on each program compiled from a file
+     * before its code is generated. Programs already cached are kept.
+     * 
+     * @param passes the passes to run (none, to not optimize)
+     */
+    public void setOptimizations(Set<Optimizer.Pass> passes) {
+        EnumSet<Optimizer.Pass> copy = EnumSet.noneOf(Optimizer.Pass.class);
+        copy.addAll(passes);
+        optimizations = copy;
+    }
+    
+    /**
+     * Return the program in the given source file, compiling it unless a
+     * file with the same contents was compiled before.
+     * 
+     * @param source a calculator program
+     * @return the program, ready to run
+     * @throws IOException the file can't be read
+     * @throws ParseError the program has a syntax error
+     * @throws CompileError the program has a semantic error, or a statement
+     *   that can't execute
+     */
+    public Executable compile(Path source) throws IOException, ParseError, CompileError {
+        // the bytes hashed are the bytes compiled, even if the file changes
+        byte[] bytes = Files.readAllBytes(source);
+        String hash = sha256(bytes);
+        Executable program;
+        
+        synchronized (cache) {
+            program = cache.get(hash);
+        }
+        
+        if (program == null) {
+            char[] text = new String(bytes, StandardCharsets.UTF_8).toCharArray();
+            SymbolInterner symbols = new SymbolInterner();
+            TreeNode tree = new PredictiveParser(
+                    new Scanner(text, text.length, source.toString(), symbols)).parse();
+            
+            checkSemantics(tree, symbols);
+            
+            Set<Optimizer.Pass> passes = optimizations;
+            
+            if (!passes.isEmpty())
+                new Optimizer(symbols, passes).optimize(tree);
+            
+            program = compile(tree);
+            
+            synchronized (cache) {
+                Executable existing = cache.putIfAbsent(hash, program);
+                
+                if (existing != null)
+                    program = existing;
+            }
+        }
+        
+        return program;
+    }
+    
+    /**
+     * Check the given program with the SemanticAnalyzer, since the passes
+     * and code generation assume a valid tree.
+     * 
+     * @throws CompileError the program has a semantic error
+     */
+    private static void checkSemantics(TreeNode tree, SymbolInterner symbols) throws CompileError {
+        DiagnosticList sink = new DiagnosticList();
+        new SemanticAnalyzer(tree, symbols, sink).analyzeProgram();
+        
+        if (sink.getErrorCount() == 0)
+            return;
+        
+        for (Diagnostic diagnostic : sink.getDiagnostics()) {
+            if (diagnostic.severity == Severity.ERROR) {
+                int more = sink.getErrorCount() - 1;
+                
+                throw new CompileError("Line " + diagnostic.line + ": " + diagnostic.message + 
+                                       (more > 0 ? " (and " + more + " more errors)" : ""));
+            }
+        }
+    }
+    
+    /**
+     * Compile the given program, without caching it.
+     * 
+     * @param program the PROGRAM root returned by PredictiveParser.parse()
+     * @return the program, ready to run
+     * @throws CompileError the program has a statement that can't execute
+     */
+    public synchronized Executable compile(TreeNode program) throws CompileError {
+        String name = "edu.regis.cs390.jvm.gen.Program" + classCount.incrementAndGet();
+        byte[] classFile = generate(name.replace('.', '/'), program);
+        
+        try {
+            return (Executable) new ProgramClassLoader().define(name, classFile)
+                                                        .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("generated class " + name + " can't be instantiated", e);
+        }
+    }
+    
+    /**
+     * Generate the class file of the given program.
+     */
+    private byte[] generate(String className, TreeNode program) throws CompileError {
+        writer = new ClassFileWriter(className, OBJECT, EXECUTABLE);
+        types = new ProgramTypes(program);
+        slots = new int[16];
+        Arrays.fill(slots, -1);
+        
+        readInt = writer.interfaceMethodRef(CALC_IO, "readInt", "()I");
+        writeInt = writer.interfaceMethodRef(CALC_IO, "writeInt", "(I)V");
+        writeBoolean = writer.interfaceMethodRef(CALC_IO, "writeBoolean", "(Z)V");
+        
+        CodeBuffer init = new CodeBuffer(1);
+        init.local(ALOAD, 0);
+        init.op(INVOKESPECIAL, writer.methodRef(OBJECT, "<init>", "()V"), -1);
+        init.op(RETURN, 0);
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "()V", init);
+        
+        code = new CodeBuffer(FIRST_VARIABLE_SLOT);
+        int variableCount = 0;
+        
+        // every local must be definitely assigned before it's read
+        for (TreeNode stmt : ParseTrees.statements(program))
+            variableCount = allocateVariables(stmt, variableCount);
+        
+        for (int i = 0; i < variableCount; i++) {
+            code.iconst(0, writer);
+            code.local(ISTORE, FIRST_VARIABLE_SLOT + i);
+        }
+        
+        for (TreeNode stmt : ParseTrees.statements(program))
+            statement(stmt);
+        
+        code.op(RETURN, 0);
+        checkLimits();
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "run", "(L" + CALC_IO + ";)V", code);
+        
+        return writer.toByteArray();
+    }
+    
+    /**
+     * Check the generated run() method and constant pool against the class
+     * file limits.
+     * 
+     * @throws CompileError the program is too large for one JVM method
+     */
+    private void checkLimits() throws CompileError {
+        if (code.getSize() > MAX_CODE_LENGTH)
+            throw new CompileError("program compiles to " + code.getSize() + 
+                " bytes of bytecode, more than the JVM's " + MAX_CODE_LENGTH + " byte method limit");
+        
+        if (writer.getConstantPoolCount() > MAX_CONSTANT_POOL_COUNT)
+            throw new CompileError("program needs " + (writer.getConstantPoolCount() - 1) + 
+                " constants, more than a JVM class can hold");
+        
+        if (code.getMaxStack() > MAX_SLOTS || code.getMaxLocals() > MAX_SLOTS)
+            throw new CompileError("program has too many variables or too deep an expression " +
+                "for a JVM method");
+    }
+    
+    /**
+     * Compile one statement.
+     */
+    private void statement(TreeNode stmt) throws CompileError {
+        TreeNode first = stmt.getChildren().get(0);
+        
+        switch (first.type) {
+            case DECLARATION:
+                break;
+                
+            case READ:
+                TreeNode id = ParseTrees.child(stmt, PRODUCTION.ID);
+                code.local(ALOAD, IO_SLOT);
+                code.invokeInterface(readInt, 1, 0);
+                
+                if (types.isBooleanVariable(id.symbol))
+                    isNonZero();
+                
+                code.local(ISTORE, slots[id.symbol]);
+                break;
+                
+            case WRITE:
+                TreeNode expr = ParseTrees.child(stmt, PRODUCTION.EXPR);
+                code.local(ALOAD, IO_SLOT);
+                expr(expr);
+                code.invokeInterface(types.isBoolean(expr) ? writeBoolean : writeInt, 2, -2);
+                break;
+                
+            default: // ID idTail
+                TreeNode idTail = ParseTrees.child(stmt, PRODUCTION.IDTAIL);
+                TreeNode rhs = ParseTrees.child(idTail, PRODUCTION.EXPR);
+                
+                if (rhs == null)
+                    throw new CompileError("Line " + stmt.firstLine() + 
+                        ": call statement " + first.lexeme + "(...) can't be executed");
+                
+                expr(rhs);
+                code.local(ISTORE, slots[first.symbol]);
+                break;
+        }
+    }
+    
+    /**
+     * Push the value of an EXPR.
+     */
+    private void expr(TreeNode expr) {
+        term(expr.getChildren().get(0));
+        
+        TreeNode tail = expr.getChildren().get(1);
+        
+        for (; !ParseTrees.isEmptyTail(tail); tail = tail.getChildren().get(2)) {
+            term(tail.getChildren().get(1));
+            code.op(operator(tail).equals("+") ? IADD : ISUB, -1);
+        }
+    }
+    
+    /**
+     * Push the value of a TERM.
+     */
+    private void term(TreeNode term) {
+        factor(term.getChildren().get(0));
+        
+        TreeNode tail = term.getChildren().get(1);
+        
+        for (; !ParseTrees.isEmptyTail(tail); tail = tail.getChildren().get(2)) {
+            factor(tail.getChildren().get(1));
+            code.op(operator(tail).equals("*") ? IMUL : IDIV, -1);
+        }
+    }
+    
+    /**
+     * Push the value of a FACTOR.
+     */
+    private void factor(TreeNode factor) {
+        TreeNode first = factor.getChildren().get(0);
+        
+        switch (first.type) {
+            case ID:
+                code.local(ILOAD, slots[first.symbol]);
+                break;
+                
+            case NUMBER:
+                code.iconst(Integer.parseInt(first.lexeme), writer);
+                break;
+                
+            case TRUE:
+                code.iconst(1, writer);
+                break;
+                
+            case FALSE:
+                code.iconst(0, writer);
+                break;
+                
+            case NOT:
+                expr(factor.getChildren().get(1));
+                code.iconst(1, writer);
+                code.op(IXOR, -1);
+                break;
+                
+            default: // ( expr )
+                expr(factor.getChildren().get(1));
+                break;
+        }
+    }
+    
+    /**
+     * Replace the int on top of the stack with 1, if it's non-zero, else 0,
+     * without a branch: (v | -v) >>> 31.
+     */
+    private void isNonZero() {
+        code.op(DUP, 1);
+        code.op(INEG, 0);
+        code.op(IOR, -1);
+        code.iconst(31, writer);
+        code.op(IUSHR, -1);
+    }
+    
+    /**
+     * Return the operator lexeme of a non-empty tail.
+     */
+    private static String operator(TreeNode tail) {
+        return tail.getChildren().get(0).getChildren().get(0).lexeme;
+    }
+    
+    /**
+     * Assign a local slot to every variable used by the given statement.
+     * 
+     * @return the number of variables with a slot
+     */
+    private int allocateVariables(TreeNode node, int variableCount) {
+        if (node.type == PRODUCTION.ID) {
+            if (node.symbol >= slots.length) {
+                int oldLength = slots.length;
+                slots = Arrays.copyOf(slots, Math.max(node.symbol + 1, oldLength * 2));
+                Arrays.fill(slots, oldLength, slots.length, -1);
+            }
+            
+            if (slots[node.symbol] < 0)
+                slots[node.symbol] = FIRST_VARIABLE_SLOT + variableCount++;
+        }
+        
+        for (TreeNode child : node.getChildren())
+            variableCount = allocateVariables(child, variableCount);
+        
+        return variableCount;
+    }
+    
+    /**
+     * Return the hex SHA-256 of the given bytes.
+     */
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            
+            for (byte b : digest)
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16))
+                   .append(Character.forDigit(b & 0xf, 16));
+            
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every JVM", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.jvm;
+
+import edu.regis.cs390.rt.Executable;
+
+/**
+ * Defines one class generated by a JvmCompiler, so the class can be
+ * unloaded once nothing references its program, e.g. after the program
+ * is dropped from the compiler's cache.
+ * 
+ * @author CS390_TopDown contributors
+ */
+class ProgramClassLoader extends ClassLoader {
+    /**
+     * Initialize a loader that resolves the runtime interfaces through the
+     * loader of Executable.
+     */
+    ProgramClassLoader() {
+        super(Executable.class.getClassLoader());
+    }
+    
+    /**
+     * Define a generated class.
+     * 
+     * @param name the class's binary name
+     * @param classFile the encoded class
+     * @return the defined class
+     */
+    Class<?> define(String name, byte[] classFile) {
+        return defineClass(name, classFile, 0, classFile.length);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.limits;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Resource limits for compiling one source file, so a malicious or broken
+ * input gets a LIMIT_EXCEEDED diagnostic rather than a StackOverflowError,
+ * an OutOfMemoryError or an endless compile.
+ * 
+ * The Scanner checks the lexeme length, token count and wall time, the
+ * parser the nesting depth, node count and wall time, and the semantic
+ * analyzer the wall time. Counts are compared with a precomputed
+ * threshold and the clock is only read every CHECK_INTERVAL tokens, nodes
+ * or statements, so checking costs about one compare per token or node.
+ * 
+ * Limits are set before a compile starts and aren't changed during it.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class CompileLimits {
+    /**
+     * A count limit meaning "no limit".
+     */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+    
+    /**
+     * The number of tokens, nodes or statements between wall time checks.
+     */
+    public static final int CHECK_INTERVAL = 4096;
+    
+    /**
+     * The default nesting depth limit, which a parse within the default
+     * thread stack size stays well below.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 1000;
+    
+    /**
+     * The default lexeme length limit.
+     */
+    public static final int DEFAULT_MAX_LEXEME_LENGTH = 256;
+    
+    /**
+     * The limits used unless others are set: nesting depth and lexeme
+     * length, which protect the compiler itself, but no size or time limit.
+     */
+    public static final CompileLimits DEFAULT = new CompileLimits();
+    
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+    private int maxLexemeLength = DEFAULT_MAX_LEXEME_LENGTH;
+    private int maxTokens = NO_LIMIT;
+    private int maxNodes = NO_LIMIT;
+    private long maxWallNanos = Long.MAX_VALUE;
+    
+    /**
+     * Initialize the default limits.
+     */
+    public CompileLimits() {
+    }
+    
+    /**
+     * Initialize a copy of the given limits.
+     * 
+     * @param limits the limits copied
+     */
+    public CompileLimits(CompileLimits limits) {
+        maxDepth = limits.maxDepth;
+        maxLexemeLength = limits.maxLexemeLength;
+        maxTokens = limits.maxTokens;
+        maxNodes = limits.maxNodes;
+        maxWallNanos = limits.maxWallNanos;
+    }
+    
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    /**
+     * @param maxDepth the deepest nesting of expressions (parentheses and
+     *        "!") parsed; a chain of operators isn't nesting
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = positive(maxDepth);
+    }
+    
+    public int getMaxLexemeLength() {
+        return maxLexemeLength;
+    }
+    
+    /**
+     * @param maxLexemeLength the longest identifier or number scanned
+     */
+    public void setMaxLexemeLength(int maxLexemeLength) {
+        this.maxLexemeLength = positive(maxLexemeLength);
+    }
+    
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+    
+    /**
+     * @param maxTokens the most tokens scanned, not counting EOF
+     */
+    public void setMaxTokens(int maxTokens) {
+        this.maxTokens = positive(maxTokens);
+    }
+    
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+    
+    /**
+     * @param maxNodes the most parse tree nodes created
+     */
+    public void setMaxNodes(int maxNodes) {
+        this.maxNodes = positive(maxNodes);
+    }
+    
+    public long getMaxWallNanos() {
+        return maxWallNanos;
+    }
+    
+    /**
+     * @param maxWallNanos the longest a compile may run, in nanoseconds,
+     *        or Long.MAX_VALUE for no limit
+     */
+    public void setMaxWallNanos(long maxWallNanos) {
+        if (maxWallNanos <= 0)
+            throw new IllegalArgumentException("limit must be positive: " + maxWallNanos);
+        
+        this.maxWallNanos = maxWallNanos;
+    }
+    
+    /**
+     * Return the System.nanoTime() after which a compile started at the
+     * given time has run too long.
+     * 
+     * @param startNanos the System.nanoTime() the compile started
+     * @return the deadline, or Long.MAX_VALUE if there is no time limit
+     */
+    public long deadline(long startNanos) {
+        if (maxWallNanos == Long.MAX_VALUE || startNanos > Long.MAX_VALUE - maxWallNanos)
+            return Long.MAX_VALUE;
+        
+        return startNanos + maxWallNanos;
+    }
+    
+    /**
+     * Throw a LimitExceededException, if the given deadline has passed, or
+     * a CancellationException, if the compiling thread was interrupted 
+     * (e.g. by Future.cancel(true)), so a compile nobody wants any more
+     * stops at its next check.
+     * 
+     * @param deadline a deadline() result
+     * @param line the source line reached, or Diagnostic.NO_LINE
+     * @throws LimitExceededException the deadline has passed
+     * @throws CancellationException the compiling thread was interrupted
+     */
+    public void checkDeadline(long deadline, int line) {
+        if (Thread.currentThread().isInterrupted())
+            throw new CancellationException("compile cancelled");
+        
+        if (deadline != Long.MAX_VALUE && System.nanoTime() > deadline)
+            throw new LimitExceededException(
+                    "compile took longer than " + maxWallNanos / 1000000 + " ms", line);
+    }
+    
+    private static int positive(int limit) {
+        if (limit <= 0)
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        
+        return limit;
+    }
+    
+    @Override
+    public String toString() {
+        return "CompileLimits[depth " + maxDepth + ", lexeme " + maxLexemeLength + 
+               ", tokens " + maxTokens + ", nodes " + maxNodes + 
+               ", wall ns " + maxWallNanos + "]";
+    }
+}
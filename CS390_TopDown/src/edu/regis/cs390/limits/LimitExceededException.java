@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.limits;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.Severity;
+
+/**
+ * Thrown by a compiler phase when the input exceeds one of its
+ * CompileLimits. It's unchecked, so a Scanner can throw it through the
+ * TokenSource interface; drivers report it with getDiagnostic().
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class LimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * The 1-based source line where the limit was exceeded, or
+     * Diagnostic.NO_LINE
+     */
+    private final int line;
+    
+    public LimitExceededException(String msg, int line) {
+        super(msg);
+        
+        this.line = line;
+    }
+    
+    /**
+     * Return the source line where the limit was exceeded.
+     * 
+     * @return a 1-based line number or Diagnostic.NO_LINE, if unknown
+     */
+    public int getLine() {
+        return line;
+    }
+    
+    /**
+     * Return this error as a Diagnostic.
+     * 
+     * @return an ERROR diagnostic with code "LIMIT_EXCEEDED"
+     */
+    public Diagnostic getDiagnostic() {
+        return new Diagnostic("LIMIT_EXCEEDED", Severity.ERROR, line, null,
+                              "Limit Exceeded: " + getMessage());
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.metrics;
+
+import edu.regis.cs390.Semantic.ErrorType;
+import edu.regis.cs390.parser.TreeNode;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process wide counters and latency histograms of the Scanner, parser and
+ * semantic analyzer, read with snapshot() or over JMX.
+ * 
+ * Metrics are off unless the JVM is started with -Dcs390.metrics=true.
+ * ENABLED is a static final constant, so when it's false the JIT removes
+ * every "if (CompilerMetrics.ENABLED)" block and the hot paths cost
+ * nothing. When it's true, the phases count into their own fields and
+ * publish once per file (or per parse), into striped LongAdders, so
+ * threads compiling at once don't contend.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class CompilerMetrics implements CompilerMetricsMXBean {
+    /**
+     * True, if the phases record metrics.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("cs390.metrics");
+    
+    /**
+     * The name the MBean is registered under.
+     */
+    public static final String OBJECT_NAME = "edu.regis.cs390:type=CompilerMetrics";
+    
+    private static final TreeNode.PRODUCTION[] PRODUCTIONS = TreeNode.PRODUCTION.values();
+    private static final ErrorType[] ERROR_TYPES = ErrorType.values();
+    
+    private static final CompilerMetrics instance = new CompilerMetrics();
+    
+    // scanner
+    private final LongAdder tokens = new LongAdder();
+    private final LongAdder characters = new LongAdder();
+    private final LongAccumulator maxLexemeLength = new LongAccumulator(Math::max, 0);
+    
+    // parser
+    private final LongAdder parses = new LongAdder();
+    private final LongAdder[] nodes = adders(PRODUCTIONS.length);
+    private final LongAccumulator maxParseDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder parseErrors = new LongAdder();
+    private final Histogram parseLatency = new Histogram();
+    
+    // semantic analyzer
+    private final LongAdder analyses = new LongAdder();
+    private final LongAdder symbols = new LongAdder();
+    private final LongAdder statementsChecked = new LongAdder();
+    private final LongAdder[] semanticErrors = adders(ERROR_TYPES.length);
+    private final Histogram semanticLatency = new Histogram();
+    
+    private CompilerMetrics() {
+    }
+    
+    /**
+     * Return the process's metrics.
+     * 
+     * @return the only CompilerMetrics
+     */
+    public static CompilerMetrics get() {
+        return instance;
+    }
+    
+    /**
+     * Register the metrics with the platform MBean server, unless they're
+     * registered already.
+     * 
+     * @throws JMException the MBean couldn't be registered
+     */
+    public static synchronized void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        
+        if (!server.isRegistered(name))
+            server.registerMBean(instance, name);
+    }
+    
+    /**
+     * Record a scanner's progress since it last published.
+     * 
+     * @param tokenCount the tokens scanned, not counting EOF
+     * @param charCount the source characters read
+     * @param maxLexeme the longest lexeme scanned
+     */
+    public void scanned(long tokenCount, long charCount, int maxLexeme) {
+        tokens.add(tokenCount);
+        characters.add(charCount);
+        maxLexemeLength.accumulate(maxLexeme);
+    }
+    
+    /**
+     * Record a finished parse.
+     * 
+     * @param nodeCounts the nodes created, indexed by PRODUCTION ordinal
+     * @param maxDepth the deepest nesting of expression productions
+     * @param failed true, if the parse ended with a parse error
+     * @param nanos the time the parse took, scanning included
+     */
+    public void parsed(int[] nodeCounts, int maxDepth, boolean failed, long nanos) {
+        parses.increment();
+        
+        for (int i = 0; i < nodeCounts.length; i++) {
+            if (nodeCounts[i] != 0)
+                nodes[i].add(nodeCounts[i]);
+        }
+        
+        maxParseDepth.accumulate(maxDepth);
+        
+        if (failed)
+            parseErrors.increment();
+        
+        parseLatency.record(nanos);
+    }
+    
+    /**
+     * Record a finished semantic analysis.
+     * 
+     * @param symbolCount the distinct symbols the program declares
+     * @param statementCount the (non-declaration) statements checked
+     * @param errorCounts the errors, indexed by ErrorType ordinal
+     * @param nanos the time the analysis took
+     */
+    public void analyzed(int symbolCount, int statementCount, int[] errorCounts, long nanos) {
+        analyses.increment();
+        symbols.add(symbolCount);
+        statementsChecked.add(statementCount);
+        
+        for (int i = 0; i < errorCounts.length; i++) {
+            if (errorCounts[i] != 0)
+                semanticErrors[i].add(errorCounts[i]);
+        }
+        
+        semanticLatency.record(nanos);
+    }
+    
+    @Override
+    public MetricsSnapshot getSnapshot() {
+        return snapshot();
+    }
+    
+    /**
+     * Return every counter and histogram, as of now.
+     * 
+     * @return the current metrics
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> nodesByProduction = new LinkedHashMap<>();
+        
+        for (TreeNode.PRODUCTION production : PRODUCTIONS) {
+            long count = nodes[production.ordinal()].sum();
+            
+            if (count != 0)
+                nodesByProduction.put(production.name(), count);
+        }
+        
+        Map<String, Long> errorsByType = new LinkedHashMap<>();
+        
+        for (ErrorType errorType : ERROR_TYPES) {
+            long count = semanticErrors[errorType.ordinal()].sum();
+            
+            if (count != 0)
+                errorsByType.put(errorType.name(), count);
+        }
+        
+        return new MetricsSnapshot(tokens.sum(), characters.sum(), maxLexemeLength.get(),
+                parses.sum(), nodesByProduction, maxParseDepth.get(), parseErrors.sum(),
+                parseLatency.snapshot(), analyses.sum(), symbols.sum(), 
+                statementsChecked.sum(), errorsByType, semanticLatency.snapshot());
+    }
+    
+    @Override
+    public long getTokens() {
+        return tokens.sum();
+    }
+    
+    @Override
+    public long getNodes() {
+        long total = 0;
+        
+        for (LongAdder adder : nodes)
+            total += adder.sum();
+        
+        return total;
+    }
+    
+    @Override
+    public long getParseErrors() {
+        return parseErrors.sum();
+    }
+    
+    @Override
+    public long getSemanticErrors() {
+        long total = 0;
+        
+        for (LongAdder adder : semanticErrors)
+            total += adder.sum();
+        
+        return total;
+    }
+    
+    @Override
+    public void reset() {
+        tokens.reset();
+        characters.reset();
+        maxLexemeLength.reset();
+        parses.reset();
+        maxParseDepth.reset();
+        parseErrors.reset();
+        parseLatency.reset();
+        analyses.reset();
+        symbols.reset();
+        statementsChecked.reset();
+        semanticLatency.reset();
+        
+        for (LongAdder adder : nodes)
+            adder.reset();
+        
+        for (LongAdder adder : semanticErrors)
+            adder.reset();
+    }
+    
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        
+        for (int i = 0; i < count; i++)
+            adders[i] = new LongAdder();
+        
+        return adders;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.metrics;
+
+/**
+ * The management interface of CompilerMetrics, e.g. for JConsole.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public interface CompilerMetricsMXBean {
+    /**
+     * @return every counter and histogram, as of now
+     */
+    MetricsSnapshot getSnapshot();
+    
+    long getTokens();
+    
+    long getNodes();
+    
+    long getParseErrors();
+    
+    long getSemanticErrors();
+    
+    /**
+     * Zero every counter and histogram.
+     */
+    void reset();
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with power of 2 buckets: bucket b counts the values
+ * in [2^(b-1), 2^b), so nanosecond latencies from 1 ns to years fit in 64
+ * buckets and a percentile is accurate to within a factor of 2. Every
+ * bucket is a striped LongAdder, so threads recording at once don't
+ * contend on a shared counter.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class Histogram {
+    private static final int BUCKETS = 64;
+    
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Initialize an empty histogram.
+     */
+    public Histogram() {
+        for (int b = 0; b < BUCKETS; b++)
+            buckets[b] = new LongAdder();
+    }
+    
+    /**
+     * Record a value.
+     * 
+     * @param value a non-negative value, e.g. a latency in nanoseconds
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        
+        buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+    
+    /**
+     * Return the values recorded so far. Values recorded while the
+     * snapshot is taken may be partly included.
+     * 
+     * @return a snapshot of this histogram
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        
+        for (int b = 0; b < BUCKETS; b++)
+            counts[b] = buckets[b].sum();
+        
+        return new HistogramSnapshot(counts, sum.sum(), max.get());
+    }
+    
+    /**
+     * Forget every recorded value.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets)
+            bucket.reset();
+        
+        sum.reset();
+        max.reset();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.metrics;
+
+/**
+ * The values of a Histogram at one time. Percentiles are the upper bound
+ * of the bucket holding them, capped by the maximum.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+    
+    HistogramSnapshot(long[] counts, long sum, long max) {
+        long total = 0;
+        
+        for (long bucketCount : counts)
+            total += bucketCount;
+        
+        this.counts = counts;
+        this.count = total;
+        this.sum = sum;
+        this.max = max;
+    }
+    
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * @return the sum of the values recorded
+     */
+    public long getSum() {
+        return sum;
+    }
+    
+    /**
+     * @return the largest value recorded, or 0 if there are none
+     */
+    public long getMax() {
+        return max;
+    }
+    
+    /**
+     * @return the mean of the values recorded, or 0 if there are none
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+    
+    public long getP50() {
+        return percentile(50);
+    }
+    
+    public long getP90() {
+        return percentile(90);
+    }
+    
+    public long getP99() {
+        return percentile(99);
+    }
+    
+    /**
+     * Return an upper bound of the given percentile.
+     * 
+     * @param percent the percentile, from 0 to 100
+     * @return a value at least as large as the percentile, or 0 if no
+     *         values were recorded
+     */
+    public long percentile(double percent) {
+        if (count == 0)
+            return 0;
+        
+        long rank = (long) Math.ceil(count * percent / 100);
+        long seen = 0;
+        
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            
+            if (seen >= Math.max(rank, 1))
+                return b == 0 ? 0 : Math.min(max, (1L << b) - 1);
+        }
+        
+        return max;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("count %d, mean %.0f, p50 %d, p90 %d, p99 %d, max %d",
+                             count, getMean(), getP50(), getP90(), getP99(), max);
+    }
+}
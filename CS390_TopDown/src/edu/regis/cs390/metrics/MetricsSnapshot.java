@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The compiler's counters and histograms at one time (see CompilerMetrics).
+ * Counters being updated while the snapshot is taken may be partly
+ * included, so different counters aren't exactly consistent.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class MetricsSnapshot {
+    private final long tokens;
+    private final long characters;
+    private final long maxLexemeLength;
+    
+    private final long parses;
+    private final long nodes;
+    private final Map<String, Long> nodesByProduction;
+    private final long maxParseDepth;
+    private final long parseErrors;
+    private final HistogramSnapshot parseLatency;
+    
+    private final long analyses;
+    private final long symbols;
+    private final long statementsChecked;
+    private final long semanticErrors;
+    private final Map<String, Long> semanticErrorsByType;
+    private final HistogramSnapshot semanticLatency;
+    
+    MetricsSnapshot(long tokens, long characters, long maxLexemeLength,
+                    long parses, Map<String, Long> nodesByProduction, 
+                    long maxParseDepth, long parseErrors, 
+                    HistogramSnapshot parseLatency, long analyses, long symbols, 
+                    long statementsChecked, Map<String, Long> semanticErrorsByType,
+                    HistogramSnapshot semanticLatency) {
+        this.tokens = tokens;
+        this.characters = characters;
+        this.maxLexemeLength = maxLexemeLength;
+        this.parses = parses;
+        this.nodes = sum(nodesByProduction);
+        this.nodesByProduction = Collections.unmodifiableMap(nodesByProduction);
+        this.maxParseDepth = maxParseDepth;
+        this.parseErrors = parseErrors;
+        this.parseLatency = parseLatency;
+        this.analyses = analyses;
+        this.symbols = symbols;
+        this.statementsChecked = statementsChecked;
+        this.semanticErrors = sum(semanticErrorsByType);
+        this.semanticErrorsByType = Collections.unmodifiableMap(semanticErrorsByType);
+        this.semanticLatency = semanticLatency;
+    }
+    
+    /**
+     * @return the tokens scanned, not counting EOF
+     */
+    public long getTokens() {
+        return tokens;
+    }
+    
+    /**
+     * @return the source characters read by the scanners
+     */
+    public long getCharacters() {
+        return characters;
+    }
+    
+    /**
+     * @return the longest lexeme held in a scanner's lexeme buffer
+     */
+    public long getMaxLexemeLength() {
+        return maxLexemeLength;
+    }
+    
+    /**
+     * @return the parses finished, with or without a parse error
+     */
+    public long getParses() {
+        return parses;
+    }
+    
+    /**
+     * @return the parse tree nodes created
+     */
+    public long getNodes() {
+        return nodes;
+    }
+    
+    /**
+     * @return the parse tree nodes created, by PRODUCTION name
+     */
+    public Map<String, Long> getNodesByProduction() {
+        return nodesByProduction;
+    }
+    
+    /**
+     * @return the deepest nesting of recursive expression productions
+     */
+    public long getMaxParseDepth() {
+        return maxParseDepth;
+    }
+    
+    public long getParseErrors() {
+        return parseErrors;
+    }
+    
+    /**
+     * @return the nanoseconds taken by each parse, scanning included
+     */
+    public HistogramSnapshot getParseLatency() {
+        return parseLatency;
+    }
+    
+    /**
+     * @return the programs semantically analyzed
+     */
+    public long getAnalyses() {
+        return analyses;
+    }
+    
+    /**
+     * @return the distinct symbols declared by the analyzed programs
+     */
+    public long getSymbols() {
+        return symbols;
+    }
+    
+    /**
+     * @return the (non-declaration) statements checked
+     */
+    public long getStatementsChecked() {
+        return statementsChecked;
+    }
+    
+    public long getSemanticErrors() {
+        return semanticErrors;
+    }
+    
+    /**
+     * @return the semantic errors, by ErrorType name
+     */
+    public Map<String, Long> getSemanticErrorsByType() {
+        return semanticErrorsByType;
+    }
+    
+    /**
+     * @return the nanoseconds taken by each semantic analysis
+     */
+    public HistogramSnapshot getSemanticLatency() {
+        return semanticLatency;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        
+        out.append(String.format("scanner: %d tokens, %d chars, max lexeme %d%n",
+                                 tokens, characters, maxLexemeLength));
+        out.append(String.format("parser: %d parses, %d errors, %d nodes, max depth %d%n",
+                                 parses, parseErrors, nodes, maxParseDepth));
+        appendCounts(out, "  nodes", nodesByProduction);
+        out.append("  latency ns: ").append(parseLatency).append(String.format("%n"));
+        out.append(String.format("semantic: %d analyses, %d symbols, %d checks, %d errors%n",
+                                 analyses, symbols, statementsChecked, semanticErrors));
+        appendCounts(out, "  errors", semanticErrorsByType);
+        out.append("  latency ns: ").append(semanticLatency).append(String.format("%n"));
+        
+        return out.toString();
+    }
+    
+    private static void appendCounts(StringBuilder out, String heading, Map<String, Long> counts) {
+        if (counts.isEmpty())
+            return;
+        
+        out.append(heading).append(':');
+        
+        for (Map.Entry<String, Long> entry : counts.entrySet())
+            out.append(' ').append(entry.getKey()).append(' ').append(entry.getValue());
+        
+        out.append(String.format("%n"));
+    }
+    
+    private static long sum(Map<String, Long> counts) {
+        long total = 0;
+        
+        for (long count : counts.values())
+            total += count;
+        
+        return total;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.opt;
+
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.parser.TreeNode.PRODUCTION;
+
+/**
+ * Replaces each expression, term and factor whose operands are all
+ * NUMBER, TRUE or FALSE literals with the literal it evaluates to, e.g.
+ * "2 * (3 + 1)" becomes "8" and "!false" becomes "true".
+ * 
+ * Arithmetic wraps like Java int arithmetic; a division by zero, or an
+ * operator applied to a boolean, is left for the program to report.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class ConstantFolding implements OptimizationPass {
+    @Override
+    public void run(TreeNode program) {
+        for (TreeNode stmt : ParseTrees.statements(program)) {
+            TreeNode parent = ParseTrees.child(stmt, PRODUCTION.IDTAIL);
+            
+            if (parent == null)
+                parent = stmt;
+            
+            TreeNode expr = ParseTrees.child(parent, PRODUCTION.EXPR);
+            
+            if (expr != null)
+                foldExpr(expr);
+        }
+    }
+    
+    /**
+     * Fold the given EXPR, returning its value or null, if not constant.
+     */
+    private Object foldExpr(TreeNode expr) {
+        TreeNode first = expr.getChildren().get(0);
+        TreeNode tail = expr.getChildren().get(1);
+        
+        Object value = foldTerm(first);
+        boolean constant = value != null;
+        
+        for (; !ParseTrees.isEmptyTail(tail); tail = tail.getChildren().get(2)) {
+            Object operand = foldTerm(tail.getChildren().get(1));
+            
+            if (constant && value instanceof Integer && operand instanceof Integer) {
+                int a = (Integer) value;
+                int b = (Integer) operand;
+                
+                value = Exprs.operator(tail).equals("+") ? a + b : a - b;
+            } else {
+                constant = false;
+            }
+        }
+        
+        if (!constant)
+            return null;
+        
+        if (!ParseTrees.isEmptyTail(expr.getChildren().get(1)))
+            Exprs.setChildren(expr, Exprs.term(Exprs.factor(Exprs.leaf(value))),
+                              Exprs.emptyTail(PRODUCTION.TERM_TAIL));
+        
+        return value;
+    }
+    
+    /**
+     * Fold the given TERM, returning its value or null, if not constant.
+     */
+    private Object foldTerm(TreeNode term) {
+        TreeNode tail = term.getChildren().get(1);
+        
+        Object value = foldFactor(term.getChildren().get(0));
+        boolean constant = value != null;
+        
+        for (; !ParseTrees.isEmptyTail(tail); tail = tail.getChildren().get(2)) {
+            Object operand = foldFactor(tail.getChildren().get(1));
+            
+            if (constant && value instanceof Integer && operand instanceof Integer) {
+                int a = (Integer) value;
+                int b = (Integer) operand;
+                
+                if (Exprs.operator(tail).equals("*")) {
+                    value = a * b;
+                } else if (b != 0) {
+                    value = a / b;
+                } else {
+                    constant = false;
+                }
+            } else {
+                constant = false;
+            }
+        }
+        
+        if (!constant)
+            return null;
+        
+        if (!ParseTrees.isEmptyTail(term.getChildren().get(1)))
+            Exprs.setChildren(term, Exprs.factor(Exprs.leaf(value)),
+                              Exprs.emptyTail(PRODUCTION.FACTOR_TAIL));
+        
+        return value;
+    }
+    
+    /**
+     * Fold the given FACTOR, returning its value or null, if not constant.
+     */
+    private Object foldFactor(TreeNode factor) {
+        TreeNode first = factor.getChildren().get(0);
+        Object value;
+        
+        switch (first.type) {
+            case NUMBER:
+            case TRUE:
+            case FALSE:
+                return Exprs.literal(factor);
+                
+            case NOT:
+                value = foldExpr(factor.getChildren().get(1));
+                
+                if (!(value instanceof Boolean))
+                    return null;
+                
+                value = !(Boolean) value;
+                break;
+                
+            case ID:
+                return null;
+                
+            default: // ( expr )
+                value = foldExpr(factor.getChildren().get(1));
+                
+                if (value == null)
+                    return null;
+                break;
+        }
+        
+        Exprs.setChildren(factor, Exprs.leaf(value));
+        
+        return value;
+    }
+}
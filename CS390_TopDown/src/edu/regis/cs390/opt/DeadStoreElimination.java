@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.opt;
+
+import edu.regis.cs390.flow.Bits;
+import edu.regis.cs390.flow.StatementFacts;
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.parser.TreeNode.PRODUCTION;
+import edu.regis.cs390.tok.SymbolInterner;
+
+/**
+ * Removes assignments whose value is never read.
+ * 
+ * One backward liveness pass finds them: an assignment to a variable
+ * that isn't live is removed, and as expressions have no other side
+ * effects, its uses don't make anything live. A chain of stores feeding
+ * only each other is therefore removed in one pass. "read id" consumes
+ * input, so it is always kept, and so is an assignment that may divide
+ * by zero, as the program must still report that (see ConstantFolding).
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class DeadStoreElimination implements OptimizationPass {
+    /**
+     * The interner of the optimized program's symbols.
+     */
+    private final SymbolInterner symbols;
+    
+    /**
+     * Initialize this pass.
+     * 
+     * @param symbols the interner of the optimized program's symbols
+     */
+    public DeadStoreElimination(SymbolInterner symbols) {
+        this.symbols = symbols;
+    }
+    
+    @Override
+    public void run(TreeNode program) {
+        StatementFacts facts = new StatementFacts(program);
+        long[] live = Bits.create(symbols.size());
+        long[] dead = Bits.create(facts.size());
+        
+        for (int stmt = facts.size() - 1; stmt >= 0; stmt--) {
+            int def = facts.def(stmt);
+            
+            if (def >= 0) {
+                if (!Bits.get(live, def) && 
+                    facts.defKind(stmt) == StatementFacts.DefKind.ASSIGN &&
+                    !Exprs.mayTrap(facts.statements.get(stmt))) {
+                    Bits.set(dead, stmt);
+                    continue;
+                }
+                
+                Bits.clear(live, def);
+            }
+            
+            for (int use = facts.firstUse(stmt); use < facts.endUse(stmt); use++)
+                Bits.set(live, facts.use(use));
+        }
+        
+        // splice from the end, so a stmtList being copied is already final
+        for (int stmt = facts.size() - 1; stmt >= 0; stmt--) {
+            if (Bits.get(dead, stmt)) {
+                TreeNode stmtList = facts.statements.get(stmt).parent;
+                
+                Exprs.replaceWith(stmtList, 
+                        ParseTrees.child(stmtList, PRODUCTION.STMT_LIST));
+            }
+        }
+    }
+}
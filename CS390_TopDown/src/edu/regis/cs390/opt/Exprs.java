@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.opt;
+
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.parser.TreeNode.PRODUCTION;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for reading and rewriting the expression productions of a
+ * parse tree:
+ * 
+ *   expr -> term termTail          termTail -> addOp term termTail | e
+ *   term -> factor factorTail      factorTail -> multOp factor factorTail | e
+ *   factor -> ( expr ) | id | number | true | false | ! expr
+ * 
+ * @author CS390_TopDown contributors
+ */
+class Exprs {
+    /**
+     * Return the nodes of the given type within the expressions of the
+     * given program's statements, outer nodes before inner ones.
+     */
+    static List<TreeNode> collect(TreeNode program, PRODUCTION type) {
+        ArrayList<TreeNode> found = new ArrayList<>();
+        ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+        
+        for (TreeNode stmt : ParseTrees.statements(program)) {
+            pending.push(stmt);
+            
+            while (!pending.isEmpty()) {
+                TreeNode node = pending.pop();
+                
+                if (node.type == type)
+                    found.add(node);
+                
+                ArrayList<TreeNode> children = node.getChildren();
+                for (int i = children.size() - 1; i >= 0; i--)
+                    pending.push(children.get(i));
+            }
+        }
+        
+        return found;
+    }
+    
+    /**
+     * Return the number of nodes in the given tree (shared nodes are
+     * counted once per occurrence).
+     */
+    static int count(TreeNode root) {
+        int count = 0;
+        ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        
+        while (!pending.isEmpty()) {
+            TreeNode node = pending.pop();
+            count++;
+            
+            for (TreeNode child : node.getChildren())
+                pending.push(child);
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Return true, if evaluating the expressions below the given node may
+     * throw, i.e. they divide by anything but a non-zero NUMBER.
+     */
+    static boolean mayTrap(TreeNode root) {
+        ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        
+        while (!pending.isEmpty()) {
+            TreeNode node = pending.pop();
+            
+            if (node.type == PRODUCTION.FACTOR_TAIL && !ParseTrees.isEmptyTail(node) &&
+                    operator(node).equals("/")) {
+                Object divisor = literal(node.getChildren().get(1));
+                
+                if (!(divisor instanceof Integer) || (Integer) divisor == 0)
+                    return true;
+            }
+            
+            for (TreeNode child : node.getChildren())
+                pending.push(child);
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Return the FACTOR an EXPR or TERM consists of, or null if it has
+     * operators.
+     */
+    static TreeNode singleFactor(TreeNode node) {
+        if (!ParseTrees.isEmptyTail(node.getChildren().get(1)))
+            return null;
+        
+        TreeNode first = node.getChildren().get(0);
+        
+        return first.type == PRODUCTION.FACTOR ? first : singleFactor(first);
+    }
+    
+    /**
+     * Return the literal value of a FACTOR (an Integer or Boolean), or
+     * null if it isn't a NUMBER, TRUE or FALSE.
+     */
+    static Object literal(TreeNode factor) {
+        TreeNode first = factor.getChildren().get(0);
+        
+        switch (first.type) {
+            case NUMBER:
+                return Integer.valueOf(first.lexeme);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Return the operator lexeme (e.g. "+") of a non-empty tail.
+     */
+    static String operator(TreeNode tail) {
+        return tail.getChildren().get(0).getChildren().get(0).lexeme;
+    }
+    
+    /**
+     * Return a leaf for the given Integer or Boolean value.
+     */
+    static TreeNode leaf(Object value) {
+        if (value instanceof Integer)
+            return new TreeNode(PRODUCTION.NUMBER, null, value.toString());
+        else if ((Boolean) value)
+            return new TreeNode(PRODUCTION.TRUE, null, "true");
+        else
+            return new TreeNode(PRODUCTION.FALSE, null, "false");
+    }
+    
+    /**
+     * Return an empty TERM_TAIL or FACTOR_TAIL node.
+     */
+    static TreeNode emptyTail(PRODUCTION type) {
+        TreeNode tail = new TreeNode(type, null);
+        tail.add(new TreeNode(PRODUCTION.EMPTY, null));
+        return tail;
+    }
+    
+    /**
+     * Return a TERM consisting of the given factor.
+     */
+    static TreeNode term(TreeNode factor) {
+        TreeNode term = new TreeNode(PRODUCTION.TERM, null);
+        term.add(factor);
+        term.add(emptyTail(PRODUCTION.FACTOR_TAIL));
+        return term;
+    }
+    
+    /**
+     * Return a FACTOR consisting of the given leaf.
+     */
+    static TreeNode factor(TreeNode leaf) {
+        TreeNode factor = new TreeNode(PRODUCTION.FACTOR, null);
+        factor.add(leaf);
+        return factor;
+    }
+    
+    /**
+     * Replace the children of the given node.
+     */
+    static void setChildren(TreeNode node, TreeNode... children) {
+        node.getChildren().clear();
+        
+        for (TreeNode child : children)
+            node.add(child);
+    }
+    
+    /**
+     * Replace the children of the given node with those of another node.
+     */
+    static void replaceWith(TreeNode node, TreeNode source) {
+        ArrayList<TreeNode> children = new ArrayList<>(source.getChildren());
+        
+        node.getChildren().clear();
+        node.getChildren().addAll(children);
+    }
+}
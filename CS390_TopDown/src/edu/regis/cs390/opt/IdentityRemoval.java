@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.opt;
+
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.parser.TreeNode.PRODUCTION;
+
+/**
+ * Removes arithmetic identities: "x * 1", "x / 1", "1 * x", "x + 0",
+ * "x - 0" and "0 + x" all become "x".
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class IdentityRemoval implements OptimizationPass {
+    @Override
+    public void run(TreeNode program) {
+        for (TreeNode term : Exprs.collect(program, PRODUCTION.TERM))
+            simplify(term, "*", "/", 1);
+        
+        for (TreeNode expr : Exprs.collect(program, PRODUCTION.EXPR))
+            simplify(expr, "+", "-", 0);
+    }
+    
+    /**
+     * Remove the identity operands of an EXPR (with addOps) or TERM (with
+     * multOps).
+     * 
+     * @param node an EXPR or TERM
+     * @param commutative the operator whose left identity is also removed
+     * @param other the other operator, whose right identity is removed
+     * @param identity the identity element of both operators
+     */
+    private void simplify(TreeNode node, String commutative, String other,
+                          int identity) {
+        // leading "identity op x"
+        TreeNode tail = node.getChildren().get(1);
+        
+        while (!ParseTrees.isEmptyTail(tail) && 
+               Exprs.operator(tail).equals(commutative) &&
+               isIdentity(node.getChildren().get(0), identity)) {
+            Exprs.setChildren(node, tail.getChildren().get(1), 
+                              tail.getChildren().get(2));
+            tail = node.getChildren().get(1);
+        }
+        
+        // trailing "op identity"
+        while (!ParseTrees.isEmptyTail(tail)) {
+            String op = Exprs.operator(tail);
+            
+            if ((op.equals(commutative) || op.equals(other)) && 
+                isIdentity(tail.getChildren().get(1), identity)) {
+                Exprs.replaceWith(tail, tail.getChildren().get(2));
+            } else {
+                tail = tail.getChildren().get(2);
+            }
+        }
+    }
+    
+    /**
+     * Return true, if the given TERM or FACTOR is the given int literal.
+     */
+    private static boolean isIdentity(TreeNode node, int identity) {
+        TreeNode factor = node.type == PRODUCTION.FACTOR ? 
+                          node : Exprs.singleFactor(node);
+        
+        return factor != null && 
+               Integer.valueOf(identity).equals(Exprs.literal(factor));
+    }
+}
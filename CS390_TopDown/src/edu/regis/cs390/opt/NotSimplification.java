@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.opt;
+
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.parser.TreeNode.PRODUCTION;
+
+/**
+ * Removes double negations: "!!x" becomes "x", and "!!(a + b)" becomes
+ * "(a + b)". Negations of literals are left to ConstantFolding.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class NotSimplification implements OptimizationPass {
+    @Override
+    public void run(TreeNode program) {
+        for (TreeNode factor : Exprs.collect(program, PRODUCTION.FACTOR)) {
+            TreeNode inner;
+            
+            while ((inner = negated(factor)) != null && 
+                   inner.getChildren().get(0).type == PRODUCTION.NOT) {
+                TreeNode expr = inner.getChildren().get(1);
+                TreeNode single = Exprs.singleFactor(expr);
+                
+                if (single != null) {
+                    Exprs.replaceWith(factor, single);
+                } else {
+                    Exprs.setChildren(factor, 
+                        new TreeNode(PRODUCTION.PUNCTUATION, null, "("),
+                        expr,
+                        new TreeNode(PRODUCTION.PUNCTUATION, null, ")"));
+                }
+            }
+        }
+    }
+    
+    /**
+     * If the given factor is "! expr" and expr is a single factor, return
+     * that factor, otherwise null.
+     */
+    private static TreeNode negated(TreeNode factor) {
+        if (factor.getChildren().get(0).type != PRODUCTION.NOT)
+            return null;
+        
+        return Exprs.singleFactor(factor.getChildren().get(1));
+    }
+}
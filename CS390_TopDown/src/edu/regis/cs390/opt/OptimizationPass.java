@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.opt;
+
+import edu.regis.cs390.parser.TreeNode;
+
+/**
+ * A transformation of a parse tree that preserves the program's meaning.
+ * 
+ * Passes assume the program has passed semantic analysis; for example,
+ * removing "x * 1" would hide a type error if x were boolean.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public interface OptimizationPass {
+    /**
+     * Rewrite the given program in place.
+     * 
+     * @param program the PROGRAM root returned by PredictiveParser.parse()
+     */
+    void run(TreeNode program);
+}
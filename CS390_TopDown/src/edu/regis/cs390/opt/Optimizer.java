@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.opt;
+
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.tok.SymbolInterner;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Runs the enabled optimization passes over a parse tree, in the order
+ * declared by Pass, and reports how many nodes each pass removed.
+ * 
+ * The driver's Compiler runs it on each semantically valid tree when
+ * passes are enabled (see Compiler.setOptimizations() and BatchDriver's
+ * --optimize), as does JvmCompiler before generating code, so the later
+ * stages see the smaller trees.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class Optimizer {
+    /**
+     * The available passes, in the order they run.
+     */
+    public enum Pass {NOT_SIMPLIFICATION, CONSTANT_FOLDING, IDENTITY_REMOVAL,
+                      DEAD_STORE_ELIMINATION;
+        
+        /**
+         * Return this pass's name on a command line, e.g. "constant-folding".
+         * 
+         * @return the lower case name, with dashes
+         */
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+        
+        /**
+         * Return the pass with the given name, ignoring case.
+         * 
+         * @param name e.g. "constant-folding"
+         * @return the named pass
+         * @throws IllegalArgumentException there's no such pass
+         */
+        public static Pass fromName(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    };
+    
+    /**
+     * The interner of the optimized program's symbols.
+     */
+    private final SymbolInterner symbols;
+    
+    /**
+     * The passes that run (all, by default).
+     */
+    private final EnumSet<Pass> enabled = EnumSet.allOf(Pass.class);
+    
+    /**
+     * Initialize this optimizer with every pass enabled.
+     * 
+     * @param symbols the interner of the optimized program's symbols
+     */
+    public Optimizer(SymbolInterner symbols) {
+        this.symbols = symbols;
+    }
+    
+    /**
+     * Initialize this optimizer with only the given passes enabled.
+     * 
+     * @param symbols the interner of the optimized program's symbols
+     * @param passes the passes that run
+     */
+    public Optimizer(SymbolInterner symbols, Set<Pass> passes) {
+        this.symbols = symbols;
+        enabled.retainAll(passes);
+    }
+    
+    /**
+     * Return the passes in a comma separated list of pass names, e.g.
+     * "constant-folding,dead-store-elimination", or every pass for "all".
+     * 
+     * @param names pass names, or "all"
+     * @return the named passes
+     * @throws IllegalArgumentException a name isn't a pass
+     */
+    public static EnumSet<Pass> parsePasses(String names) {
+        if (names.equalsIgnoreCase("all"))
+            return EnumSet.allOf(Pass.class);
+        
+        EnumSet<Pass> passes = EnumSet.noneOf(Pass.class);
+        
+        for (String name : names.split(",")) {
+            try {
+                passes.add(Pass.fromName(name.trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown optimization pass: " + name);
+            }
+        }
+        
+        return passes;
+    }
+    
+    /**
+     * Enable or disable the given pass.
+     * 
+     * @param pass an optimization pass
+     * @param on true, if the pass should run
+     */
+    public void setEnabled(Pass pass, boolean on) {
+        if (on)
+            enabled.add(pass);
+        else
+            enabled.remove(pass);
+    }
+    
+    /**
+     * Return true, if the given pass is enabled.
+     * 
+     * @param pass an optimization pass
+     * @return true, if the pass will run
+     */
+    public boolean isEnabled(Pass pass) {
+        return enabled.contains(pass);
+    }
+    
+    /**
+     * Run the enabled passes over the given program, in place.
+     * 
+     * @param program the PROGRAM root returned by PredictiveParser.parse()
+     * @return the number of nodes removed by each pass that ran
+     */
+    public EnumMap<Pass, Integer> optimize(TreeNode program) {
+        EnumMap<Pass, Integer> removed = new EnumMap<>(Pass.class);
+        int nodes = Exprs.count(program);
+        
+        for (Pass pass : enabled) {
+            create(pass).run(program);
+            
+            int after = Exprs.count(program);
+            removed.put(pass, nodes - after);
+            nodes = after;
+        }
+        
+        return removed;
+    }
+    
+    /**
+     * Return the implementation of the given pass.
+     */
+    private OptimizationPass create(Pass pass) {
+        switch (pass) {
+            case NOT_SIMPLIFICATION:
+                return new NotSimplification();
+            case CONSTANT_FOLDING:
+                return new ConstantFolding();
+            case IDENTITY_REMOVAL:
+                return new IdentityRemoval();
+            default:
+                return new DeadStoreElimination(symbols);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Hash-conses the expression subtrees of a parse tree, so structurally
+ * identical subexpressions (e.g. every "(A + B) * 2") share one canonical
+ * node. Canonical nodes are numbered 0, 1, 2, ... (see getCanonicalId()),
+ * so later phases can cache per-expression results in arrays.
+ * 
+ * Sharing turns the tree into a DAG: a shared node's parent is that of
+ * its first occurrence, and leaves within shared subexpressions carry the
+ * source line of the first occurrence.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class HashConser {
+    /**
+     * The canonical node of each distinct expression structure.
+     */
+    private final HashMap<Key, TreeNode> canonical = new HashMap<>();
+    
+    /**
+     * The number of nodes replaced by an existing canonical node.
+     */
+    private int sharedCount;
+    
+    /**
+     * Hash-cons every expression within the given program's statements.
+     * 
+     * @param program the PROGRAM root returned by PredictiveParser.parse()
+     */
+    public void internProgram(TreeNode program) {
+        for (TreeNode stmt : ParseTrees.statements(program)) {
+            internChildren(stmt);
+            
+            TreeNode idTail = ParseTrees.child(stmt, TreeNode.PRODUCTION.IDTAIL);
+            if (idTail != null)
+                internChildren(idTail);
+        }
+    }
+    
+    /**
+     * Return the canonical node for the given expression subtree, after
+     * making its children canonical.
+     * 
+     * @param node an EXPR, TERM, FACTOR, tail, operator, or leaf node
+     * @return the canonical node structurally equal to the given node
+     */
+    public TreeNode intern(TreeNode node) {
+        if (node.getCanonicalId() >= 0)   // already canonical
+            return node;
+        
+        ArrayList<TreeNode> children = node.getChildren();
+        int[] childIds = new int[children.size()];
+        
+        for (int i = 0; i < children.size(); i++) {
+            TreeNode child = intern(children.get(i));
+            
+            children.set(i, child);
+            childIds[i] = child.getCanonicalId();
+        }
+        
+        Key key = new Key(node, childIds);
+        TreeNode existing = canonical.get(key);
+        
+        if (existing != null) {
+            sharedCount++;
+            return existing;
+        }
+        
+        node.setCanonicalId(canonical.size());
+        canonical.put(key, node);
+        
+        return node;
+    }
+    
+    /**
+     * Return the number of distinct canonical nodes, which bounds all
+     * canonical IDs.
+     * 
+     * @return the number of canonical nodes
+     */
+    public int size() {
+        return canonical.size();
+    }
+    
+    /**
+     * Return the number of nodes replaced by a shared canonical node.
+     * 
+     * @return the number of shared occurrences
+     */
+    public int getSharedCount() {
+        return sharedCount;
+    }
+    
+    /**
+     * Replace each EXPR child of the given node with its canonical node.
+     */
+    private void internChildren(TreeNode node) {
+        ArrayList<TreeNode> children = node.getChildren();
+        
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i).type == TreeNode.PRODUCTION.EXPR)
+                children.set(i, intern(children.get(i)));
+        }
+    }
+    
+    /**
+     * The structure of a node: its type, its leaf value (symbol ID or
+     * lexeme), and the canonical IDs of its children.
+     */
+    private static final class Key {
+        final TreeNode.PRODUCTION type;
+        final int symbol;
+        final String lexeme;
+        final int[] childIds;
+        final int hash;
+        
+        Key(TreeNode node, int[] childIds) {
+            this.type = node.type;
+            this.symbol = node.symbol;
+            this.lexeme = node.lexeme;
+            this.childIds = childIds;
+            
+            int h = type.ordinal();
+            h = 31 * h + symbol;
+            h = 31 * h + lexeme.hashCode();
+            hash = 31 * h + Arrays.hashCode(childIds);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+            
+            Key other = (Key) obj;
+            
+            return hash == other.hash && type == other.type && 
+                   symbol == other.symbol && lexeme.equals(other.lexeme) &&
+                   Arrays.equals(childIds, other.childIds);
+        }
+    }
+}
@@ -5,6 +5,8 @@
  */
 package edu.regis.cs390.parser;
 
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.Severity;
 import edu.regis.cs390.tok.TokenType;
 
 /**
@@ -12,11 +14,41 @@ import edu.regis.cs390.tok.TokenType;
  * @author Rickb
  */
 public class ParseError extends Exception {
+    /**
+     * The 1-based source line of the error, or Diagnostic.NO_LINE
+     */
+    private final int line;
+    
     public ParseError(TokenType type, int lineNo) {
-        this("Expecting " + type + " at " + lineNo);
+        this("Expecting " + type + " at " + lineNo, lineNo);
     }
     
     public ParseError(String msg) {
+        this(msg, Diagnostic.NO_LINE);
+    }
+    
+    public ParseError(String msg, int line) {
         super(msg);
+        
+        this.line = line;
+    }
+    
+    /**
+     * Return the source line of this error.
+     * 
+     * @return a 1-based line number or Diagnostic.NO_LINE, if unknown
+     */
+    public int getLine() {
+        return line;
+    }
+    
+    /**
+     * Return this error as a Diagnostic.
+     * 
+     * @return an ERROR diagnostic with code "PARSE_ERROR"
+     */
+    public Diagnostic getDiagnostic() {
+        return new Diagnostic("PARSE_ERROR", Severity.ERROR, line, null,
+                              "Parse Error: " + getMessage());
     }
 }
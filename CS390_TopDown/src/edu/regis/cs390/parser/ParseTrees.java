@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.parser;
+
+import java.util.ArrayList;
+
+/**
+ * Utilities for navigating a parse tree built by the PredictiveParser.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class ParseTrees {
+    /**
+     * Return the STMT nodes of the given program in source order.
+     * 
+     * The stmtList production is right recursive, so the list is walked
+     * iteratively rather than recursing once per statement.
+     * 
+     * @param program the PROGRAM root returned by PredictiveParser.parse()
+     * @return the program's statements (empty, if there are none)
+     */
+    public static ArrayList<TreeNode> statements(TreeNode program) {
+        ArrayList<TreeNode> stmts = new ArrayList<>();
+        
+        TreeNode stmtList = child(program, TreeNode.PRODUCTION.STMT_LIST);
+        
+        while (stmtList != null) {
+            TreeNode stmt = child(stmtList, TreeNode.PRODUCTION.STMT);
+            
+            if (stmt == null)
+                break;
+            
+            stmts.add(stmt);
+            stmtList = child(stmtList, TreeNode.PRODUCTION.STMT_LIST);
+        }
+        
+        return stmts;
+    }
+    
+    /**
+     * Return the first child of the given node with the given type.
+     * 
+     * @param node a parse tree node
+     * @param type the production type to find
+     * @return the child or null, if there is none
+     */
+    public static TreeNode child(TreeNode node, TreeNode.PRODUCTION type) {
+        for (TreeNode child : node.getChildren()) {
+            if (child.type == type)
+                return child;
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Return true, if the given tail (TERM_TAIL or FACTOR_TAIL) node
+     * derives the empty string.
+     * 
+     * @param tail a TERM_TAIL or FACTOR_TAIL node
+     * @return true, if the tail has no operator
+     */
+    public static boolean isEmptyTail(TreeNode tail) {
+        return tail == null || tail.getChildren().isEmpty() ||
+               tail.getChildren().get(0).type == TreeNode.PRODUCTION.EMPTY;
+    }
+}
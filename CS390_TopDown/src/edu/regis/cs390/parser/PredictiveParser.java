@@ -5,10 +5,17 @@
  */
 package edu.regis.cs390.parser;
 
+import edu.regis.cs390.index.SymbolIndex;
+import edu.regis.cs390.limits.CompileLimits;
+import edu.regis.cs390.limits.LimitExceededException;
+import edu.regis.cs390.metrics.CompilerMetrics;
+import edu.regis.cs390.tok.SymbolInterner;
 import edu.regis.cs390.tok.TokenType;
 import edu.regis.cs390.tok.Token;
-import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.tok.TokenSource;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
 
 /**
  * A top-down Predictive Parser for Scott's (2016) Simple Calculator
@@ -23,19 +30,100 @@ public class PredictiveParser {
     private Token currentToken;
     
     /**
-     * The lexical analysis Scanner used by this Parser
+     * The lexical analysis Scanner (or other token source) used by this Parser
      */
-    private final Scanner scanner;
+    private TokenSource scanner;
     
     private TreeNode parseTree;
     
+    /**
+     * Called with each STMT node as soon as it's parsed, or null.
+     */
+    private Consumer<TreeNode> statementListener;
+    
+    /**
+     * Records each identifier use as it's parsed, or null.
+     */
+    private SymbolIndex symbolIndex;
+    
+    /**
+     * The limits checked while parsing, and the System.nanoTime() after
+     * which parsing stops (see CompileLimits).
+     */
+    private CompileLimits limits = CompileLimits.DEFAULT;
+    private long deadline = Long.MAX_VALUE;
+    
+    /**
+     * The current nesting of the recursive expression productions, and
+     * the nodes created by the current parse.
+     */
+    private int depth;
+    private int nodeCount;
+    
+    /**
+     * The node count at which the limits are next checked.
+     */
+    private int nextCheck;
+    
+    /**
+     * With CompilerMetrics enabled, the nodes created by the current parse
+     * (indexed by PRODUCTION ordinal), and its deepest nesting.
+     */
+    private final int[] nodeCounts = 
+            CompilerMetrics.ENABLED ? new int[TreeNode.PRODUCTION.values().length] : null;
+    private int maxDepth;
+    
     /**
      * Initialize this Parser with the given Scanner
      * 
      * @param scanner lexical analysis Scanner that returns Tokens. 
      */
-    public PredictiveParser(Scanner scanner) {
+    public PredictiveParser(TokenSource scanner) {
+        this.scanner = scanner;
+    }
+    
+    /**
+     * Start parsing another token source, e.g. a Scanner reset() for the
+     * next file, keeping the statement listener.
+     * 
+     * @param scanner lexical analysis Scanner that returns Tokens. 
+     */
+    public void reset(TokenSource scanner) {
         this.scanner = scanner;
+        currentToken = null;
+        parseTree = null;
+    }
+    
+    /**
+     * Set the listener called with each statement as soon as it's parsed,
+     * before the rest of the program is parsed.
+     * 
+     * @param statementListener receives each STMT node, or null for none
+     */
+    public void setStatementListener(Consumer<TreeNode> statementListener) {
+        this.statementListener = statementListener;
+    }
+    
+    /**
+     * Set the index each identifier use is added to as it's parsed, which
+     * is kept by reset(). The caller clears it between programs.
+     * 
+     * @param symbolIndex receives each identifier use, or null for none
+     */
+    public void setSymbolIndex(SymbolIndex symbolIndex) {
+        this.symbolIndex = symbolIndex;
+    }
+    
+    /**
+     * Set the limits checked while parsing, which are kept by reset().
+     * 
+     * @param limits the nesting depth and node count limits
+     * @param deadline the System.nanoTime() after which parsing stops, 
+     *        or Long.MAX_VALUE (see CompileLimits.deadline())
+     */
+    public void setLimits(CompileLimits limits, long deadline) {
+        this.limits = limits;
+        this.deadline = deadline;
     }
     
     /**
@@ -44,13 +132,34 @@ public class PredictiveParser {
      * 
      * @throws ParseError an unexpected token or IO error occurred.
      * @throws IOException an unexpected non-recoverable error occurred
+     * @throws LimitExceededException the input exceeded a CompileLimits limit
      */
     public TreeNode parse() throws ParseError, IOException {
-        currentToken = scanner.next();
+        depth = 0;
+        nodeCount = 0;
+        scheduleCheck();
+        
+        if (!CompilerMetrics.ENABLED) {
+            currentToken = scanner.next();
+            program();
+            return parseTree;
+        }
         
-        program();
+        long start = System.nanoTime();
+        boolean failed = true;
+        Arrays.fill(nodeCounts, 0);
+        maxDepth = 0;
         
-        return parseTree;
+        try {
+            currentToken = scanner.next();
+            program();
+            failed = false;
+            return parseTree;
+            
+        } finally {
+            CompilerMetrics.get().parsed(nodeCounts, maxDepth, failed, 
+                                         System.nanoTime() - start);
+        }
     }
     
     /**
@@ -64,67 +173,82 @@ public class PredictiveParser {
             case ID:
             case READ:
             case WRITE:
+            case INTEGER:
+            case BOOLEAN:
             case EOF:
-                parseTree = new TreeNode(TreeNode.PRODUCTION.PROGRAM, null);
+                parseTree = create(TreeNode.PRODUCTION.PROGRAM, null);
                
                 stmtList(parseTree);
                 match(TokenType.EOF, parseTree);
-               
-                System.out.println("Parse Sucessful");
                 break;
             
             default:
                 throw new ParseError("program() unmatched token: " +
-                                      currentToken.type);
+                                      currentToken.type, currentToken.line);
         }
     }
     
     /**
      * Parses the production: stmtList -> stm stmtList | null
      * 
+     * The tail recursion on stmtList is done as a loop, so the parse
+     * of a long program doesn't nest one call per statement.
+     * 
      * @throws ParseError the expected token wasn't found
      * @throws IOException an unexpected non-recoverable error occurred
      */
     private void stmtList(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.STMT_LIST, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.STMT_LIST, parent);
         
-        switch (currentToken.type) {
-            case ID:
-            case READ:
-            case WRITE:
-                stmt(node);
-                stmtList(node);
-                break;
-                
-            case EOF:
-                node.add(new TreeNode(TreeNode.PRODUCTION.EMPTY, null));
-                break;
-                
-            default:
-                throw new ParseError("stmtList() unmatched token: " +
-                                      currentToken.type);
+        while (true) {
+            switch (currentToken.type) {
+                case ID:
+                case READ:
+                case WRITE:
+                case INTEGER:
+                case BOOLEAN:
+                    stmt(node);
+                    
+                    if (statementListener != null)
+                        statementListener.accept(node.getChildren().get(0));
+                    
+                    node = create(TreeNode.PRODUCTION.STMT_LIST, node);
+                    break;
+
+                case EOF:
+                    node.add(create(TreeNode.PRODUCTION.EMPTY, null));
+                    return;
+
+                default:
+                    throw new ParseError("stmtList() unmatched token: " +
+                                          currentToken.type, currentToken.line);
+            }
         }
     }
     
     /**
-     * Parses the production: stmt -> id = expr | read id | write expr
+     * Parses the production: 
+     *   stmt -> id idTail ; | read id ; | write expr ; | declaration ;
      * 
      * @throws ParseError the expected token wasn't found
      * @throws IOException an unexpected non-recoverable error occurred
      */
     private void stmt(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.STMT, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.STMT, parent);
         
         switch (currentToken.type) {
             case ID:
-                match(TokenType.ID, node);
+                // the idTail's first token tells an assignment from a call
+                TreeNode id = match(TokenType.ID, node);
+                index(id, currentToken.type == TokenType.ASSIGN ? 
+                          SymbolIndex.Role.WRITE : SymbolIndex.Role.CALL);
                 idTail(node);
                 match(TokenType.DELIMITER, node);
                 break;
                 
             case READ:
                 match(TokenType.READ, node);    
-                match(TokenType.ID, node);
+                index(match(TokenType.ID, node), SymbolIndex.Role.READ);
                 match(TokenType.DELIMITER, node);
                 break;
                 
@@ -137,15 +261,17 @@ public class PredictiveParser {
             case INTEGER:
             case BOOLEAN:
                 declaration(node);
+                match(TokenType.DELIMITER, node);
+                break;
                 
             default:
                 throw new ParseError("stmt() unmatched token: " +
-                                      currentToken.type);
+                                      currentToken.type, currentToken.line);
         }
     }
     
     private void idTail (TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.IDTAIL, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.IDTAIL, parent);
         
         switch (currentToken.type) {
             case ASSIGN:
@@ -155,33 +281,33 @@ public class PredictiveParser {
                 
             case LPAREN:
                 match(TokenType.LPAREN, node);
-                match(TokenType.ID, node); 
+                index(match(TokenType.ID, node), SymbolIndex.Role.READ);
                 match(TokenType.RPAREN, node);
                 break;
             
             default:
                 throw new ParseError("idTail() unmatched token: " +
-                                      currentToken.type);
+                                      currentToken.type, currentToken.line);
         }
     }
     
     private void declaration (TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.DECLARATION, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.DECLARATION, parent);
         
         switch (currentToken.type) {
             case INTEGER:
                 match(TokenType.INTEGER, node);  
-                match(TokenType.ID, node);
+                index(match(TokenType.ID, node), SymbolIndex.Role.DECLARATION);
                 break;
                 
             case BOOLEAN:
                 match(TokenType.BOOLEAN, node); 
-                match(TokenType.ID, node);
+                index(match(TokenType.ID, node), SymbolIndex.Role.DECLARATION);
                 break;
             
             default:
                 throw new ParseError("declaration() unmatched token: " +
-                                      currentToken.type);
+                                      currentToken.type, currentToken.line);
         }
     }
             
@@ -192,7 +318,9 @@ public class PredictiveParser {
      * @throws IOException an unexpected non-recoverable error occurred
      */
     private void expr(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.EXPR, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.EXPR, parent);
+        
+        enter();
         
         switch (currentToken.type) {
             case ID:
@@ -208,8 +336,10 @@ public class PredictiveParser {
             
             default:
                throw new ParseError("expr() unmatched token: " +
-                                      currentToken.type); 
+                                      currentToken.type, currentToken.line); 
         }
+        
+        depth--;
     }
     
     /**
@@ -219,7 +349,7 @@ public class PredictiveParser {
      * @throws IOException an unexpected non-recoverable error occurred
      */
     private void term(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.TERM, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.TERM, parent);
         
         switch (currentToken.type) {
             case LPAREN:
@@ -234,39 +364,44 @@ public class PredictiveParser {
               
             default:
                 throw new ParseError("term() unmatched token: " +
-                                      currentToken.type);
+                                      currentToken.type, currentToken.line);
         }
     }
     
     /**
      * Parses the production: termTial -> addOp term termTail | null
      * 
+     * The tail recursion on termTail is done as a loop, so a long chain
+     * of + and - neither nests calls nor counts as nesting.
+     * 
      * @throws ParseError the expected token wasn't found
      * @throws IOException an unexpected non-recoverable error occurred     */
     private void termTail(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.TERM_TAIL, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.TERM_TAIL, parent);
         
-       switch (currentToken.type) {
-           case PLUS:
-           case MINUS:
-               addOp(node);
-               term(node);
-               termTail(node);
-               break;
-           case RPAREN:
-           case ID:
-           case READ:
-           case WRITE:
-           case EOF:
-           case DELIMITER:
-               node.add(new TreeNode(TreeNode.PRODUCTION.EMPTY, null));
-               break;
-           
-           default:
-               throw new ParseError("termTail() unmatched token: " +
-                                      currentToken.type);
-                      
-       } 
+        while (true) {
+            switch (currentToken.type) {
+                case PLUS:
+                case MINUS:
+                    addOp(node);
+                    term(node);
+                    node = create(TreeNode.PRODUCTION.TERM_TAIL, node);
+                    break;
+                    
+                case RPAREN:
+                case ID:
+                case READ:
+                case WRITE:
+                case EOF:
+                case DELIMITER:
+                    node.add(create(TreeNode.PRODUCTION.EMPTY, null));
+                    return;
+                    
+                default:
+                    throw new ParseError("termTail() unmatched token: " +
+                                          currentToken.type, currentToken.line);
+            }
+        }
     }
     /**
      * Parses the production: factor -> ( expr ) | id | number
@@ -275,11 +410,11 @@ public class PredictiveParser {
      * @throws IOException an unexpected non-recoverable error occurred
      */
     private void factor(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.FACTOR, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.FACTOR, parent);
         
         switch (currentToken.type) {
             case ID:
-                match(TokenType.ID, node);
+                index(match(TokenType.ID, node), SymbolIndex.Role.READ);
                 break;
             case NUMBER:
                 match(TokenType.NUMBER, node);
@@ -302,40 +437,46 @@ public class PredictiveParser {
                 break;
             default:
                 throw new ParseError("factor() unmatched token: " +
-                                      currentToken.type);
+                                      currentToken.type, currentToken.line);
         }
     }
     
     /**
      * Parses production: factorTail -> multOp factor factorTail | null
      * 
+     * The tail recursion on factorTail is done as a loop, so a long chain
+     * of * and / neither nests calls nor counts as nesting.
+     * 
      * @throws ParseError the expected token wasn't found
      * @throws IOException an unexpected non-recoverable error occurred
      */
     private void factorTail(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.FACTOR_TAIL, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.FACTOR_TAIL, parent);
         
-        switch(currentToken.type) {
-            case MULTIPLY:
-            case DIVIDE:
-                multOp(node);
-                factor(node);
-                factorTail(node);
-                break;
-                
-            case PLUS:
-            case MINUS:
-            case ID:
-            case READ:
-            case WRITE:
-            case EOF:
-            case DELIMITER:
-                node.add(new TreeNode(TreeNode.PRODUCTION.EMPTY, null));
-                break;
-                
-            default:
-                throw new ParseError("factorTail() unmatched token: " +
-                                      currentToken.type);
+        while (true) {
+            switch (currentToken.type) {
+                case MULTIPLY:
+                case DIVIDE:
+                    multOp(node);
+                    factor(node);
+                    node = create(TreeNode.PRODUCTION.FACTOR_TAIL, node);
+                    break;
+                    
+                case PLUS:
+                case MINUS:
+                case RPAREN:
+                case ID:
+                case READ:
+                case WRITE:
+                case EOF:
+                case DELIMITER:
+                    node.add(create(TreeNode.PRODUCTION.EMPTY, null));
+                    return;
+                    
+                default:
+                    throw new ParseError("factorTail() unmatched token: " +
+                                          currentToken.type, currentToken.line);
+            }
         }
     }
     
@@ -346,7 +487,7 @@ public class PredictiveParser {
      * @throws IOException an unexpected non-recoverable error occurred 
      */
     private void addOp(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.ADD_OP, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.ADD_OP, parent);
         
         switch (currentToken.type) {
             case PLUS:
@@ -357,7 +498,7 @@ public class PredictiveParser {
                 break;
             default:
                 throw new ParseError("addOp() unmatched token: " +
-                                      currentToken.type);
+                                      currentToken.type, currentToken.line);
         }
     }
     
@@ -368,7 +509,7 @@ public class PredictiveParser {
      * @throws IOException an unexpected non-recoverable error occurred 
      */
     private void multOp(TreeNode parent) throws ParseError, IOException {
-        TreeNode node = new TreeNode(TreeNode.PRODUCTION.MULT_OP, parent);
+        TreeNode node = create(TreeNode.PRODUCTION.MULT_OP, parent);
         
         switch (currentToken.type) {
             case MULTIPLY:
@@ -379,7 +520,7 @@ public class PredictiveParser {
                 break;
             default:
                 throw new ParseError("multOp() unmatched token: " +
-                                      currentToken.type);
+                                      currentToken.type, currentToken.line);
         }  
     }
     
@@ -398,53 +539,54 @@ public class PredictiveParser {
         if (currentToken.type == type) {
             switch (type) {
                 case ID:
-                    node = new TreeNode(TreeNode.PRODUCTION.ID, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.ID, parent, 
+                                currentToken.lexeme, currentToken.symbol);
                     break;
                     
                 case NUMBER:
-                    node = new TreeNode(TreeNode.PRODUCTION.NUMBER, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.NUMBER, parent, currentToken.lexeme);
                     break;
                     
                 case ASSIGN:
-                    node = new TreeNode(TreeNode.PRODUCTION.PUNCTUATION , parent, ":=");
+                    node = leaf(TreeNode.PRODUCTION.PUNCTUATION, parent, ":=");
                     break;
                     
                 case EOF:
-                    node = new TreeNode(TreeNode.PRODUCTION.PUNCTUATION, parent, "$$");
+                    node = leaf(TreeNode.PRODUCTION.PUNCTUATION, parent, "$$");
                     break;
                     
                 case TRUE:
-                    node = new TreeNode(TreeNode.PRODUCTION.TRUE, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.TRUE, parent, currentToken.lexeme);
                     break;
                     
                 case FALSE:
-                    node = new TreeNode(TreeNode.PRODUCTION.FALSE, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.FALSE, parent, currentToken.lexeme);
                     break;
                     
                 case READ:
-                    node = new TreeNode(TreeNode.PRODUCTION.READ, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.READ, parent, currentToken.lexeme);
                     break;
                     
                 case WRITE:
-                    node = new TreeNode(TreeNode.PRODUCTION.WRITE, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.WRITE, parent, currentToken.lexeme);
                     break;
                 
                 case IDTAIL:
-                    node = new TreeNode(TreeNode.PRODUCTION.WRITE, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.WRITE, parent, currentToken.lexeme);
                     break;
                     
                 case DELIMITER:
-                    node = new TreeNode(TreeNode.PRODUCTION.DELIMITER, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.DELIMITER, parent, currentToken.lexeme);
                     break;
                     
                 case NOT:
-                    node = new TreeNode(TreeNode.PRODUCTION.NOT, parent, currentToken.lexeme);
+                    node = leaf(TreeNode.PRODUCTION.NOT, parent, currentToken.lexeme);
                     break;
                     
                 default:
-                     node = new TreeNode(TreeNode.PRODUCTION.PUNCTUATION,
-                                        parent,
-                                        currentToken.lexeme.toUpperCase());
+                     node = leaf(TreeNode.PRODUCTION.PUNCTUATION,
+                                 parent,
+                                 currentToken.lexeme.toUpperCase());
                     break;
             }
             
@@ -452,7 +594,101 @@ public class PredictiveParser {
             
             return node;
         } else {
-            throw new ParseError(type, scanner.getLineNo());
+            throw new ParseError(type, currentToken.line);
         }
     }
+    
+    /**
+     * Add an identifier use to the symbol index, if there is one.
+     * 
+     * @param id an ID leaf
+     * @param role how the identifier is used
+     */
+    private void index(TreeNode id, SymbolIndex.Role role) {
+        if (symbolIndex != null && id.symbol != SymbolInterner.NO_SYMBOL)
+            symbolIndex.add(id.symbol, id.lexeme, role, id.line);
+    }
+    
+    /**
+     * Create a leaf node for the current token.
+     * 
+     * @param type the leaf's production type
+     * @param parent the node the leaf is added to
+     * @param lexeme the leaf's lexeme
+     */
+    private TreeNode leaf(TreeNode.PRODUCTION type, TreeNode parent, 
+                          String lexeme) {
+        return leaf(type, parent, lexeme, SymbolInterner.NO_SYMBOL);
+    }
+    
+    /**
+     * Create a leaf node for the current token.
+     * 
+     * @param type the leaf's production type
+     * @param parent the node the leaf is added to
+     * @param lexeme the leaf's lexeme
+     * @param symbol the lexeme's interned symbol ID (see SymbolInterner)
+     */
+    private TreeNode leaf(TreeNode.PRODUCTION type, TreeNode parent, 
+                          String lexeme, int symbol) {
+        if (++nodeCount >= nextCheck)
+            checkLimits();
+        
+        if (CompilerMetrics.ENABLED)
+            nodeCounts[type.ordinal()]++;
+        
+        return new TreeNode(type, parent, lexeme, symbol, currentToken.line);
+    }
+    
+    /**
+     * Create an interior (or EMPTY) node.
+     * 
+     * @param type the node's production type
+     * @param parent the node the new node is added to, or null
+     */
+    private TreeNode create(TreeNode.PRODUCTION type, TreeNode parent) {
+        if (++nodeCount >= nextCheck)
+            checkLimits();
+        
+        if (CompilerMetrics.ENABLED)
+            nodeCounts[type.ordinal()]++;
+        
+        return new TreeNode(type, parent);
+    }
+    
+    /**
+     * Enter an expression, at the top of a statement or within ( ) or
+     * after !, checking the nesting limit.
+     * 
+     * @throws LimitExceededException the nesting is too deep
+     */
+    private void enter() {
+        if (++depth > limits.getMaxDepth())
+            throw new LimitExceededException("expression nested deeper than " + 
+                    limits.getMaxDepth(), currentToken.line);
+        
+        if (CompilerMetrics.ENABLED && depth > maxDepth)
+            maxDepth = depth;
+    }
+    
+    /**
+     * Check the node count and wall time limits, and schedule the next
+     * check (the clock is read once every CHECK_INTERVAL nodes).
+     * 
+     * @throws LimitExceededException a limit was exceeded
+     */
+    private void checkLimits() {
+        if (nodeCount > limits.getMaxNodes())
+            throw new LimitExceededException(
+                    "more than " + limits.getMaxNodes() + " parse tree nodes", 
+                    currentToken.line);
+        
+        limits.checkDeadline(deadline, currentToken.line);
+        scheduleCheck();
+    }
+    
+    private void scheduleCheck() {
+        nextCheck = (int) Math.min((long) nodeCount + CompileLimits.CHECK_INTERVAL,
+                                   (long) limits.getMaxNodes() + 1);
+    }
 }
@@ -5,6 +5,8 @@
  */
 package edu.regis.cs390.parser;
 
+import edu.regis.cs390.tok.SymbolInterner;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 
 /**
@@ -33,6 +35,17 @@ public class TreeNode {
      * The lexeme associated with this node, if any
      */
     public final String lexeme;
+    
+    /**
+     * The interned symbol ID of an ID node, otherwise NO_SYMBOL
+     * (see SymbolInterner)
+     */
+    public final int symbol;
+    
+    /**
+     * The 1-based source line of a leaf node's token, otherwise 0
+     */
+    public final int line;
   
     /**
      * The name of this node, which is derived.
@@ -40,7 +53,8 @@ public class TreeNode {
     public final String name;
     
     /**
-     * Convenience pointer to the parent of this node, if any.
+     * Convenience pointer to the parent of this node, if any. A node
+     * shared by HashConser keeps the parent of its first occurrence.
      */
     public final TreeNode parent;
     
@@ -49,6 +63,12 @@ public class TreeNode {
      */
     private ArrayList<TreeNode> children;
     
+    /**
+     * The ID assigned to this node by a HashConser, if it is a canonical
+     * expression node, otherwise -1.
+     */
+    private int canonicalId = -1;
+    
     /**
      * Create this node with the given type, parent, and an empty lexeme
      * @param type
@@ -65,8 +85,35 @@ public class TreeNode {
      * @param lexeme 
      */
     public TreeNode(PRODUCTION type, TreeNode parent, String lexeme) {
+        this(type, parent, lexeme, SymbolInterner.NO_SYMBOL);
+    }
+    
+    /**
+     * Create this node with the given type, parent, lexeme, and symbol ID
+     * @param type
+     * @param parent
+     * @param lexeme 
+     * @param symbol the lexeme's interned symbol ID (see SymbolInterner)
+     */
+    public TreeNode(PRODUCTION type, TreeNode parent, String lexeme, int symbol) {
+        this(type, parent, lexeme, symbol, 0);
+    }
+    
+    /**
+     * Create this node with the given type, parent, lexeme, symbol ID,
+     * and source line
+     * @param type
+     * @param parent
+     * @param lexeme 
+     * @param symbol the lexeme's interned symbol ID (see SymbolInterner)
+     * @param line the 1-based source line of the lexeme's token
+     */
+    public TreeNode(PRODUCTION type, TreeNode parent, String lexeme, 
+                    int symbol, int line) {
         this.type = type;
         this.lexeme = lexeme;
+        this.symbol = symbol;
+        this.line = line;
         this.parent = parent;
         
         children = new ArrayList<>();
@@ -107,14 +154,97 @@ public class TreeNode {
      * @param indent number of spaces to indent
      */
     public void prettyPrint(int indent) {
+        StringBuilder out = new StringBuilder();
+        prettyPrint(out, indent);
+        System.out.print(out);
+    }
+    
+    /**
+     * Append this node prefixed with the given indentation to the given text
+     * 
+     * @param out receives one line per node
+     * @param indent number of spaces to indent
+     */
+    public void prettyPrint(StringBuilder out, int indent) {
         for (int i = 0; i < indent; i++)
-            System.out.print(" ");
+            out.append(' ');
         
-        System.out.println(name);
+        out.append(name).append('\n');
         indent++;
         
         for (TreeNode node : children)
-            node.prettyPrint(indent);
+            node.prettyPrint(out, indent);
+    }
+    
+    /**
+     * Append this tree to the given text, one line per node, indented by
+     * depth, except that a node continuing its parent's production (e.g.
+     * the STMT_LIST after each statement) is indented as its parent, so a
+     * long program doesn't indent one more space per statement. The tree
+     * is walked with an explicit stack, so its depth doesn't matter.
+     * 
+     * @param out receives one line per node
+     * @param limit the most chars to append
+     * @return true, if the whole tree was appended, false if it's longer
+     *         than the limit (out then holds only part of it)
+     */
+    public boolean render(StringBuilder out, int limit) {
+        int end = out.length() + limit;
+        ArrayDeque<TreeNode> nodes = new ArrayDeque<>();
+        ArrayDeque<Integer> indents = new ArrayDeque<>();
+        nodes.push(this);
+        indents.push(0);
+        
+        while (!nodes.isEmpty()) {
+            TreeNode node = nodes.pop();
+            int indent = indents.pop();
+            
+            if (out.length() + indent + node.name.length() + 1 > end)
+                return false;
+            
+            for (int i = 0; i < indent; i++)
+                out.append(' ');
+            
+            out.append(node.name).append('\n');
+            
+            for (int i = node.children.size() - 1; i >= 0; i--) {
+                TreeNode child = node.children.get(i);
+                nodes.push(child);
+                indents.push(child.type == node.type ? indent : indent + 1);
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Return the source line of the first token derived from this node.
+     * 
+     * @return a 1-based line number or 0, if the node derives no tokens
+     */
+    public int firstLine() {
+        TreeNode node = this;
+        
+        while (node.line == 0 && !node.children.isEmpty())
+            node = node.children.get(0);
+        
+        return node.line;
+    }
+    
+    /**
+     * Return the ID assigned to this node by a HashConser.
+     * 
+     * @return a dense canonical node ID, or -1 if this node isn't canonical
+     */
+    public int getCanonicalId() {
+        return canonicalId;
+    }
+    
+    /**
+     * Set the ID of this canonical node (see HashConser).
+     */
+    void setCanonicalId(int canonicalId) {
+        this.canonicalId = canonicalId;
     }
     
     /**
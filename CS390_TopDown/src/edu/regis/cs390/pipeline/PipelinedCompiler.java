@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.pipeline;
+
+import edu.regis.cs390.Semantic.StreamingSemanticAnalyzer;
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.jfr.CompileEvents;
+import edu.regis.cs390.jfr.PhaseEvent;
+import edu.regis.cs390.limits.CompileLimits;
+import edu.regis.cs390.limits.LimitExceededException;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.driver.CompileResult;
+import edu.regis.cs390.driver.Phase;
+import edu.regis.cs390.parser.ParseError;
+import edu.regis.cs390.parser.PredictiveParser;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.tok.Token;
+import edu.regis.cs390.tok.TokenType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compiles one file with its phases running concurrently: a scanner
+ * thread puts batches of tokens into a ring buffer, a parser thread takes
+ * them and puts each statement it completes into a second ring buffer,
+ * and the calling thread checks the statements (see
+ * StreamingSemanticAnalyzer). Full buffers stall the stage before them,
+ * so memory stays bounded however far ahead the scanner gets.
+ * 
+ * This only pays for itself on large files; small files are compiled
+ * faster by driver.Compiler on one thread.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class PipelinedCompiler implements Closeable {
+    /**
+     * The number of tokens handed to the parser at once.
+     */
+    private static final int BATCH_SIZE = 512;
+    
+    /**
+     * The number of token batches, and statements, buffered between stages.
+     */
+    private static final int TOKEN_BATCHES = 64;
+    private static final int STATEMENTS = 4096;
+    
+    /**
+     * The limits each file is compiled within (see Compiler.setLimits()).
+     * The analyzer only checks the time limit through the parser, which
+     * it can't outrun.
+     */
+    private volatile CompileLimits limits = CompileLimits.DEFAULT;
+    
+    /**
+     * Runs the scanner and parser stages.
+     */
+    private final ExecutorService stages = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "pipeline-stage");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * Set the limits each file is compiled within.
+     * 
+     * @param limits the limits for later files
+     */
+    public void setLimits(CompileLimits limits) {
+        this.limits = limits;
+    }
+    
+    /**
+     * Compile the given file through the given phase.
+     * 
+     * @param file a source program
+     * @param last the last phase run
+     * @return the file's diagnostics and statistics
+     */
+    public CompileResult compile(Path file, Phase last) {
+        return compile(file, last, false);
+    }
+    
+    /**
+     * Compile the given file through the given phase.
+     * 
+     * @param file a source program
+     * @param last the last phase run
+     * @param keepTree true, if the result should hold the parse tree
+     * @return the file's diagnostics and statistics
+     */
+    public CompileResult compile(Path file, Phase last, boolean keepTree) {
+        long start = System.nanoTime();
+        long size = 0;
+        Scanner scanner;
+        
+        try {
+            size = Files.size(file);
+            scanner = new Scanner(file.toString());
+        } catch (IOException e) {
+            List<Diagnostic> diagnostics = ioError(e);
+            CompileEvents.diagnostics(file, diagnostics);
+            
+            return new CompileResult(file, size, 0, diagnostics, System.nanoTime() - start, null);
+        }
+        
+        SpscRingBuffer<Token[]> tokens = new SpscRingBuffer<>(TOKEN_BATCHES);
+        SpscRingBuffer<TreeNode> statements = new SpscRingBuffer<>(STATEMENTS);
+        boolean semantic = last == Phase.SEMANTIC;
+        
+        CompileLimits fileLimits = limits;
+        long deadline = fileLimits.deadline(start);
+        scanner.setLimits(fileLimits, deadline);
+        
+        long bytes = size;
+        Future<Integer> scan = stages.submit(() -> scan(scanner, tokens, file, bytes));
+        Future<TreeNode> parse = stages.submit(() -> parse(tokens, semantic ? statements : null, 
+                                                           fileLimits, deadline, file, bytes));
+        
+        StreamingSemanticAnalyzer analyzer = new StreamingSemanticAnalyzer();
+        
+        // the analyzer runs as statements arrive, so this spans the whole pipeline
+        PhaseEvent semanticEvent = CompileEvents.semantic();
+        semanticEvent.begin();
+        
+        if (semantic) {
+            boolean drained = false;
+            
+            try {
+                for (TreeNode stmt; (stmt = statements.take()) != null; )
+                    analyzer.accept(stmt);
+                
+                drained = true;
+                
+            } catch (CancellationException e) {
+                // the parser failed; its exception is reported below
+                drained = true;
+                
+            } finally {
+                // the analyzer threw: stop the stages, which would otherwise
+                // wait on full buffers forever, before closing the source
+                if (!drained)
+                    abandon(tokens, statements, scan, scanner);
+            }
+        }
+        
+        TreeNode parseTree = null;
+        int tokenCount = 0;
+        Throwable failure = null;
+        
+        try {
+            try {
+                parseTree = parse.get();
+            } catch (ExecutionException e) {
+                failure = e.getCause();
+            }
+            
+            try {
+                tokenCount = scan.get();
+            } catch (ExecutionException e) {
+                // a scanner failure cancels the parser, so it's the real cause
+                failure = e.getCause();
+            }
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tokens.cancel();
+            statements.cancel();
+            failure = new IOException("interrupted");
+            
+        } finally {
+            try {
+                scanner.close();
+            } catch (IOException e) {
+                // the source was fully read or abandoned
+            }
+        }
+        
+        List<Diagnostic> diagnostics;
+        
+        if (failure == null && semantic) {
+            diagnostics = analyzer.finish();
+            semanticEvent.end();
+            
+            if (semanticEvent.shouldCommit()) {
+                semanticEvent.setFile(file.toString(), size);
+                semanticEvent.setTokens(tokenCount);
+                semanticEvent.setNodes(CompileEvents.countNodes(parseTree));
+                semanticEvent.setErrors(diagnostics.size());
+                semanticEvent.commit();
+            }
+            
+        } else if (failure == null)
+            diagnostics = Collections.emptyList();
+        else if (failure instanceof ParseError)
+            diagnostics = Collections.singletonList(((ParseError) failure).getDiagnostic());
+        else if (failure instanceof LimitExceededException)
+            diagnostics = Collections.singletonList(((LimitExceededException) failure).getDiagnostic());
+        else if (failure instanceof IOException)
+            diagnostics = ioError((IOException) failure);
+        else
+            throw new IllegalStateException("pipeline stage failed", failure);
+        
+        CompileEvents.diagnostics(file, diagnostics);
+        
+        return new CompileResult(file, size, tokenCount, diagnostics, 
+                                 System.nanoTime() - start, keepTree ? parseTree : null);
+    }
+    
+    /**
+     * Stop the stage threads.
+     */
+    @Override
+    public void close() {
+        stages.shutdown();
+    }
+    
+    /**
+     * Cancel both buffers, so the scanner and parser stages stop, and close
+     * the source once the scanner has stopped reading it.
+     */
+    private static void abandon(SpscRingBuffer<Token[]> tokens, SpscRingBuffer<TreeNode> statements,
+                                Future<Integer> scan, Scanner scanner) {
+        statements.cancel();
+        tokens.cancel();
+        
+        try {
+            scan.get();
+        } catch (ExecutionException e) {
+            // the compile already failed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        try {
+            scanner.close();
+        } catch (IOException e) {
+            // the source was abandoned
+        }
+    }
+    
+    /**
+     * The scanner stage: put batches of tokens until EOF.
+     * 
+     * @return the number of tokens scanned, not counting EOF
+     */
+    private static int scan(Scanner scanner, SpscRingBuffer<Token[]> tokens, 
+                            Path file, long bytes) throws IOException {
+        int count = 0;
+        PhaseEvent event = CompileEvents.scan();
+        event.begin();
+        
+        try {
+            Token[] batch = new Token[BATCH_SIZE];
+            int size = 0;
+            Token token;
+            
+            do {
+                token = scanner.next();
+                batch[size++] = token;
+                
+                if (token.type != TokenType.EOF)
+                    count++;
+                
+                if (size == BATCH_SIZE || token.type == TokenType.EOF) {
+                    tokens.put(size == BATCH_SIZE ? batch : Arrays.copyOf(batch, size));
+                    batch = new Token[BATCH_SIZE];
+                    size = 0;
+                }
+            } while (token.type != TokenType.EOF);
+            
+        } catch (CancellationException e) {
+            // the parser stopped early; it reports why
+        } catch (IOException | RuntimeException e) {
+            tokens.cancel();
+            throw e;
+        } finally {
+            tokens.close();
+        }
+        
+        event.end();
+        
+        if (event.shouldCommit()) {
+            event.setFile(file.toString(), bytes);
+            event.setTokens(count);
+            event.commit();
+        }
+        
+        return count;
+    }
+    
+    /**
+     * The parser stage: parse the tokens, putting each completed statement
+     * into the statement buffer (if there is one).
+     * 
+     * @return the parse tree
+     */
+    private static TreeNode parse(SpscRingBuffer<Token[]> tokens, 
+                                  SpscRingBuffer<TreeNode> statements, 
+                                  CompileLimits limits, long deadline,
+                                  Path file, long bytes) 
+            throws ParseError, IOException {
+        PhaseEvent event = CompileEvents.parse();
+        event.begin();
+        
+        try {
+            PredictiveParser parser = new PredictiveParser(new RingTokenSource(tokens));
+            parser.setLimits(limits, deadline);
+            
+            if (statements != null)
+                parser.setStatementListener(statements::put);
+            
+            TreeNode parseTree = parser.parse();
+            event.end();
+            
+            if (event.shouldCommit()) {
+                event.setFile(file.toString(), bytes);
+                event.setTokens(CompileEvents.countTokens(parseTree));
+                event.setNodes(CompileEvents.countNodes(parseTree));
+                event.commit();
+            }
+            
+            return parseTree;
+            
+        } catch (ParseError | IOException | RuntimeException e) {
+            event.end();
+            
+            if (event.shouldCommit()) {
+                event.setFile(file.toString(), bytes);
+                event.setFailed(true);
+                event.commit();
+            }
+            
+            // stop the scanner, and the analyzer from waiting on a partial program
+            tokens.cancel();
+            
+            if (statements != null)
+                statements.cancel();
+            
+            throw e;
+            
+        } finally {
+            if (statements != null)
+                statements.close();
+        }
+    }
+    
+    private static List<Diagnostic> ioError(IOException e) {
+        return Collections.singletonList(new Diagnostic("IO_ERROR", 
+                Severity.ERROR, Diagnostic.NO_LINE, null, e.toString()));
+    }
+}
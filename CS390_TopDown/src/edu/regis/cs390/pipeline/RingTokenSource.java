@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.pipeline;
+
+import edu.regis.cs390.tok.Token;
+import edu.regis.cs390.tok.TokenSource;
+import edu.regis.cs390.tok.TokenType;
+import java.io.IOException;
+
+/**
+ * The parser's view of the token batches a scanner thread puts into a
+ * ring buffer.
+ * 
+ * @author CS390_TopDown contributors
+ */
+class RingTokenSource implements TokenSource {
+    private final SpscRingBuffer<Token[]> batches;
+    
+    /**
+     * The batch being read, and the index of its next token.
+     */
+    private Token[] batch = new Token[0];
+    private int next;
+    
+    /**
+     * The EOF token, once it's been read.
+     */
+    private Token eof;
+    
+    RingTokenSource(SpscRingBuffer<Token[]> batches) {
+        this.batches = batches;
+    }
+    
+    @Override
+    public Token next() throws IOException {
+        if (eof != null)
+            return eof;
+        
+        if (next == batch.length) {
+            batch = batches.take();
+            next = 0;
+            
+            if (batch == null)
+                throw new IOException("token stream ended without EOF");
+        }
+        
+        Token token = batch[next++];
+        
+        if (token.type == TokenType.EOF)
+            eof = token;
+        
+        return token;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.pipeline;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded lock-free queue between exactly one producer thread and one
+ * consumer thread.
+ * 
+ * The producer publishes an element by an ordered store of the tail after
+ * writing the slot, and the consumer frees a slot by an ordered store of
+ * the head after reading it, so neither side takes a lock. A full buffer
+ * makes put() wait for the consumer (back-pressure), and an empty one makes
+ * take() wait for the producer: first spinning, then yielding, then
+ * parking briefly.
+ * 
+ * @param <E> the element type
+ * @author CS390_TopDown contributors
+ */
+public class SpscRingBuffer<E> {
+    /**
+     * Indexes of the head and tail counters in the counters array, 16 longs
+     * (two cache lines) apart so producer and consumer don't false share.
+     */
+    private static final int HEAD = 16;
+    private static final int TAIL = 32;
+    
+    /**
+     * Waits before yielding and before parking; spinning can't help on a
+     * single CPU, where the other side can't run meanwhile.
+     */
+    private static final int SPINS = 
+            Runtime.getRuntime().availableProcessors() > 1 ? 100 : 0;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 50_000;
+    
+    private final Object[] slots;
+    private final int mask;
+    
+    /**
+     * The head (next slot taken) and tail (next slot put) counters.
+     */
+    private final AtomicLongArray counters = new AtomicLongArray(TAIL + 16);
+    
+    /**
+     * The producer's last view of the head, and the consumer's of the tail,
+     * so the other side's counter is only read when it must be.
+     */
+    private long cachedHead;
+    private long cachedTail;
+    
+    /**
+     * Set by the producer after its last put().
+     */
+    private volatile boolean closed;
+    
+    /**
+     * Set when either side gives up; the other side's waits then fail.
+     */
+    private volatile boolean cancelled;
+    
+    /**
+     * Initialize an empty buffer.
+     * 
+     * @param capacity the number of elements held, rounded up to a power of 2
+     */
+    public SpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        slots = new Object[size];
+        mask = size - 1;
+    }
+    
+    /**
+     * Add an element, if there's room (producer only).
+     * 
+     * @param element the element added, not null
+     * @return false, if the buffer is full
+     */
+    public boolean offer(E element) {
+        long tail = counters.get(TAIL);
+        
+        if (tail - cachedHead == slots.length) {
+            cachedHead = counters.get(HEAD);
+            
+            if (tail - cachedHead == slots.length)
+                return false;
+        }
+        
+        slots[(int) tail & mask] = element;
+        counters.lazySet(TAIL, tail + 1);
+        return true;
+    }
+    
+    /**
+     * Add an element, waiting while the buffer is full (producer only).
+     * 
+     * @param element the element added, not null
+     * @throws CancellationException the buffer was cancelled
+     */
+    public void put(E element) {
+        for (int waits = 0; !offer(element); waits++)
+            idle(waits);
+    }
+    
+    /**
+     * Remove the next element, if there is one (consumer only).
+     * 
+     * @return the oldest element, or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long head = counters.get(HEAD);
+        
+        if (head == cachedTail) {
+            cachedTail = counters.get(TAIL);
+            
+            if (head == cachedTail)
+                return null;
+        }
+        
+        int slot = (int) head & mask;
+        E element = (E) slots[slot];
+        slots[slot] = null;
+        counters.lazySet(HEAD, head + 1);
+        return element;
+    }
+    
+    /**
+     * Remove the next element, waiting while the buffer is empty
+     * (consumer only).
+     * 
+     * @return the oldest element, or null if the buffer is closed and empty
+     * @throws CancellationException the buffer was cancelled
+     */
+    public E take() {
+        for (int waits = 0; ; waits++) {
+            // read closed before polling, so an element put before close() is seen
+            boolean wasClosed = closed;
+            E element = poll();
+            
+            if (element != null)
+                return element;
+            
+            if (wasClosed)
+                return null;
+            
+            idle(waits);
+        }
+    }
+    
+    /**
+     * Mark the end of the elements (producer only).
+     */
+    public void close() {
+        closed = true;
+    }
+    
+    /**
+     * Abandon the buffer, failing both sides' waits.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Wait a little longer each time one side finds no progress.
+     */
+    private void idle(int waits) {
+        if (cancelled)
+            throw new CancellationException("ring buffer cancelled");
+        
+        if (waits < SPINS)
+            return;
+        else if (waits < SPINS + YIELDS)
+            Thread.yield();
+        else
+            LockSupport.parkNanos(PARK_NANOS);
+    }
+}
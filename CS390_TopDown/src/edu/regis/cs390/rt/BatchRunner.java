@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.rt;
+
+import edu.regis.cs390.vm.BytecodeProgram;
+import java.io.IOException;
+
+/**
+ * Runs one compiled program over a stream of input records: the program
+ * is run again and again, each run reading the next values of the input,
+ * until the input is exhausted.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class BatchRunner {
+    /**
+     * The program run for each record.
+     */
+    private final Executable program;
+    
+    /**
+     * Initialize a runner for the given program.
+     * 
+     * @param program a program from BytecodeCompiler or JvmCompiler
+     */
+    public BatchRunner(Executable program) {
+        this.program = program;
+    }
+    
+    /**
+     * Run the program once per input record, then flush the output.
+     * A program that reads nothing is run once. A bytecode program
+     * reuses one register array for every run.
+     * 
+     * @param io the input records and the output of every run
+     * @return the number of runs
+     * @throws IOException the input or output failed, or the input ended
+     *         part way through a record
+     */
+    public long run(BufferedIO io) throws IOException {
+        BytecodeProgram bytecode = program instanceof BytecodeProgram ? 
+                (BytecodeProgram) program : null;
+        int[] regs = bytecode != null ? new int[bytecode.getRegisterCount()] : null;
+        long runs = 0;
+        
+        try {
+            long before;
+            
+            do {
+                before = io.getReadCount();
+                
+                if (bytecode != null)
+                    bytecode.run(io, regs);
+                else
+                    program.run(io);
+                
+                runs++;
+            } while (io.getReadCount() != before && io.hasMoreInput());
+        } finally {
+            io.flush();
+        }
+        
+        return runs;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.rt;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * CalcIO that parses ints straight from input bytes and formats output
+ * into a reusable byte buffer, so no String is allocated per value.
+ * 
+ * Input values are whitespace separated decimal ints (ASCII), read from an
+ * InputStream or a ByteBuffer. Each value written is followed by a newline;
+ * output is written to the OutputStream when the buffer fills, or on flush().
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class BufferedIO implements CalcIO {
+    /**
+     * The default size of the input and output buffers.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * The longest value written: "-2147483648\n".
+     */
+    private static final int MAX_VALUE_SIZE = 12;
+    
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e', '\n'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e', '\n'};
+    
+    /**
+     * The input stream, or null if the input is a ByteBuffer.
+     */
+    private final InputStream in;
+    
+    /**
+     * The input bytes not read yet are in[inPos, inLimit).
+     */
+    private final ByteBuffer source;
+    private byte[] inBuf;
+    private int inPos;
+    private int inLimit;
+    
+    /**
+     * The number of values read so far.
+     */
+    private long readCount;
+    
+    private final OutputStream out;
+    private final byte[] outBuf;
+    private int outSize;
+    
+    /**
+     * Initialize I/O on the given streams, with the default buffer size.
+     * 
+     * @param in the program's input
+     * @param out the program's output
+     */
+    public BufferedIO(InputStream in, OutputStream out) {
+        this(in, out, DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Initialize I/O on the given streams.
+     * 
+     * @param in the program's input
+     * @param out the program's output
+     * @param bufferSize the size of the input and output buffers
+     */
+    public BufferedIO(InputStream in, OutputStream out, int bufferSize) {
+        this.in = in;
+        this.source = null;
+        this.inBuf = new byte[bufferSize];
+        this.out = out;
+        this.outBuf = new byte[Math.max(bufferSize, MAX_VALUE_SIZE)];
+    }
+    
+    /**
+     * Initialize I/O reading the remaining bytes of the given buffer. A heap
+     * buffer is parsed in place, a direct buffer is copied in chunks.
+     * 
+     * @param input the program's input
+     * @param out the program's output
+     */
+    public BufferedIO(ByteBuffer input, OutputStream out) {
+        this.in = null;
+        this.out = out;
+        this.outBuf = new byte[DEFAULT_BUFFER_SIZE];
+        
+        if (input.hasArray()) {
+            this.source = null;
+            this.inBuf = input.array();
+            this.inPos = input.arrayOffset() + input.position();
+            this.inLimit = input.arrayOffset() + input.limit();
+        } else {
+            this.source = input;
+            this.inBuf = new byte[DEFAULT_BUFFER_SIZE];
+        }
+    }
+    
+    @Override
+    public int readInt() throws IOException {
+        if (!skipWhitespace())
+            throw new EOFException("read past the end of input");
+        
+        boolean negative = inBuf[inPos] == '-';
+        
+        if (negative)
+            inPos++;
+        
+        // accumulate negatively, so Integer.MIN_VALUE can be read
+        int value = 0;
+        int digits = 0;
+        
+        while (inPos < inLimit || fill()) {
+            int digit = inBuf[inPos] - '0';
+            
+            if (digit < 0 || digit > 9)
+                break;
+            
+            if (value < -214748364 || (value == -214748364 && digit > (negative ? 8 : 7)))
+                throw new IOException("input int is out of range");
+            
+            value = value * 10 - digit;
+            digits++;
+            inPos++;
+        }
+        
+        if (digits == 0 || (inPos < inLimit && inBuf[inPos] > ' '))
+            throw new IOException("input isn't an int");
+        
+        readCount++;
+        return negative ? value : -value;
+    }
+    
+    @Override
+    public void writeInt(int value) throws IOException {
+        if (outSize + MAX_VALUE_SIZE > outBuf.length)
+            flushBuffer();
+        
+        if (value < 0) {
+            outBuf[outSize++] = '-';
+        } else {
+            value = -value;
+        }
+        
+        // value <= 0 here; write its digits backwards after counting them
+        int length = 1;
+        
+        for (int rest = value / 10; rest != 0; rest /= 10)
+            length++;
+        
+        int pos = outSize + length;
+        
+        do {
+            outBuf[--pos] = (byte) ('0' - value % 10);
+            value /= 10;
+        } while (value != 0);
+        
+        outSize += length;
+        outBuf[outSize++] = '\n';
+    }
+    
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        byte[] text = value ? TRUE : FALSE;
+        
+        if (outSize + text.length > outBuf.length)
+            flushBuffer();
+        
+        System.arraycopy(text, 0, outBuf, outSize, text.length);
+        outSize += text.length;
+    }
+    
+    /**
+     * Return true, if there's another value to read.
+     * 
+     * @return false, if only whitespace remains
+     * @throws IOException the input failed
+     */
+    public boolean hasMoreInput() throws IOException {
+        return skipWhitespace();
+    }
+    
+    /**
+     * Return the number of values read so far.
+     * 
+     * @return the number of successful readInt() calls
+     */
+    public long getReadCount() {
+        return readCount;
+    }
+    
+    /**
+     * Write the buffered output and flush the output stream.
+     * 
+     * @throws IOException the output failed
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+    
+    /**
+     * Skip whitespace, returning false at the end of input.
+     */
+    private boolean skipWhitespace() throws IOException {
+        while (inPos < inLimit || fill()) {
+            if (inBuf[inPos] > ' ')
+                return true;
+            
+            inPos++;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Refill the input buffer, returning false at the end of input.
+     */
+    private boolean fill() throws IOException {
+        int count;
+        
+        if (in != null) {
+            count = in.read(inBuf, 0, inBuf.length);
+        } else if (source != null && source.hasRemaining()) {
+            count = Math.min(source.remaining(), inBuf.length);
+            source.get(inBuf, 0, count);
+        } else {
+            count = -1;
+        }
+        
+        if (count <= 0) 
+            return false;
+        
+        inPos = 0;
+        inLimit = count;
+        return true;
+    }
+    
+    private void flushBuffer() throws IOException {
+        out.write(outBuf, 0, outSize);
+        outSize = 0;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.rt;
+
+import java.io.IOException;
+
+/**
+ * The input and output of an executing calculator program: "read id"
+ * reads an int, and "write expr" writes an int or boolean.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public interface CalcIO {
+    /**
+     * Read the next int from the program's input.
+     * 
+     * @return the value read
+     * @throws IOException the input is exhausted or malformed
+     */
+    int readInt() throws IOException;
+    
+    /**
+     * Write an int to the program's output.
+     * 
+     * @param value the value written
+     * @throws IOException an unexpected non-recoverable error occurred
+     */
+    void writeInt(int value) throws IOException;
+    
+    /**
+     * Write a boolean to the program's output.
+     * 
+     * @param value the value written
+     * @throws IOException an unexpected non-recoverable error occurred
+     */
+    void writeBoolean(boolean value) throws IOException;
+}
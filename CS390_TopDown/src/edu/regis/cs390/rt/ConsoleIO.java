@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.rt;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.StringTokenizer;
+
+/**
+ * CalcIO on System.in and System.out, reading whitespace separated ints.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class ConsoleIO implements CalcIO {
+    /**
+     * Reads the input a line at a time.
+     */
+    private final BufferedReader in = 
+            new BufferedReader(new InputStreamReader(System.in));
+    
+    /**
+     * The program's output.
+     */
+    private final PrintStream out = System.out;
+    
+    /**
+     * The remaining values of the current input line.
+     */
+    private StringTokenizer values = new StringTokenizer("");
+    
+    @Override
+    public int readInt() throws IOException {
+        while (!values.hasMoreTokens()) {
+            String line = in.readLine();
+            
+            if (line == null)
+                throw new EOFException("read past the end of input");
+            
+            values = new StringTokenizer(line);
+        }
+        
+        try {
+            return Integer.parseInt(values.nextToken());
+        } catch (NumberFormatException e) {
+            throw new IOException("input isn't an int: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void writeInt(int value) {
+        out.println(value);
+    }
+    
+    @Override
+    public void writeBoolean(boolean value) {
+        out.println(value);
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.rt;
+
+import java.io.IOException;
+
+/**
+ * A compiled calculator program, which can be run any number of times.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public interface Executable {
+    /**
+     * Run the program once, with all variables initially 0 (false).
+     * 
+     * @param io the program's input and output
+     * @throws IOException the program's input or output failed
+     */
+    void run(CalcIO io) throws IOException;
+}
@@ -5,12 +5,18 @@
  */
 package edu.regis.cs390.scan;
 
+import edu.regis.cs390.limits.CompileLimits;
+import edu.regis.cs390.limits.LimitExceededException;
+import edu.regis.cs390.metrics.CompilerMetrics;
+import edu.regis.cs390.tok.SymbolInterner;
 import edu.regis.cs390.tok.Token;
+import edu.regis.cs390.tok.TokenSource;
 import edu.regis.cs390.tok.TokenType;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PushbackReader;
+import java.io.Reader;
 import java.util.ArrayList;
 
 /**
@@ -19,7 +25,7 @@ import java.util.ArrayList;
  * 
  * @author Rickb
  */
-public class Scanner {
+public class Scanner implements TokenSource, Closeable {
     /**
      * True, if line breaks in the source file are defined with a carriage
      * return line feed sequence (i.e. Windows), false if a single CR
@@ -28,25 +34,40 @@ public class Scanner {
     private static final boolean CR_LF = true;
 
     /**
-     * Maximum number of characters allowed in one source file line.
+     * Number of characters read from a Reader at once.
      */
-    private static final int MAX_LINE_SIZE = 256;
+    private static final int READ_BUFFER_SIZE = 8192;
     
     /**
      * The input source program's file path 
      */
-    private final String sourceFile;
+    private String sourceFile;
     
     /**
-     * Used to read the source file a char at a time (with peek ahead).
+     * The source, when it's read a buffer at a time, or null when the whole
+     * source is in text.
      */
-    private final PushbackReader buffer;
+    private Reader reader;
+    
+    /**
+     * The source characters not read yet are text[pos, limit). When
+     * reading a Reader this is readBuffer, otherwise the caller's text.
+     */
+    private char[] text;
+    private int pos;
+    private int limit;
+    
+    /**
+     * The buffer a Reader is read into, kept for the next reset().
+     */
+    private char[] readBuffer;
 
     /**
      * The current lexeme being read from the source file buffer.
-     * (from 0 to endPos)
+     * (from 0 to endPos), with room for the longest lexeme allowed and
+     * the delimiter read after it.
      */
-    private final char[] lexeme;
+    private char[] lexeme;
 
     /**
      * Current position of the last character in the lexeme being read.
@@ -64,29 +85,194 @@ public class Scanner {
     private int lineNo = 0;
     
     /**
-     * Initialize this Scanner.
+     * The line number (from 0) on which the token being scanned started.
+     */
+    private int tokenLineNo;
+    
+    /**
+     * Assigns symbol IDs to the identifiers scanned in this compilation.
+     */
+    private SymbolInterner symbols;
+    
+    /**
+     * The number of tokens returned by next(), not counting EOF.
+     */
+    private int tokenCount;
+    
+    /**
+     * The limits checked while scanning, and the System.nanoTime() after
+     * which scanning stops (see CompileLimits).
+     */
+    private CompileLimits limits = CompileLimits.DEFAULT;
+    private long deadline = Long.MAX_VALUE;
+    
+    /**
+     * The token count at which the limits are next checked.
+     */
+    private int nextCheck;
+    
+    /**
+     * With CompilerMetrics enabled, the characters read and the longest
+     * lexeme since this Scanner last published, and the tokens it has
+     * published for the current source.
+     */
+    private long charCount;
+    private int maxLexeme;
+    private int publishedTokens;
+    
+    /**
+     * Initialize this Scanner with its own symbol interner.
      * 
      * @param path source file (e.g. "C:/Users/Rickb/Documents/Prog.txt")
      * @throws IOException an unexpected non-recoverable error
      */
     public Scanner(String path) throws IOException {
-        sourceFile = path;
+        this(path, new SymbolInterner());
+    }
+    
+    /**
+     * Initialize this Scanner, interning identifiers with the given interner.
+     * 
+     * @param path source file (e.g. "C:/Users/Rickb/Documents/Prog.txt")
+     * @param symbols the interner for this compilation's identifiers
+     * @throws IOException an unexpected non-recoverable error
+     */
+    public Scanner(String path, SymbolInterner symbols) throws IOException {
+        this(new BufferedReader(new FileReader(path)), path, symbols);
+    }
+    
+    /**
+     * Initialize this Scanner on source text that is already open, e.g. a
+     * file read into memory by a batch driver.
+     * 
+     * @param source the source program's text
+     * @param name the source's name, used in messages (e.g. its path)
+     * @param symbols the interner for this compilation's identifiers
+     */
+    public Scanner(Reader source, String name, SymbolInterner symbols) {
+        lexeme = new char[limits.getMaxLexemeLength() + 1];
+        readBuffer = new char[READ_BUFFER_SIZE];
         
-        lexeme = new char[MAX_LINE_SIZE];
+        start(source, readBuffer, 0, name, symbols);
+    }
+    
+    /**
+     * Initialize this Scanner on source text held in memory, which is
+     * scanned in place.
+     * 
+     * @param text the source program's text is text[0, length)
+     * @param length the number of characters of source text
+     * @param name the source's name, used in messages (e.g. its path)
+     * @param symbols the interner for this compilation's identifiers
+     */
+    public Scanner(char[] text, int length, String name, SymbolInterner symbols) {
+        lexeme = new char[limits.getMaxLexemeLength() + 1];
         
-        buffer = new PushbackReader(new BufferedReader(new FileReader(path)));
+        start(null, text, length, name, symbols);
+    }
+    
+    /**
+     * Start scanning another source, keeping this Scanner's buffers. The
+     * previous source isn't closed.
+     * 
+     * @param source the source program's text
+     * @param name the source's name, used in messages (e.g. its path)
+     * @param symbols the interner for this compilation's identifiers
+     */
+    public void reset(Reader source, String name, SymbolInterner symbols) {
+        if (readBuffer == null)
+            readBuffer = new char[READ_BUFFER_SIZE];
+        
+        start(source, readBuffer, 0, name, symbols);
+    }
+    
+    /**
+     * Start scanning source text held in memory, keeping this Scanner's
+     * buffers. The previous source isn't closed.
+     * 
+     * @param text the source program's text is text[0, length)
+     * @param length the number of characters of source text
+     * @param name the source's name, used in messages (e.g. its path)
+     * @param symbols the interner for this compilation's identifiers
+     */
+    public void reset(char[] text, int length, String name, SymbolInterner symbols) {
+        start(null, text, length, name, symbols);
+    }
+    
+    private void start(Reader source, char[] text, int length, 
+                       String name, SymbolInterner symbols) {
+        if (CompilerMetrics.ENABLED) {
+            publishMetrics();
+            publishedTokens = 0;
+            charCount = length;
+        }
+        
+        sourceFile = name;
+        this.symbols = symbols;
+        reader = source;
+        this.text = text;
+        pos = 0;
+        limit = length;
+        
+        endPos = 0;
+        isLexeme = false;
+        lineNo = 0;
+        tokenLineNo = 0;
+        tokenCount = 0;
+        scheduleCheck();
+    }
+    
+    /**
+     * Set the limits checked while scanning, which are kept by reset().
+     * 
+     * @param limits the token count and lexeme length limits
+     * @param deadline the System.nanoTime() after which scanning stops, 
+     *        or Long.MAX_VALUE (see CompileLimits.deadline())
+     */
+    public void setLimits(CompileLimits limits, long deadline) {
+        this.limits = limits;
+        this.deadline = deadline;
+        
+        if (lexeme.length != limits.getMaxLexemeLength() + 1)
+            lexeme = new char[limits.getMaxLexemeLength() + 1];
+        
+        scheduleCheck();
     }
     
     /**
      * Return the next Token in the input source file
      * 
-     * @return a Token with TokenType and Lexeme
+     * @return a Token with TokenType, Lexeme, and line
      * @throws IOException an unexpected non-recoverable error occurred
      */
+    @Override
     public Token next() throws IOException {
+        Token token = scan();
+        
+        token.line = tokenLineNo + 1;
+        
+        if (token.type != TokenType.EOF) {
+            if (++tokenCount >= nextCheck)
+                checkLimits();
+        } else if (CompilerMetrics.ENABLED)
+            publishMetrics();
+        
+        return token;
+    }
+    
+    /**
+     * Scan and return the next Token in the input source file
+     * 
+     * @return a Token with TokenType and Lexeme
+     * @throws IOException an unexpected non-recoverable error occurred
+     */
+    private Token scan() throws IOException {
         isLexeme = false;
         
         while (true) {
+            if (!isLexeme)
+                tokenLineNo = lineNo;
+            
             char ch = nextChar();
                 
             switch (ch) {
@@ -105,15 +291,22 @@ public class Scanner {
                 case '\t':
                     if (isLexeme)
                         return scanLexeme();
-                    else 
-                        return next();
+                    
+                    // skip it here rather than recurse, so a long run of
+                    // blanks can't overflow the stack
+                    break;
                     
                 case ':':
                     return scanColon();
                     
+                case '/':
+                    if (!isLexeme && scanComment())
+                        break;
+                    
+                    return scanSingleCharToken(ch);
+                    
                 case '=': // single char tokens
                 case '*':
-                case '/':
                 case '+':
                 case '-':
                 case '(':
@@ -128,6 +321,26 @@ public class Scanner {
         }
     }
     
+    /**
+     * Check the token count and wall time limits, and schedule the next
+     * check (the clock is read once every CHECK_INTERVAL tokens).
+     * 
+     * @throws LimitExceededException a limit was exceeded
+     */
+    private void checkLimits() {
+        if (tokenCount > limits.getMaxTokens())
+            throw new LimitExceededException(
+                    "more than " + limits.getMaxTokens() + " tokens", tokenLineNo + 1);
+        
+        limits.checkDeadline(deadline, tokenLineNo + 1);
+        scheduleCheck();
+    }
+    
+    private void scheduleCheck() {
+        nextCheck = (int) Math.min((long) tokenCount + CompileLimits.CHECK_INTERVAL,
+                                   (long) limits.getMaxTokens() + 1);
+    }
+    
     /**
      * Return the current line number being read in the source file. 
      * 
@@ -136,6 +349,38 @@ public class Scanner {
     public int getLineNo() {
         return lineNo;
     }    
+    
+    /**
+     * Return the interner holding the identifiers scanned so far.
+     * 
+     * @return this compilation's symbol interner
+     */
+    public SymbolInterner getSymbols() {
+        return symbols;
+    }
+    
+    /**
+     * Return the number of tokens scanned so far.
+     * 
+     * @return the number of tokens returned by next(), not counting EOF
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+    
+    /**
+     * Close the source file.
+     * 
+     * @throws IOException an unexpected non-recoverable error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        if (CompilerMetrics.ENABLED)
+            publishMetrics();
+        
+        if (reader != null)
+            reader.close();
+    }
 
   
     /**
@@ -144,7 +389,7 @@ public class Scanner {
      * @return the next char or '\0', if EOR 
      */
     private char nextChar() throws IOException {
-        int ch = buffer.read();
+        int ch = pos < limit || fill() ? text[pos++] : -1;
         
         switch (ch) {
             case '\n':            // ASCII Line feed, LF or
@@ -165,51 +410,163 @@ public class Scanner {
                 return '\0';         // we're at EOF
               
             default:
+                if (endPos == lexeme.length)
+                    throw new LimitExceededException("lexeme longer than " + 
+                            limits.getMaxLexemeLength() + " characters", lineNo + 1);
+                
                 lexeme[endPos++] = (char) ch;
                 return (char) ch;
         } 
     }
     
+    /**
+     * As a '/' has been read outside a lexeme, skip the rest of a "//" or
+     * "/*" comment, if one starts here.
+     * 
+     * @return true, if a comment was skipped
+     */
+    private boolean scanComment() throws IOException {
+        int next = pos < limit || fill() ? text[pos] : -1;
+        
+        if (next == '/') {
+            scanDoubleSlash();
+        } else if (next == '*') {
+            scanSlashStar();
+        } else {
+            return false;
+        }
+        
+        endPos = 0;
+        return true;
+    }
+    
+    /**
+     * Read the next block of a Reader source into the read buffer.
+     * 
+     * @return false at the end of the source
+     */
+    private boolean fill() throws IOException {
+        if (reader == null)
+            return false;
+        
+        int count = reader.read(readBuffer, 0, readBuffer.length);
+        
+        if (count <= 0)
+            return false;
+        
+        pos = 0;
+        limit = count;
+        
+        if (CompilerMetrics.ENABLED)
+            charCount += count;
+        
+        return true;
+    }
+    
+    /**
+     * Add the tokens, characters and longest lexeme since the last call
+     * to the CompilerMetrics.
+     */
+    private void publishMetrics() {
+        if (tokenCount == publishedTokens && charCount == 0 && maxLexeme == 0)
+            return;
+        
+        CompilerMetrics.get().scanned(tokenCount - publishedTokens, charCount, maxLexeme);
+        publishedTokens = tokenCount;
+        charCount = 0;
+        maxLexeme = 0;
+    }
+    
     /**
      * As a delimiter was encountered during scanning, determine
      * and return the Token for the current lexeme.
      * 
+     * Keywords and numbers are recognized directly in the lexeme buffer,
+     * and identifiers are interned from it, so a previously seen
+     * identifier doesn't allocate a new String.
+     * 
      * @return a Token encapsulating the current lexeme 
      */
     private Token scanLexeme() {
-        String lexemeStr = String.copyValueOf(lexeme, 0, endPos);
+        int length = endPos;
+        
+        if (CompilerMetrics.ENABLED && length > maxLexeme)
+            maxLexeme = length;
         
         endPos = 0;
         isLexeme = false;
         
-        if (lexemeStr.equalsIgnoreCase("READ")) {
-            return new Token(lexemeStr, TokenType.READ);
+        if (isKeyword("READ", length)) {
+            return new Token(String.copyValueOf(lexeme, 0, length), TokenType.READ);
            
-        } else if (lexemeStr.equalsIgnoreCase("WRITE")) {
-            return new Token(lexemeStr, TokenType.WRITE);
+        } else if (isKeyword("WRITE", length)) {
+            return new Token(String.copyValueOf(lexeme, 0, length), TokenType.WRITE);
 
-        } else if (lexemeStr.equalsIgnoreCase("TRUE")) {
-            return new Token(lexemeStr, TokenType.TRUE);
+        } else if (isKeyword("TRUE", length)) {
+            return new Token(String.copyValueOf(lexeme, 0, length), TokenType.TRUE);
         
-        } else if (lexemeStr.equalsIgnoreCase("FALSE")) {
-            return new Token(lexemeStr, TokenType.FALSE);
+        } else if (isKeyword("FALSE", length)) {
+            return new Token(String.copyValueOf(lexeme, 0, length), TokenType.FALSE);
         
-        } else if (lexemeStr.equalsIgnoreCase("BOOL")) {
-            return new Token(lexemeStr, TokenType.BOOLEAN);
+        } else if (isKeyword("BOOL", length)) {
+            return new Token(String.copyValueOf(lexeme, 0, length), TokenType.BOOLEAN);
         
-        } else if (lexemeStr.equalsIgnoreCase("INT")) {
-            return new Token(lexemeStr, TokenType.INTEGER);
+        } else if (isKeyword("INT", length)) {
+            return new Token(String.copyValueOf(lexeme, 0, length), TokenType.INTEGER);
         
-        } else {
-            try {
-                Integer.parseInt(lexemeStr); // is lexeme a number?
-                
-                return new Token(lexemeStr, TokenType.NUMBER);
+        } else if (isNumber(length)) {
+            return new Token(String.copyValueOf(lexeme, 0, length), TokenType.NUMBER);
                 
-            } catch (NumberFormatException e) { // no, it's an ID
-                return new Token(lexemeStr, TokenType.ID);
-            }
+        } else { // it's an ID
+            int symbol = symbols.intern(lexeme, 0, length);
+            
+            return new Token(symbols.name(symbol), TokenType.ID, symbol);
+        }
+    }
+    
+    /**
+     * Return true, if the current lexeme is the given (upper case) keyword,
+     * ignoring case.
+     * 
+     * @param keyword an upper case keyword (e.g. "READ")
+     * @param length the number of characters in the current lexeme
+     */
+    private boolean isKeyword(String keyword, int length) {
+        if (keyword.length() != length)
+            return false;
+        
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase(lexeme[i]) != keyword.charAt(i))
+                return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Return true, if the current lexeme is an unsigned int literal.
+     * 
+     * @param length the number of characters in the current lexeme
+     */
+    private boolean isNumber(int length) {
+        if (length == 0)
+            return false;
+        
+        long value = 0;
+        
+        for (int i = 0; i < length; i++) {
+            char ch = lexeme[i];
+            
+            if (ch < '0' || ch > '9')
+                return false;
+            
+            value = value * 10 + (ch - '0');
+            
+            if (value > Integer.MAX_VALUE) // too big, so it's an ID
+                return false;
         }
+        
+        return true;
     }
     
     /**
@@ -222,7 +579,7 @@ public class Scanner {
      */
     private Token scanSingleCharToken(char ch) throws IOException {
         if (isLexeme) {              // Middle of reading another token
-            buffer.unread((int) ch);
+            pos--;                   // read ch again next time
             endPos--;
             return scanLexeme();
                     
@@ -290,17 +647,13 @@ public class Scanner {
      * @throws IOException 
      */
     private void scanDoubleSlash() throws IOException {
+        int commentLine = lineNo;
+        char ch;
         
-        char nextCharacter = nextChar();
-        int tempLine = lineNo;
-        int tempEndPos = endPos;
-        endPos = tempEndPos;
-        
-        while (nextCharacter != '\0' && tempLine == lineNo)
-        {
-            nextCharacter = nextChar();
-            endPos = tempEndPos;
-        }
+        do {
+            ch = nextChar();
+            endPos = 0;
+        } while (ch != '\0' && lineNo == commentLine);
     }
     
     /**
@@ -311,18 +664,17 @@ public class Scanner {
      * @throws IOException 
      */
     private void scanSlashStar() throws IOException {
+        nextChar();  // the '*' of "/*", which can't also start its "*/"
+        char previous = '\0';
+        char ch = nextChar();
         
-        char firstChar = nextChar();
-        char secondChar = nextChar();
-
-        int tempEndPos = endPos;
-        endPos = tempEndPos;
-        
-        while (firstChar != '*' && secondChar != '/' && firstChar != '\0' && secondChar != '\0') {
-            firstChar = secondChar;
-            secondChar = nextChar();
-            endPos = tempEndPos;
+        while (ch != '\0' && !(previous == '*' && ch == '/')) {
+            previous = ch;
+            ch = nextChar();
+            endPos = 0;
         }
+        
+        endPos = 0;
     }
     
     /** 
@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.shard;
+
+import edu.regis.cs390.CS390_TopDown;
+import edu.regis.cs390.daemon.Protocol;
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.driver.CompileResult;
+import edu.regis.cs390.driver.Phase;
+import edu.regis.cs390.limits.CompileLimits;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles a corpus of files on worker JVM processes (see ShardWorker),
+ * so no one heap has to hold every file being compiled.
+ *
+ * The files are sharded across the workers largest first, each going to
+ * the worker with the fewest bytes assigned so far. A worker that runs out
+ * of files takes the smallest remaining files of the worker with the most
+ * bytes left. Each worker is sent a file only as it finishes earlier ones
+ * (at most WINDOW at a time), and streams back compact results over its
+ * stdout.
+ *
+ * A worker that exits (e.g. on an OutOfMemoryError) or sends a bad result
+ * is restarted and its unfinished files are sent again. A file that was
+ * being compiled when MAX_ATTEMPTS workers died gets a WORKER_FAILED
+ * error instead, so one bad file can't stop the rest. Each worker is
+ * restarted at most MAX_RESTARTS times for other failures; a worker out
+ * of restarts leaves its files for the other workers.
+ *
+ * The results are returned in the order of the given files, whichever
+ * worker compiled them, so the merged output is the same on every run.
+ *
+ * @author CS390_TopDown contributors
+ */
+public class ShardCoordinator {
+    /**
+     * The most files sent to a worker and not yet answered.
+     */
+    private static final int WINDOW = 2;
+
+    /**
+     * The most times each worker is restarted after failing other than on
+     * a file given up on.
+     */
+    public static final int MAX_RESTARTS = 3;
+
+    /**
+     * The number of worker deaths while compiling a file before it's
+     * given up on.
+     */
+    public static final int MAX_ATTEMPTS = 2;
+
+    private final int workers;
+    private final Phase phase;
+    private final CompileLimits limits;
+
+    /**
+     * Each worker's -Xmx value (e.g. "512m"), or null for the JVM default.
+     */
+    private final String workerHeap;
+
+    /**
+     * The files being compiled, their sizes, their results (null until
+     * compiled), and the worker deaths while compiling each one.
+     */
+    private Path[] files;
+    private long[] sizes;
+    private CompileResult[] results;
+    private int[] attempts;
+
+    /**
+     * Each worker's files not sent yet (largest first) and their total
+     * size, guarded by this coordinator.
+     */
+    private List<ArrayDeque<Integer>> queues;
+    private long[] queuedBytes;
+
+    /**
+     * Each worker's failures counted against MAX_RESTARTS.
+     */
+    private int[] failures;
+
+    private final AtomicInteger restarts = new AtomicInteger();
+
+    /**
+     * Initialize a coordinator of the given number of workers.
+     *
+     * @param workers the number of worker processes
+     * @param phase the last phase run on each file
+     * @param limits the limits each file is compiled within
+     * @param workerHeap each worker's maximum heap (e.g. "512m"), or null
+     */
+    public ShardCoordinator(int workers, Phase phase, CompileLimits limits, String workerHeap) {
+        if (workers < 1)
+            throw new IllegalArgumentException("invalid worker count: " + workers);
+
+        this.workers = workers;
+        this.phase = phase;
+        this.limits = new CompileLimits(limits);
+        this.workerHeap = workerHeap;
+    }
+
+    /**
+     * Compile the given files on the workers.
+     *
+     * @param corpus the files to compile
+     * @return the results, in the order of the given files
+     * @throws InterruptedException the calling thread was interrupted
+     */
+    public List<CompileResult> compileAll(List<Path> corpus) throws InterruptedException {
+        int count = corpus.size();
+        files = corpus.toArray(new Path[count]);
+        sizes = new long[count];
+        results = new CompileResult[count];
+        attempts = new int[count];
+        queues = new ArrayList<>(workers);
+        queuedBytes = new long[workers];
+        failures = new int[workers];
+
+        Integer[] order = new Integer[count];
+
+        for (int i = 0; i < count; i++) {
+            sizes[i] = size(files[i]);
+            order[i] = i;
+        }
+
+        for (int w = 0; w < workers; w++)
+            queues.add(new ArrayDeque<>());
+
+        // largest first, each to the least loaded worker (ties in file and
+        // worker order, so the shards are the same on every run)
+        Arrays.sort(order, (a, b) -> sizes[a] != sizes[b] ? Long.compare(sizes[b], sizes[a])
+                                                           : Integer.compare(a, b));
+
+        for (int i : order) {
+            int least = 0;
+
+            for (int w = 1; w < workers; w++) {
+                if (queuedBytes[w] < queuedBytes[least])
+                    least = w;
+            }
+
+            queues.get(least).addLast(i);
+            queuedBytes[least] += sizes[i];
+        }
+
+        Thread[] threads = new Thread[workers];
+
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            threads[w] = new Thread(() -> runWorker(worker), "shard-" + w);
+            threads[w].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        // only left when every worker ran out of restarts
+        for (int i = 0; i < count; i++) {
+            if (results[i] == null)
+                results[i] = failed(i, "no shard worker left to compile it");
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Return the number of workers restarted by the last compileAll().
+     *
+     * @return the restart count
+     */
+    public int getRestarts() {
+        return restarts.get();
+    }
+
+    /**
+     * Run one worker process after another, until there are no files left
+     * or it's failed more than MAX_RESTARTS times.
+     */
+    private void runWorker(int worker) {
+        for (boolean started = false; failures[worker] <= MAX_RESTARTS && hasWork(); started = true) {
+            if (started)
+                restarts.incrementAndGet();
+
+            Process process;
+
+            try {
+                process = start();
+            } catch (IOException e) {
+                System.err.println("shard worker " + worker + " didn't start: " + e);
+                failures[worker]++;
+                continue;
+            }
+
+            if (serve(worker, process))
+                return;
+        }
+    }
+
+    /**
+     * Send files to a worker process and collect its results until there
+     * are no files left.
+     *
+     * @return true, if every file sent was answered
+     */
+    private boolean serve(int worker, Process process) {
+        ArrayDeque<Integer> outstanding = new ArrayDeque<>();
+
+        try (DataOutputStream to = new DataOutputStream(
+                     new BufferedOutputStream(process.getOutputStream()));
+             DataInputStream from = new DataInputStream(
+                     new BufferedInputStream(process.getInputStream()))) {
+
+            while (true) {
+                for (Integer next; outstanding.size() < WINDOW && (next = take(worker)) != null; ) {
+                    outstanding.addLast(next);
+
+                    byte[] request = ShardProtocol.request(next, files[next]);
+                    Protocol.writeFrame(to, request, request.length);
+                }
+
+                if (outstanding.isEmpty())
+                    break;
+
+                byte[] frame = Protocol.readFrame(from);
+
+                if (frame == null)
+                    throw new EOFException("worker exited");
+
+                ShardProtocol.Result result = ShardProtocol.readResult(frame, files);
+
+                if (result.index != outstanding.peekFirst())
+                    throw new IOException("result out of order: " + result.index);
+
+                outstanding.removeFirst();
+                results[result.index] = result.result;
+            }
+
+        } catch (IOException e) {
+            // a worker that sent a bad result may still be running
+            if (!(e instanceof EOFException))
+                process.destroyForcibly();
+
+            int status = stop(process);
+            System.err.println("shard worker " + worker + " failed (" + describe(status, e) + ")");
+
+            returnUnfinished(worker, outstanding, status);
+            return false;
+        }
+
+        // closing its stdin ends the worker
+        stop(process);
+        return true;
+    }
+
+    /**
+     * Start a worker process.
+     */
+    private Process start() throws IOException {
+        ArrayList<String> command = new ArrayList<>();
+
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+
+        if (workerHeap != null)
+            command.add("-Xmx" + workerHeap);
+
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(CS390_TopDown.class.getName());
+        command.add("--shard-worker");
+        command.addAll(ShardWorker.arguments(phase, limits));
+
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Wait for a worker process to exit, killing it if it's still running
+     * a moment after its stdin closed.
+     *
+     * @return its exit status
+     */
+    private static int stop(Process process) {
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS))
+                process.destroyForcibly();
+
+            return process.waitFor();
+
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    /**
+     * Put a failed worker's unanswered files back at the front of its
+     * queue, except the one it was compiling, if that one has now been
+     * attempted MAX_ATTEMPTS times. Otherwise, count the failure against
+     * the worker.
+     */
+    private synchronized void returnUnfinished(int worker, ArrayDeque<Integer> outstanding,
+                                               int status) {
+        Integer suspect = outstanding.peekFirst();
+
+        if (suspect != null && ++attempts[suspect] >= MAX_ATTEMPTS) {
+            outstanding.removeFirst();
+            results[suspect] = failed(suspect, "shard worker failed (" + describe(status, null) +
+                                      ") compiling it " + MAX_ATTEMPTS + " times");
+        } else {
+            failures[worker]++;
+        }
+
+        for (Iterator<Integer> i = outstanding.descendingIterator(); i.hasNext(); ) {
+            int file = i.next();
+            queues.get(worker).addFirst(file);
+            queuedBytes[worker] += sizes[file];
+        }
+    }
+
+    /**
+     * Return true, if any worker has files left.
+     */
+    private synchronized boolean hasWork() {
+        for (ArrayDeque<Integer> queue : queues) {
+            if (!queue.isEmpty())
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Take a worker's next file, or the smallest file of the worker with
+     * the most bytes left, if it has none.
+     *
+     * @return a file index, or null if there are no files left
+     */
+    private synchronized Integer take(int worker) {
+        int from = worker;
+
+        if (queues.get(worker).isEmpty()) {
+            for (int w = 0; w < workers; w++) {
+                if (!queues.get(w).isEmpty() && (queues.get(from).isEmpty() || queuedBytes[w] > queuedBytes[from]))
+                    from = w;
+            }
+
+            if (queues.get(from).isEmpty())
+                return null;
+        }
+
+        ArrayDeque<Integer> queue = queues.get(from);
+        Integer file = from == worker ? queue.pollFirst() : queue.pollLast();
+        queuedBytes[from] -= sizes[file];
+
+        return file;
+    }
+
+    /**
+     * Describe how a worker failed, from its exit status and the error
+     * reading its results (if any).
+     */
+    private static String describe(int status, IOException e) {
+        if (status == ShardWorker.EXIT_OUT_OF_MEMORY)
+            return "out of memory";
+
+        return e instanceof EOFException || e == null ? "exit status " + status
+                                                      : e.getMessage() + ", exit status " + status;
+    }
+
+    private CompileResult failed(int file, String message) {
+        Diagnostic diagnostic = new Diagnostic("WORKER_FAILED", Severity.ERROR,
+                Diagnostic.NO_LINE, null, message);
+
+        return new CompileResult(files[file], sizes[file], 0,
+                                 Collections.singletonList(diagnostic), 0, null);
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.shard;
+
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.Severity;
+import edu.regis.cs390.driver.CompileResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * The messages between a ShardCoordinator and its workers, carried over
+ * the worker's stdin and stdout in the compile daemon's frames (see
+ * Protocol.readFrame()). The coordinator closes the worker's stdin when
+ * it has no more files for it.
+ *
+ * Request payload:
+ *   i4 file index, UTF path.
+ *
+ * Result payload:
+ *   i4 file index, i8 bytes, i4 tokens, i8 elapsed ns, i4 diagnostic
+ *   count, per diagnostic: UTF code, u1 Severity ordinal, i4 line,
+ *   u1 has symbol, UTF symbol (if it has one), UTF message.
+ *
+ * @author CS390_TopDown contributors
+ */
+class ShardProtocol {
+    private static final Severity[] SEVERITIES = Severity.values();
+
+    private ShardProtocol() {
+    }
+
+    /**
+     * A result payload, decoded.
+     */
+    static class Result {
+        final int index;
+        final CompileResult result;
+
+        Result(int index, CompileResult result) {
+            this.index = index;
+            this.result = result;
+        }
+    }
+
+    static byte[] request(int index, Path file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(index);
+        out.writeUTF(file.toString());
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a request payload, returning its file index and setting
+     * file[0] to its path.
+     */
+    static int readRequest(byte[] payload, Path[] file) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int index = in.readInt();
+        file[0] = Paths.get(in.readUTF());
+
+        return index;
+    }
+
+    static byte[] result(int index, CompileResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(index);
+        out.writeLong(result.bytes);
+        out.writeInt(result.tokens);
+        out.writeLong(result.elapsedNanos);
+        out.writeInt(result.diagnostics.size());
+
+        for (Diagnostic diagnostic : result.diagnostics) {
+            out.writeUTF(diagnostic.code);
+            out.writeByte(diagnostic.severity.ordinal());
+            out.writeInt(diagnostic.line);
+            out.writeBoolean(diagnostic.symbol != null);
+
+            if (diagnostic.symbol != null)
+                out.writeUTF(diagnostic.symbol);
+
+            out.writeUTF(diagnostic.message);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a result payload.
+     *
+     * @param payload a result frame's payload
+     * @param files the coordinator's files, by index
+     */
+    static Result readResult(byte[] payload, Path[] files) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int index = in.readInt();
+
+        if (index < 0 || index >= files.length)
+            throw new IOException("result for unknown file " + index);
+
+        long bytes = in.readLong();
+        int tokens = in.readInt();
+        long elapsedNanos = in.readLong();
+        int count = in.readInt();
+        ArrayList<Diagnostic> diagnostics = new ArrayList<>(Math.min(count, 1024));
+
+        for (int i = 0; i < count; i++) {
+            String code = in.readUTF();
+            int ordinal = in.readUnsignedByte();
+
+            if (ordinal >= SEVERITIES.length)
+                throw new IOException("invalid severity: " + ordinal);
+
+            Severity severity = SEVERITIES[ordinal];
+            int line = in.readInt();
+            String symbol = in.readBoolean() ? in.readUTF() : null;
+            String message = in.readUTF();
+
+            diagnostics.add(new Diagnostic(code, severity, line, symbol, message));
+        }
+
+        return new Result(index, new CompileResult(files[index], bytes, tokens, diagnostics,
+                                                   elapsedNanos, null));
+    }
+}
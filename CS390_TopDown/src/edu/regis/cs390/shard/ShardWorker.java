@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.shard;
+
+import edu.regis.cs390.daemon.Protocol;
+import edu.regis.cs390.driver.CompileResult;
+import edu.regis.cs390.driver.Compiler;
+import edu.regis.cs390.driver.Phase;
+import edu.regis.cs390.limits.CompileLimits;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A worker process of a ShardCoordinator: compiles each file requested on
+ * stdin and writes its result to stdout (see ShardProtocol), until stdin
+ * is closed.
+ *
+ * Usage: --shard-worker [--phase scan|parse|semantic] [--max-depth n]
+ *        [--max-lexeme n] [--max-tokens n] [--max-nodes n] [--max-wall-ns n]
+ *
+ * @author CS390_TopDown contributors
+ */
+public class ShardWorker {
+    /**
+     * Exit status when a file ran the worker out of memory.
+     */
+    public static final int EXIT_OUT_OF_MEMORY = 3;
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Serve compile requests on stdin until it's closed.
+     *
+     * @param args the options (see the class comment)
+     * @return the process exit status
+     */
+    public static int run(String[] args) {
+        Phase phase = Phase.SEMANTIC;
+        CompileLimits limits = new CompileLimits();
+
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException(args[i] + " requires a value");
+
+                String value = args[i + 1];
+
+                switch (args[i]) {
+                    case "--phase":
+                        phase = Phase.fromName(value);
+                        break;
+                    case "--max-depth":
+                        limits.setMaxDepth(Integer.parseInt(value));
+                        break;
+                    case "--max-lexeme":
+                        limits.setMaxLexemeLength(Integer.parseInt(value));
+                        break;
+                    case "--max-tokens":
+                        limits.setMaxTokens(Integer.parseInt(value));
+                        break;
+                    case "--max-nodes":
+                        limits.setMaxNodes(Integer.parseInt(value));
+                        break;
+                    case "--max-wall-ns":
+                        limits.setMaxWallNanos(Long.parseLong(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("invalid option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("shard worker: " + e.getMessage());
+            return 2;
+        }
+
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+        // stdout carries the results, so keep anything else printed off it
+        System.setOut(System.err);
+
+        Compiler compiler = Compiler.forCurrentThread();
+        compiler.setLimits(limits);
+        Path[] file = new Path[1];
+
+        try {
+            for (byte[] request; (request = Protocol.readFrame(in)) != null; ) {
+                int index = ShardProtocol.readRequest(request, file);
+                CompileResult result = compiler.compile(file[0], phase);
+
+                byte[] payload = ShardProtocol.result(index, result);
+                Protocol.writeFrame(out, payload, payload.length);
+            }
+
+            return 0;
+
+        } catch (IOException e) {
+            // the coordinator is gone or sent garbage
+            System.err.println("shard worker: " + e);
+            return 1;
+
+        } catch (OutOfMemoryError e) {
+            // exit without a result, so the coordinator restarts this worker
+            System.err.println("shard worker: out of memory compiling " + file[0]);
+            return EXIT_OUT_OF_MEMORY;
+        }
+    }
+
+    /**
+     * Return the worker options that compile through the given phase
+     * within the given limits.
+     *
+     * @param phase the last phase run on each file
+     * @param limits the limits each file is compiled within
+     * @return the options following "--shard-worker"
+     */
+    static List<String> arguments(Phase phase, CompileLimits limits) {
+        ArrayList<String> args = new ArrayList<>();
+
+        add(args, "--phase", phase.name().toLowerCase(Locale.ROOT));
+        add(args, "--max-depth", Integer.toString(limits.getMaxDepth()));
+        add(args, "--max-lexeme", Integer.toString(limits.getMaxLexemeLength()));
+        add(args, "--max-tokens", Integer.toString(limits.getMaxTokens()));
+        add(args, "--max-nodes", Integer.toString(limits.getMaxNodes()));
+
+        if (limits.getMaxWallNanos() != Long.MAX_VALUE)
+            add(args, "--max-wall-ns", Long.toString(limits.getMaxWallNanos()));
+
+        return args;
+    }
+
+    private static void add(List<String> args, String option, String value) {
+        args.add(option);
+        args.add(value);
+    }
+}
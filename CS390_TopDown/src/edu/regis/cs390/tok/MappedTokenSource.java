@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.tok;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The tokens of a memory mapped token cache file (see TokenCache), read
+ * by a cursor over the mapping. The lexeme table is decoded when the
+ * cache is opened; each token then only decodes its record and shares
+ * its lexeme String with every other token of the same lexeme.
+ *
+ * rewind() starts the tokens over, so one mapping can be parsed any
+ * number of times.
+ *
+ * @author CS390_TopDown contributors
+ */
+public class MappedTokenSource implements TokenSource {
+    private static final TokenType[] TYPES = TokenType.values();
+
+    /**
+     * Symbol ID of a lexeme table entry not yet read as an ID.
+     */
+    private static final int UNRESOLVED = -2;
+
+    /**
+     * The cache file's name, for error messages.
+     */
+    private final String name;
+
+    /**
+     * The mapped token records, and the position of the first one.
+     */
+    private final ByteBuffer records;
+    private final int firstRecord;
+
+    /**
+     * The decoded lexeme table, and each entry's symbol ID once it's been
+     * read as an ID.
+     */
+    private final String[] lexemes;
+    private final int[] symbolOf;
+
+    private final SymbolInterner symbols;
+
+    private final String sourcePath;
+    private final long sourceSize;
+    private final long sourceModified;
+    private final int cachedTokens;
+
+    /**
+     * The line of the last token read, the number of tokens read (not
+     * counting EOF), and the EOF token once it's been read.
+     */
+    private int line;
+    private int tokenCount;
+    private Token eof;
+
+    /**
+     * Read the header and lexeme table of a mapped token cache.
+     *
+     * @param buffer the whole cache file
+     * @param symbols interns the cached identifiers
+     * @param name the cache file's name
+     * @throws IOException the buffer doesn't hold a token cache
+     */
+    MappedTokenSource(ByteBuffer buffer, SymbolInterner symbols, String name) throws IOException {
+        this.name = name;
+        this.symbols = symbols;
+
+        if (buffer.remaining() < TokenCache.HEADER_SIZE || buffer.getInt() != TokenCache.MAGIC)
+            throw new IOException(name + " isn't a token cache");
+
+        int version = buffer.getInt();
+
+        if (version != TokenCache.VERSION)
+            throw new IOException(name + " has unsupported token cache version " + version);
+
+        sourceSize = buffer.getLong();
+        sourceModified = buffer.getLong();
+        cachedTokens = buffer.getInt();
+
+        int lexemeCount = buffer.getInt();
+        int tableSize = buffer.getInt();
+        int pathSize = buffer.getInt();
+
+        if (cachedTokens < 0 || lexemeCount < 0 || tableSize < 0 || pathSize < 0
+                || pathSize > TokenCache.MAX_PATH_SIZE
+                || (long) pathSize + tableSize > buffer.remaining())
+            throw new IOException(name + " has an invalid token cache header");
+
+        byte[] path = new byte[pathSize];
+        buffer.get(path);
+        sourcePath = new String(path, StandardCharsets.UTF_8);
+
+        lexemes = new String[lexemeCount];
+        symbolOf = new int[lexemeCount];
+        Arrays.fill(symbolOf, UNRESOLVED);
+
+        ByteBuffer table = buffer.duplicate();
+        table.limit(table.position() + tableSize);
+        byte[] utf8 = new byte[64];
+
+        for (int i = 0; i < lexemeCount; i++) {
+            int length = TokenCache.readVarint(table);
+
+            if (length > table.remaining())
+                throw new IOException(name + " is truncated");
+
+            if (length > utf8.length)
+                utf8 = new byte[Math.max(length, utf8.length * 2)];
+
+            table.get(utf8, 0, length);
+            lexemes[i] = new String(utf8, 0, length, StandardCharsets.UTF_8);
+        }
+
+        buffer.position(buffer.position() + tableSize);
+        records = buffer.slice();
+        firstRecord = records.position();
+    }
+
+    /**
+     * Return the next cached Token.
+     *
+     * @return a Token with TokenType, Lexeme, and line
+     * @throws IOException the cache is truncated or corrupt
+     */
+    @Override
+    public Token next() throws IOException {
+        if (eof != null)
+            return eof;
+
+        if (!records.hasRemaining())
+            throw new IOException(name + " ended without EOF");
+
+        int first = records.get() & 0xff;
+        int ordinal = first & TokenCache.TYPE_MASK;
+        int delta = first >>> TokenCache.TYPE_BITS;
+
+        if (delta == TokenCache.LINE_ESCAPE)
+            delta += TokenCache.readVarint(records);
+
+        int index = TokenCache.readVarint(records);
+
+        if (ordinal >= TYPES.length || index < 0 || index >= lexemes.length)
+            throw new IOException(name + " has an invalid token record");
+
+        TokenType type = TYPES[ordinal];
+        Token token;
+
+        if (type == TokenType.ID) {
+            if (symbolOf[index] == UNRESOLVED)
+                symbolOf[index] = symbols.intern(lexemes[index]);
+
+            token = new Token(lexemes[index], type, symbolOf[index]);
+        } else {
+            token = new Token(lexemes[index], type);
+        }
+
+        line += delta;
+        token.line = line;
+
+        if (type == TokenType.EOF)
+            eof = token;
+        else
+            tokenCount++;
+
+        return token;
+    }
+
+    /**
+     * Start over at the first cached token. Symbol IDs already assigned
+     * are kept, so the interner must not be cleared in between.
+     */
+    public void rewind() {
+        records.position(firstRecord);
+        line = 0;
+        tokenCount = 0;
+        eof = null;
+    }
+
+    /**
+     * Return the number of tokens returned by next() since the cache was
+     * opened or rewound, not counting EOF.
+     *
+     * @return the tokens read so far
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Return the number of tokens in the cache, not counting EOF.
+     *
+     * @return the source's token count
+     */
+    public int getCachedTokenCount() {
+        return cachedTokens;
+    }
+
+    /**
+     * Return the size of the source file the cache was written from.
+     *
+     * @return the source's size, in bytes
+     */
+    public long getSourceSize() {
+        return sourceSize;
+    }
+
+    /**
+     * Return the absolute path of the source file the cache was written from.
+     *
+     * @return the source's path
+     */
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    /**
+     * Return the modified time of the source file the cache was written from.
+     *
+     * @return the source's modified time, in ms
+     */
+    public long getSourceModified() {
+        return sourceModified;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.tok;
+
+import java.util.Arrays;
+
+/**
+ * Maps each distinct identifier of one compilation to a dense int ID
+ * (0, 1, 2, ...), so later phases can compare symbols with == and keep
+ * symbol properties in arrays indexed by ID.
+ *
+ * Lookups are done directly against a char buffer (e.g. the Scanner's
+ * lexeme buffer), so a String is only allocated the first time a name
+ * is seen.
+ *
+ * @author CS390_TopDown contributors
+ */
+public class SymbolInterner {
+    /**
+     * Returned by lookup() when a name hasn't been interned.
+     */
+    public static final int NO_SYMBOL = -1;
+
+    /**
+     * Initial number of symbol slots (and half the initial table size).
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Open addressing hash table holding symbol ID + 1 (0 is an empty slot).
+     */
+    private int[] table;
+
+    /**
+     * The canonical name of each symbol, indexed by symbol ID.
+     */
+    private String[] names;
+
+    /**
+     * The hash of each symbol's name, indexed by symbol ID.
+     */
+    private int[] hashes;
+
+    /**
+     * The number of symbols interned so far, which is also the next ID.
+     */
+    private int size;
+
+    /**
+     * Initialize this interner with no symbols.
+     */
+    public SymbolInterner() {
+        table = new int[INITIAL_CAPACITY * 2];
+        names = new String[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Return the ID of the name held in buf[off, off + len), interning it
+     * if it hasn't been seen before.
+     *
+     * @param buf characters holding the name
+     * @param off index of the name's first character
+     * @param len number of characters in the name
+     * @return the name's symbol ID
+     */
+    public int intern(char[] buf, int off, int len) {
+        int hash = hash(buf, off, len);
+        int mask = table.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+
+            if (entry == 0) {
+                return add(new String(buf, off, len), hash, slot);
+
+            } else if (hashes[entry - 1] == hash &&
+                       matches(names[entry - 1], buf, off, len)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Return the ID of the given name, interning it if necessary.
+     *
+     * @param name an identifier name
+     * @return the name's symbol ID
+     */
+    public int intern(String name) {
+        return intern(name.toCharArray(), 0, name.length());
+    }
+
+    /**
+     * Return the ID of the given name, without interning it.
+     *
+     * @param name an identifier name
+     * @return the name's symbol ID or NO_SYMBOL, if it isn't interned
+     */
+    public int lookup(String name) {
+        char[] buf = name.toCharArray();
+        int hash = hash(buf, 0, buf.length);
+        int mask = table.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+
+            if (entry == 0)
+                return NO_SYMBOL;
+            else if (hashes[entry - 1] == hash && name.equals(names[entry - 1]))
+                return entry - 1;
+        }
+    }
+
+    /**
+     * Return the canonical name of the given symbol.
+     *
+     * @param symbol a symbol ID returned by this interner
+     * @return the symbol's name
+     */
+    public String name(int symbol) {
+        return names[symbol];
+    }
+
+    /**
+     * Return the number of interned symbols, which bounds all symbol IDs.
+     *
+     * @return the number of symbols
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forget every symbol, keeping the tables so the interner can be reused
+     * for another compilation. IDs and names from before are invalid.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(names, 0, size, null);
+        size = 0;
+    }
+    
+    /**
+     * Add a new symbol with the given name and hash at the given empty slot.
+     *
+     * @return the new symbol's ID
+     */
+    private int add(String name, int hash, int slot) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+
+        int symbol = size++;
+        names[symbol] = name;
+        hashes[symbol] = hash;
+        table[slot] = symbol + 1;
+
+        if (size * 2 > table.length)
+            rehash();
+
+        return symbol;
+    }
+
+    /**
+     * Double the hash table size, reinserting every symbol.
+     */
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+
+        for (int symbol = 0; symbol < size; symbol++) {
+            int slot = hashes[symbol] & mask;
+
+            while (table[slot] != 0)
+                slot = (slot + 1) & mask;
+
+            table[slot] = symbol + 1;
+        }
+    }
+
+    /**
+     * Hash the given characters, spreading the bits for power of 2 tables.
+     */
+    private static int hash(char[] buf, int off, int len) {
+        int h = 0;
+
+        for (int i = off; i < off + len; i++)
+            h = 31 * h + buf[i];
+
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Return true, if the given name equals buf[off, off + len).
+     */
+    private static boolean matches(String name, char[] buf, int off, int len) {
+        if (name.length() != len)
+            return false;
+
+        for (int i = 0; i < len; i++) {
+            if (name.charAt(i) != buf[off + i])
+                return false;
+        }
+
+        return true;
+    }
+}
@@ -21,6 +21,17 @@ public class Token {
      */
     public String lexeme;
     
+    /**
+     * This token's symbol ID, if it's an ID, otherwise NO_SYMBOL
+     * (see SymbolInterner)
+     */
+    public int symbol;
+    
+    /**
+     * The 1-based source line this token starts on (set by the Scanner)
+     */
+    public int line;
+    
     /**
      * Instantiate this token with the given lexeme and type
      * 
@@ -28,7 +39,19 @@ public class Token {
      * @param type  the lexeme's type
      */
     public Token (String lexeme, TokenType type) {
+        this(lexeme, type, SymbolInterner.NO_SYMBOL);
+    }
+    
+    /**
+     * Instantiate this token with the given lexeme, type, and symbol ID
+     * 
+     * @param lexeme the lexeme for this token
+     * @param type  the lexeme's type
+     * @param symbol the lexeme's interned symbol ID (see SymbolInterner)
+     */
+    public Token (String lexeme, TokenType type, int symbol) {
         this.lexeme = lexeme;
         this.type = type;
+        this.symbol = symbol;
     }
 }
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.tok;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Writes and opens token cache files: a source file's scanned tokens in
+ * a compact binary form, so the source can be parsed again without
+ * reading or scanning it (see MappedTokenSource).
+ *
+ * A cache file is a header, a table of the distinct lexemes, then one
+ * record per token, EOF included. Integers in the header are big endian;
+ * other integers are unsigned varints (7 bits per byte, low bits first).
+ *
+ *   header:  magic, version (ints), source size, source modified time
+ *            (longs, the time in ms), token count not counting EOF,
+ *            lexeme count, lexeme table size in bytes, source path size
+ *            in bytes (ints), then the source's absolute path in UTF-8
+ *   lexeme:  UTF-8 length, UTF-8 bytes
+ *   token:   a byte holding the TokenType ordinal (low 5 bits) and the
+ *            line - previous token's line (high 3 bits), then a varint of
+ *            the line difference - 7, if it's 7 or more, then the lexeme
+ *            table index
+ *
+ * Most tokens are on the same line as the one before, so a token usually
+ * takes 2 or 3 bytes.
+ *
+ * A cache is only used for the source it was written from: its path is
+ * checked as well as its size and modified time, so two sources whose
+ * cache files share a name can't be compiled from each other's tokens.
+ *
+ * @author CS390_TopDown contributors
+ */
+public class TokenCache {
+    /**
+     * The first 4 bytes of a token cache file ("CS9T").
+     */
+    public static final int MAGIC = 0x43533954;
+
+    /**
+     * The format version written, and the only one opened.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The size of the header before the source path, in bytes.
+     */
+    static final int HEADER_SIZE = 40;
+
+    /**
+     * The longest source path stored, in UTF-8 bytes.
+     */
+    static final int MAX_PATH_SIZE = 65535;
+
+    /**
+     * A token's first byte: its TokenType ordinal is in the low TYPE_BITS,
+     * and a line difference below LINE_ESCAPE is in the rest.
+     */
+    static final int TYPE_BITS = 5;
+    static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    static final int LINE_ESCAPE = 7;
+
+    /**
+     * Scan the given source to EOF, writing its tokens to the given cache
+     * file. The file is written beside the cache and then moved over it,
+     * so a reader never maps a partly written cache.
+     *
+     * @param tokens the source's tokens, e.g. a Scanner just reset to it
+     * @param source the source file
+     * @param sourceSize the source file's size, in bytes
+     * @param sourceModified the source file's last modified time, in ms
+     * @param cache the cache file to (re)write
+     * @return the number of tokens written, not counting EOF
+     * @throws IOException the source couldn't be scanned or the cache written
+     */
+    public static int write(TokenSource tokens, Path source, long sourceSize,
+                            long sourceModified, Path cache) throws IOException {
+        byte[] path = sourcePath(source);
+
+        if (path.length > MAX_PATH_SIZE)
+            throw new IOException("source path too long for a token cache: " + source);
+
+        HashMap<String, Integer> indexes = new HashMap<>();
+        ArrayList<String> lexemes = new ArrayList<>();
+        VarintBuffer records = new VarintBuffer();
+        int count = 0;
+        int line = 0;
+        Token token;
+
+        do {
+            token = tokens.next();
+
+            Integer index = indexes.get(token.lexeme);
+
+            if (index == null) {
+                index = lexemes.size();
+                indexes.put(token.lexeme, index);
+                lexemes.add(token.lexeme);
+            }
+
+            int delta = token.line - line;
+
+            if (delta >= 0 && delta < LINE_ESCAPE) {
+                records.writeByte(token.type.ordinal() | delta << TYPE_BITS);
+            } else {
+                records.writeByte(token.type.ordinal() | LINE_ESCAPE << TYPE_BITS);
+                records.writeVarint(delta - LINE_ESCAPE);
+            }
+
+            records.writeVarint(index);
+            line = token.line;
+
+            if (token.type != TokenType.EOF)
+                count++;
+
+        } while (token.type != TokenType.EOF);
+
+        VarintBuffer table = new VarintBuffer();
+
+        for (String lexeme : lexemes) {
+            byte[] utf8 = lexeme.getBytes(StandardCharsets.UTF_8);
+            table.writeVarint(utf8.length);
+            table.write(utf8, 0, utf8.length);
+        }
+
+        Path parent = cache.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, cache.getFileName().toString(), ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(sourceSize);
+                out.writeLong(sourceModified);
+                out.writeInt(count);
+                out.writeInt(lexemes.size());
+                out.writeInt(table.size);
+                out.writeInt(path.length);
+                out.write(path);
+                out.write(table.bytes, 0, table.size);
+                out.write(records.bytes, 0, records.size);
+            }
+
+            try {
+                Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        return count;
+    }
+
+    /**
+     * Return true, if the given cache file exists and was written from
+     * the given source file's current contents (going by its path, size
+     * and modified time).
+     *
+     * @param cache a token cache file
+     * @param source the source file it was written from
+     * @return true, if the cache can be used instead of scanning the source
+     */
+    public static boolean isCurrent(Path cache, Path source) {
+        if (!Files.isRegularFile(cache))
+            return false;
+
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, HEADER_SIZE);
+
+            if (header == null
+                    || header.getInt() != MAGIC
+                    || header.getInt() != VERSION
+                    || header.getLong() != Files.size(source)
+                    || header.getLong() != Files.getLastModifiedTime(source).toMillis())
+                return false;
+
+            int pathSize = header.getInt(HEADER_SIZE - 4);
+
+            if (pathSize < 0 || pathSize > MAX_PATH_SIZE)
+                return false;
+
+            ByteBuffer path = read(channel, pathSize);
+
+            return path != null && path.equals(ByteBuffer.wrap(sourcePath(source)));
+
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Map the given cache file for reading. Its identifiers are interned
+     * by the given interner as they're read, so their symbol IDs are the
+     * ones a Scanner using the same interner would assign.
+     *
+     * @param cache a token cache file
+     * @param source the source file it must have been written from
+     * @param symbols assigns symbol IDs to the cached identifiers
+     * @return the cached tokens, starting at the first
+     * @throws IOException the cache can't be read, isn't a token cache or
+     *                     was written from another source
+     */
+    public static MappedTokenSource open(Path cache, Path source, SymbolInterner symbols)
+            throws IOException {
+        MappedByteBuffer buffer;
+
+        // the mapping stays valid once the channel is closed
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        MappedTokenSource tokens = new MappedTokenSource(buffer, symbols, cache.toString());
+        String path = new String(sourcePath(source), StandardCharsets.UTF_8);
+
+        if (!tokens.getSourcePath().equals(path))
+            throw new IOException(cache + " was written from " + tokens.getSourcePath());
+
+        return tokens;
+    }
+
+    /**
+     * Return the name of the given source file's cache file: the source's
+     * name and the SHA-256 digest of its absolute path, so sources with
+     * the same name in different directories don't share one.
+     *
+     * @param source a source file
+     * @return the cache file's name (without a directory)
+     */
+    public static String cacheName(Path source) {
+        byte[] digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(sourcePath(source));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every JVM", e);
+        }
+
+        StringBuilder name = new StringBuilder(source.toAbsolutePath().normalize().getFileName() + "-");
+
+        for (byte b : digest)
+            name.append(Character.forDigit(b >> 4 & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+
+        return name.append(".tok").toString();
+    }
+
+    /**
+     * Return the given source file's absolute path, in UTF-8, as it's kept
+     * in a cache's header.
+     */
+    private static byte[] sourcePath(Path source) {
+        return source.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the given number of bytes from a channel.
+     *
+     * @return the bytes, ready to get, or null if the channel ends first
+     */
+    private static ByteBuffer read(FileChannel channel, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+            ;
+
+        if (buffer.hasRemaining())
+            return null;
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Read an unsigned varint.
+     *
+     * @throws IOException the buffer ends in the middle of the varint
+     */
+    static int readVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining())
+                throw new IOException("token cache is truncated");
+
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+
+            if (b >= 0)
+                return value;
+        }
+
+        throw new IOException("token cache has an invalid varint");
+    }
+
+    /**
+     * A growable byte array, written with bytes and unsigned varints.
+     */
+    private static class VarintBuffer {
+        byte[] bytes = new byte[4096];
+        int size;
+
+        void writeByte(int b) {
+            if (size == bytes.length)
+                bytes = Arrays.copyOf(bytes, size * 2);
+
+            bytes[size++] = (byte) b;
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7f) != 0) {
+                writeByte((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+
+            writeByte(value);
+        }
+
+        void write(byte[] b, int off, int len) {
+            if (size + len > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(size + len, size * 2));
+
+            System.arraycopy(b, off, bytes, size, len);
+            size += len;
+        }
+    }
+}
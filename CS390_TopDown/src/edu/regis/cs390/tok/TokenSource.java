@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.tok;
+
+import java.io.IOException;
+
+/**
+ * A stream of Tokens, as consumed by the parser: a Scanner, or a buffer
+ * filled by a Scanner on another thread.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public interface TokenSource {
+    /**
+     * Return the next Token. Once EOF is returned, every later call also
+     * returns an EOF token.
+     * 
+     * @return a Token with TokenType, Lexeme, and line
+     * @throws IOException an unexpected non-recoverable error occurred
+     */
+    Token next() throws IOException;
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.vm;
+
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.parser.TreeNode.PRODUCTION;
+import java.util.Arrays;
+
+/**
+ * Compiles a parse tree into a BytecodeProgram.
+ * 
+ * Each variable gets its own register, and expression temporaries are
+ * allocated above the variables as a stack, so a statement reuses the
+ * registers of the statement before it. The result of an assignment's
+ * last operation is written directly to the variable's register.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class BytecodeCompiler {
+    /**
+     * The instructions emitted so far.
+     */
+    private int[] code = new int[64];
+    
+    /**
+     * The number of ints of code emitted.
+     */
+    private int size;
+    
+    /**
+     * The index of the destination operand of the last instruction, or -1.
+     */
+    private int lastDst;
+    
+    /**
+     * The register of each symbol, or -1 if it hasn't been used yet.
+     */
+    private int[] registers;
+    
+    /**
+     * The number of variable registers.
+     */
+    private int variableCount;
+    
+    /**
+     * The next free temporary register.
+     */
+    private int nextTemp;
+    
+    /**
+     * The highest register used, plus one.
+     */
+    private int registerCount;
+    
+    /**
+     * The types of the program being compiled.
+     */
+    private ProgramTypes types;
+    
+    /**
+     * Compile the given program.
+     * 
+     * @param program the PROGRAM root returned by PredictiveParser.parse()
+     * @return the compiled program
+     * @throws CompileError the program has a statement that can't execute
+     */
+    public BytecodeProgram compile(TreeNode program) throws CompileError {
+        size = 0;
+        lastDst = -1;
+        registers = new int[16];
+        Arrays.fill(registers, -1);
+        variableCount = 0;
+        registerCount = 0;
+        types = new ProgramTypes(program);
+        
+        // variables first, so temporaries can start above them
+        for (TreeNode stmt : ParseTrees.statements(program))
+            allocateVariables(stmt);
+        
+        for (TreeNode stmt : ParseTrees.statements(program))
+            statement(stmt);
+        
+        emit(Opcode.HALT);
+        
+        return new BytecodeProgram(Arrays.copyOf(code, size), 
+                                   Math.max(registerCount, variableCount));
+    }
+    
+    /**
+     * Compile one statement.
+     */
+    private void statement(TreeNode stmt) throws CompileError {
+        TreeNode first = stmt.getChildren().get(0);
+        nextTemp = variableCount;
+        
+        switch (first.type) {
+            case DECLARATION:
+                break;
+                
+            case READ:
+                TreeNode id = ParseTrees.child(stmt, PRODUCTION.ID);
+                emit(types.isBooleanVariable(id.symbol) ? Opcode.READB : Opcode.READ,
+                     registers[id.symbol]);
+                break;
+                
+            case WRITE:
+                TreeNode expr = ParseTrees.child(stmt, PRODUCTION.EXPR);
+                int value = expr(expr);
+                emit(types.isBoolean(expr) ? Opcode.WRITEB : Opcode.WRITE, value);
+                break;
+                
+            default: // ID idTail
+                TreeNode idTail = ParseTrees.child(stmt, PRODUCTION.IDTAIL);
+                TreeNode rhs = ParseTrees.child(idTail, PRODUCTION.EXPR);
+                
+                if (rhs == null)
+                    throw new CompileError("Line " + stmt.firstLine() + 
+                        ": call statement " + first.lexeme + "(...) can't be executed");
+                
+                assign(registers[first.symbol], expr(rhs));
+                break;
+        }
+    }
+    
+    /**
+     * Store the given result register in the given variable register,
+     * retargeting the instruction that computed a temporary result.
+     */
+    private void assign(int variable, int result) {
+        if (result == variable)
+            return;
+        
+        if (result >= variableCount && lastDst >= 0 && code[lastDst] == result)
+            code[lastDst] = variable;
+        else
+            emit(Opcode.MOVE, variable, result);
+    }
+    
+    /**
+     * Compile an EXPR, returning the register holding its value: the
+     * variable's register, or the first free temporary.
+     */
+    private int expr(TreeNode expr) {
+        int top = nextTemp;
+        int result = term(expr.getChildren().get(0));
+        
+        TreeNode tail = expr.getChildren().get(1);
+        
+        for (; !ParseTrees.isEmptyTail(tail); tail = tail.getChildren().get(2)) {
+            int operand = term(tail.getChildren().get(1));
+            int op = operator(tail).equals("+") ? Opcode.ADD : Opcode.SUB;
+            
+            result = binary(op, top, result, operand);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Compile a TERM, returning the register holding its value.
+     */
+    private int term(TreeNode term) {
+        int top = nextTemp;
+        int result = factor(term.getChildren().get(0));
+        
+        TreeNode tail = term.getChildren().get(1);
+        
+        for (; !ParseTrees.isEmptyTail(tail); tail = tail.getChildren().get(2)) {
+            int operand = factor(tail.getChildren().get(1));
+            int op = operator(tail).equals("*") ? Opcode.MUL : Opcode.DIV;
+            
+            result = binary(op, top, result, operand);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Compile a FACTOR, returning the register holding its value.
+     */
+    private int factor(TreeNode factor) {
+        TreeNode first = factor.getChildren().get(0);
+        int top = nextTemp;
+        
+        switch (first.type) {
+            case ID:
+                return registers[first.symbol];
+                
+            case NUMBER:
+                return constant(top, Integer.parseInt(first.lexeme));
+                
+            case TRUE:
+                return constant(top, 1);
+                
+            case FALSE:
+                return constant(top, 0);
+                
+            case NOT:
+                int operand = expr(factor.getChildren().get(1));
+                emit(Opcode.NOT, top, operand);
+                return temp(top);
+                
+            default: // ( expr )
+                return expr(factor.getChildren().get(1));
+        }
+    }
+    
+    /**
+     * Emit a binary operation into the given temporary (the left operand's
+     * register, if it is that temporary), freeing the temporaries above it.
+     */
+    private int binary(int op, int top, int left, int right) {
+        emit(op, top, left, right);
+        return temp(top);
+    }
+    
+    /**
+     * Load a constant into the given temporary.
+     */
+    private int constant(int top, int value) {
+        emit(Opcode.LOADK, top, value);
+        return temp(top);
+    }
+    
+    /**
+     * Mark the given temporary as holding a result, freeing those above it.
+     */
+    private int temp(int top) {
+        nextTemp = top + 1;
+        registerCount = Math.max(registerCount, nextTemp);
+        return top;
+    }
+    
+    /**
+     * Return the operator lexeme of a non-empty tail.
+     */
+    private static String operator(TreeNode tail) {
+        return tail.getChildren().get(0).getChildren().get(0).lexeme;
+    }
+    
+    /**
+     * Assign a register to every variable used by the given statement.
+     */
+    private void allocateVariables(TreeNode node) {
+        if (node.type == PRODUCTION.ID) {
+            if (node.symbol >= registers.length) {
+                int oldLength = registers.length;
+                registers = Arrays.copyOf(registers, Math.max(node.symbol + 1, oldLength * 2));
+                Arrays.fill(registers, oldLength, registers.length, -1);
+            }
+            
+            if (registers[node.symbol] < 0)
+                registers[node.symbol] = variableCount++;
+        }
+        
+        for (TreeNode child : node.getChildren())
+            allocateVariables(child);
+    }
+    
+    /**
+     * Emit an instruction, remembering the index of its first operand.
+     */
+    private void emit(int opcode, int... operands) {
+        if (size + operands.length + 1 > code.length)
+            code = Arrays.copyOf(code, Math.max(code.length * 2, size + operands.length + 1));
+        
+        code[size++] = opcode;
+        lastDst = operands.length > 0 ? size : -1;
+        
+        for (int operand : operands)
+            code[size++] = operand;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.vm;
+
+import edu.regis.cs390.rt.CalcIO;
+import edu.regis.cs390.rt.Executable;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A calculator program compiled to register based bytecode (see Opcode)
+ * by a BytecodeCompiler, and executed by a dispatch loop.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class BytecodeProgram implements Executable {
+    /**
+     * The instructions, ending with HALT.
+     */
+    private final int[] code;
+    
+    /**
+     * The number of registers used (variables, then temporaries).
+     */
+    private final int registerCount;
+    
+    /**
+     * Instantiate this program.
+     * 
+     * @param code the instructions, ending with HALT
+     * @param registerCount the number of registers used
+     */
+    public BytecodeProgram(int[] code, int registerCount) {
+        this.code = code;
+        this.registerCount = registerCount;
+    }
+    
+    /**
+     * Return the number of registers a run needs.
+     * 
+     * @return the register count
+     */
+    public int getRegisterCount() {
+        return registerCount;
+    }
+    
+    @Override
+    public void run(CalcIO io) throws IOException {
+        run(io, new int[registerCount]);
+    }
+    
+    /**
+     * Run this program using the given registers, so repeated runs
+     * needn't allocate.
+     * 
+     * @param io the program's input and output
+     * @param regs at least getRegisterCount() registers, which are cleared
+     * @throws IOException the program's input or output failed
+     */
+    public void run(CalcIO io, int[] regs) throws IOException {
+        Arrays.fill(regs, 0, registerCount, 0);
+        
+        final int[] code = this.code;
+        int pc = 0;
+        
+        while (true) {
+            switch (code[pc]) {
+                case Opcode.LOADK:
+                    regs[code[pc + 1]] = code[pc + 2];
+                    pc += 3;
+                    break;
+                    
+                case Opcode.MOVE:
+                    regs[code[pc + 1]] = regs[code[pc + 2]];
+                    pc += 3;
+                    break;
+                    
+                case Opcode.ADD:
+                    regs[code[pc + 1]] = regs[code[pc + 2]] + regs[code[pc + 3]];
+                    pc += 4;
+                    break;
+                    
+                case Opcode.SUB:
+                    regs[code[pc + 1]] = regs[code[pc + 2]] - regs[code[pc + 3]];
+                    pc += 4;
+                    break;
+                    
+                case Opcode.MUL:
+                    regs[code[pc + 1]] = regs[code[pc + 2]] * regs[code[pc + 3]];
+                    pc += 4;
+                    break;
+                    
+                case Opcode.DIV:
+                    regs[code[pc + 1]] = regs[code[pc + 2]] / regs[code[pc + 3]];
+                    pc += 4;
+                    break;
+                    
+                case Opcode.NOT:
+                    regs[code[pc + 1]] = regs[code[pc + 2]] ^ 1;
+                    pc += 3;
+                    break;
+                    
+                case Opcode.READ:
+                    regs[code[pc + 1]] = io.readInt();
+                    pc += 2;
+                    break;
+                    
+                case Opcode.READB:
+                    regs[code[pc + 1]] = io.readInt() != 0 ? 1 : 0;
+                    pc += 2;
+                    break;
+                    
+                case Opcode.WRITE:
+                    io.writeInt(regs[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                    
+                case Opcode.WRITEB:
+                    io.writeBoolean(regs[code[pc + 1]] != 0);
+                    pc += 2;
+                    break;
+                    
+                default: // HALT
+                    return;
+            }
+        }
+    }
+    
+    /**
+     * Return a listing of this program's instructions.
+     * 
+     * @return one instruction per line
+     */
+    @Override
+    public String toString() {
+        StringBuilder listing = new StringBuilder();
+        
+        for (int pc = 0; pc < code.length; pc += Opcode.OPERANDS[code[pc]] + 1) {
+            listing.append(pc).append(": ").append(Opcode.NAMES[code[pc]]);
+            
+            for (int i = 1; i <= Opcode.OPERANDS[code[pc]]; i++)
+                listing.append(' ').append(code[pc + i]);
+            
+            listing.append('\n');
+        }
+        
+        return listing.toString();
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.vm;
+
+/**
+ * A parsed program can't be compiled for execution.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class CompileError extends Exception {
+    private static final long serialVersionUID = 1L;
+    
+    public CompileError(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.vm;
+
+/**
+ * The instruction set of a BytecodeProgram. Each instruction is an opcode
+ * followed by its int operands in the code array; registers hold ints,
+ * with booleans stored as 0 (false) or 1 (true).
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class Opcode {
+    /** LOADK dst value: regs[dst] = value */
+    public static final int LOADK = 0;
+    
+    /** MOVE dst src: regs[dst] = regs[src] */
+    public static final int MOVE = 1;
+    
+    /** ADD dst a b: regs[dst] = regs[a] + regs[b] */
+    public static final int ADD = 2;
+    
+    /** SUB dst a b: regs[dst] = regs[a] - regs[b] */
+    public static final int SUB = 3;
+    
+    /** MUL dst a b: regs[dst] = regs[a] * regs[b] */
+    public static final int MUL = 4;
+    
+    /** DIV dst a b: regs[dst] = regs[a] / regs[b] */
+    public static final int DIV = 5;
+    
+    /** NOT dst a: regs[dst] = !regs[a] */
+    public static final int NOT = 6;
+    
+    /** READ dst: regs[dst] = the next input int */
+    public static final int READ = 7;
+    
+    /** READB dst: regs[dst] = the next input int != 0 */
+    public static final int READB = 8;
+    
+    /** WRITE src: output regs[src] as an int */
+    public static final int WRITE = 9;
+    
+    /** WRITEB src: output regs[src] as a boolean */
+    public static final int WRITEB = 10;
+    
+    /** HALT: stop execution */
+    public static final int HALT = 11;
+    
+    /**
+     * Mnemonics, indexed by opcode.
+     */
+    static final String[] NAMES = {"LOADK", "MOVE", "ADD", "SUB", "MUL", 
+                                   "DIV", "NOT", "READ", "READB", "WRITE",
+                                   "WRITEB", "HALT"};
+    
+    /**
+     * Operand counts, indexed by opcode.
+     */
+    static final int[] OPERANDS = {2, 2, 3, 3, 3, 3, 2, 1, 1, 1, 1, 0};
+}
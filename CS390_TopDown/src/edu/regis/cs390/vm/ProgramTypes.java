@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.vm;
+
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.parser.TreeNode.PRODUCTION;
+import java.util.BitSet;
+
+/**
+ * The static types a backend needs to execute a program: which variables
+ * are declared "bool", and whether an expression yields a boolean.
+ * Undeclared variables are treated as ints.
+ * 
+ * @author CS390_TopDown contributors
+ */
+public class ProgramTypes {
+    /**
+     * The symbols declared "bool".
+     */
+    private final BitSet booleans = new BitSet();
+    
+    /**
+     * Collect the declarations of the given program.
+     * 
+     * @param program the PROGRAM root returned by PredictiveParser.parse()
+     */
+    public ProgramTypes(TreeNode program) {
+        for (TreeNode stmt : ParseTrees.statements(program)) {
+            TreeNode declaration = ParseTrees.child(stmt, PRODUCTION.DECLARATION);
+            
+            if (declaration != null && 
+                declaration.getChildren().get(0).lexeme.equals("BOOL"))
+                booleans.set(ParseTrees.child(declaration, PRODUCTION.ID).symbol);
+        }
+    }
+    
+    /**
+     * Return true, if the given symbol is declared "bool".
+     * 
+     * @param symbol a symbol ID
+     * @return true, if the variable holds a boolean
+     */
+    public boolean isBooleanVariable(int symbol) {
+        return booleans.get(symbol);
+    }
+    
+    /**
+     * Return true, if the given EXPR, TERM or FACTOR yields a boolean.
+     * 
+     * @param node an expression node
+     * @return true, if the value is a boolean, false if it's an int
+     */
+    public boolean isBoolean(TreeNode node) {
+        switch (node.type) {
+            case EXPR:
+            case TERM:
+                if (!ParseTrees.isEmptyTail(node.getChildren().get(1)))
+                    return false;
+                
+                return isBoolean(node.getChildren().get(0));
+                
+            default: // FACTOR
+                TreeNode first = node.getChildren().get(0);
+                
+                switch (first.type) {
+                    case ID:
+                        return isBooleanVariable(first.symbol);
+                    case TRUE:
+                    case FALSE:
+                    case NOT:
+                        return true;
+                    case NUMBER:
+                        return false;
+                    default: // ( expr )
+                        return isBoolean(node.getChildren().get(1));
+                }
+        }
+    }
+}
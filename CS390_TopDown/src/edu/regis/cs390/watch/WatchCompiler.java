@@ -0,0 +1,723 @@
+/*
+ * Copyright (C) 2026 The CS390_TopDown contributors
+ */
+package edu.regis.cs390.watch;
+
+import edu.regis.cs390.Semantic.IncrementalSemanticAnalyzer;
+import edu.regis.cs390.diag.Diagnostic;
+import edu.regis.cs390.diag.DiagnosticList;
+import edu.regis.cs390.driver.CompileResult;
+import edu.regis.cs390.driver.Compiler;
+import edu.regis.cs390.driver.Phase;
+import edu.regis.cs390.limits.LimitExceededException;
+import edu.regis.cs390.parser.ParseError;
+import edu.regis.cs390.parser.ParseTrees;
+import edu.regis.cs390.parser.PredictiveParser;
+import edu.regis.cs390.parser.TreeNode;
+import edu.regis.cs390.scan.Scanner;
+import edu.regis.cs390.tok.SymbolInterner;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Watches source trees and recompiles each file as it changes, printing
+ * its diagnostics as soon as it's compiled.
+ *
+ * Usage: --watch [--phase scan|parse|semantic] [--threads n]
+ *        [--debounce ms] [--include glob] dir...
+ *
+ * Every directory below each dir is registered with a WatchService.
+ * Events are coalesced per file: a file is compiled once no event for it
+ * has arrived for the debounce time, however many events a save made, and
+ * the watch thread's work is proportional to the events, not the size of
+ * the tree. A file whose content hash is unchanged (e.g. it was touched or
+ * saved without edits) keeps its cached result and isn't recompiled.
+ *
+ * With --phase semantic, each file's analysis is kept (see
+ * IncrementalSemanticAnalyzer). An edit that keeps the number of
+ * statements is still scanned and parsed, but only the statements that
+ * differ from the previous version, and those depending on their
+ * declarations, are checked again. Its diagnostics are in source order.
+ *
+ * Compiles run on a pool of the given size, each worker reusing its own
+ * Compiler. A file that changes again while it's being compiled has its
+ * compile cancelled; the compile stops at its next CompileLimits check
+ * and its result is dropped, so a stale result is never printed after a
+ * newer one.
+ *
+ * @author CS390_TopDown contributors
+ */
+public class WatchCompiler implements Closeable {
+    /**
+     * The default quiet time before a changed file is compiled.
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 100;
+
+    private static final String USAGE =
+            "usage: --watch [--phase scan|parse|semantic] [--threads n] " +
+            "[--debounce ms] [--include glob] dir...";
+
+    /**
+     * A file changed since it was last compiled, waiting out the debounce
+     * time.
+     */
+    private static class Pending {
+        /**
+         * The System.nanoTime() of the first event of this burst.
+         */
+        final long firstEvent;
+
+        /**
+         * The System.nanoTime() at which the file is compiled, unless
+         * another event arrives first.
+         */
+        long due;
+
+        Pending(long firstEvent, long due) {
+            this.firstEvent = firstEvent;
+            this.due = due;
+        }
+    }
+
+    /**
+     * A file's last result and the hash of the content it was compiled from.
+     */
+    private static class Cached {
+        final byte[] hash;
+        final CompileResult result;
+
+        Cached(byte[] hash, CompileResult result) {
+            this.hash = hash;
+            this.result = result;
+        }
+    }
+
+    /**
+     * A file's semantic analysis, kept for its next edit. The file is
+     * parsed with its own SymbolInterner, so the statements of one version
+     * and the next have the same symbol IDs.
+     */
+    private static class Incremental {
+        final SymbolInterner symbols = new SymbolInterner();
+        final IncrementalSemanticAnalyzer analyzer = new IncrementalSemanticAnalyzer(symbols);
+    }
+
+    private final Phase phase;
+    private final long debounceNanos;
+    private final PathMatcher include;
+
+    private final WatchService watcher;
+
+    /**
+     * The directory each watch key was registered for. Only used by the
+     * thread calling watch() (and the constructor).
+     */
+    private final HashMap<WatchKey, Path> directories = new HashMap<>();
+
+    /**
+     * The changed files, in order of their due times (so the first ones
+     * are the next compiled). Only used by the thread calling watch().
+     */
+    private final LinkedHashMap<Path, Pending> pending = new LinkedHashMap<>();
+
+    /**
+     * Compiles the changed files.
+     */
+    private final ExecutorService pool;
+
+    /**
+     * The latest compile of each file, which is cancelled if the file
+     * changes again before it's done, and its generation.
+     */
+    private final ConcurrentHashMap<Path, Future<?>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Path, Long> latest = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+
+    /**
+     * Each compiled file's last result.
+     */
+    private final ConcurrentHashMap<Path, Cached> results = new ConcurrentHashMap<>();
+
+    /**
+     * Each file's semantic analysis (with --phase semantic). A compile
+     * removes its file's analysis while it uses it, so a cancelled compile
+     * that's still running can't share it with the next one.
+     */
+    private final ConcurrentHashMap<Path, Incremental> analyses = new ConcurrentHashMap<>();
+
+    /**
+     * Receives each file's diagnostics as it's compiled.
+     */
+    private final PrintStream out;
+
+    /**
+     * Watch the given source trees.
+     *
+     * @param roots directories whose files are compiled
+     * @param phase the last phase run on each file
+     * @param threads the most files compiled at once
+     * @param debounceMillis the quiet time before a changed file is compiled
+     * @param include selects the files compiled, by file name
+     * @param out receives each file's diagnostics as it's compiled
+     * @throws IOException a directory can't be registered
+     */
+    public WatchCompiler(List<Path> roots, Phase phase, int threads, long debounceMillis,
+                         PathMatcher include, PrintStream out) throws IOException {
+        this.phase = phase;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.include = include;
+        this.out = out;
+
+        watcher = FileSystems.getDefault().newWatchService();
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "watch-compile-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (Path root : roots)
+                register(root, false);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Compile every watched file, e.g. before the first watch().
+     *
+     * @return the number of files
+     * @throws IOException a directory can't be listed
+     */
+    public int compileAll() throws IOException {
+        ArrayList<Path> files = new ArrayList<>();
+
+        for (Path directory : directories.values()) {
+            try (Stream<Path> list = Files.list(directory)) {
+                list.filter(this::isSource).sorted().forEach(files::add);
+            }
+        }
+
+        long now = System.nanoTime();
+
+        for (Path file : files)
+            submit(file, now);
+
+        return files.size();
+    }
+
+    /**
+     * Wait for changes, compiling each changed file once its events stop,
+     * until close() is called.
+     *
+     * @throws InterruptedException the watching thread was interrupted
+     */
+    public void watch() throws InterruptedException {
+        try {
+            while (true) {
+                WatchKey key;
+
+                if (pending.isEmpty()) {
+                    key = watcher.take();
+                } else {
+                    long wait = pending.values().iterator().next().due - System.nanoTime();
+                    key = watcher.poll(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+                }
+
+                // take the whole burst before compiling anything
+                for (; key != null; key = watcher.poll())
+                    handle(key);
+
+                submitDue();
+            }
+
+        } catch (ClosedWatchServiceException e) {
+            // closed by close()
+        }
+    }
+
+    /**
+     * Return a file's last result.
+     *
+     * @param file a watched file
+     * @return its last result, or null if it hasn't been compiled
+     */
+    public CompileResult getResult(Path file) {
+        Cached cached = results.get(file);
+
+        return cached == null ? null : cached.result;
+    }
+
+    /**
+     * Stop watching, and cancel the compiles in progress.
+     */
+    @Override
+    public void close() {
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            // nothing more to watch either way
+        }
+
+        pool.shutdownNow();
+    }
+
+    /**
+     * Run a watch from the command line until the JVM is stopped.
+     *
+     * @param args the options (see the class comment)
+     * @param out receives the diagnostics
+     * @return the process exit status
+     */
+    public static int run(String[] args, PrintStream out) {
+        Phase phase = Phase.SEMANTIC;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long debounce = DEFAULT_DEBOUNCE_MILLIS;
+        String include = "*";
+        ArrayList<Path> roots = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--phase":
+                        try {
+                            phase = Phase.fromName(value(args, ++i));
+                        } catch (IllegalArgumentException e) {
+                            throw new IllegalArgumentException("unknown phase: " + args[i]);
+                        }
+                        break;
+
+                    case "--threads":
+                        threads = (int) number(args, ++i, 1, Integer.MAX_VALUE);
+                        break;
+
+                    case "--debounce":
+                        debounce = number(args, ++i, 0, Long.MAX_VALUE / 1000000);
+                        break;
+
+                    case "--include":
+                        include = value(args, ++i);
+                        break;
+
+                    default:
+                        if (args[i].startsWith("--"))
+                            throw new IllegalArgumentException("unknown option: " + args[i]);
+
+                        Path root = Paths.get(args[i]);
+
+                        if (!Files.isDirectory(root))
+                            throw new IllegalArgumentException("not a directory: " + args[i]);
+
+                        roots.add(root);
+                }
+            }
+
+            if (roots.isEmpty())
+                throw new IllegalArgumentException("no directories to watch");
+
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return 2;
+        }
+
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + include);
+
+        try (WatchCompiler watch = new WatchCompiler(roots, phase, threads, debounce,
+                                                     matcher, out)) {
+            int files = watch.compileAll();
+            out.println("watching " + files + " files in " + watch.directories.size() +
+                        " directories");
+
+            watch.watch();
+            return 0;
+
+        } catch (IOException e) {
+            out.println(e.toString());
+            return 1;
+
+        } catch (InterruptedException e) {
+            return 0;
+        }
+    }
+
+    private static long number(String[] args, int i, long min, long max) {
+        try {
+            long number = Long.parseLong(value(args, i));
+
+            if (number >= min && number <= max)
+                return number;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+
+        throw new IllegalArgumentException("invalid value: " + args[i - 1] + " " + args[i]);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length)
+            throw new IllegalArgumentException(args[i - 1] + " requires a value");
+
+        return args[i];
+    }
+
+    /**
+     * Register the given directory and every directory below it, marking
+     * their files changed, if requested (for a directory created while
+     * watching).
+     */
+    private void register(Path root, boolean markChanged) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+                    throws IOException {
+                WatchKey key = dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (markChanged && isSource(file))
+                    changed(file, System.nanoTime());
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Mark the files named by a watch key's events changed.
+     */
+    private void handle(WatchKey key) {
+        Path directory = directories.get(key);
+        long now = System.nanoTime();
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null)
+                break;
+
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events were lost: recheck every file here; the content
+                // hashes keep the unchanged ones from being recompiled
+                try (Stream<Path> list = Files.list(directory)) {
+                    list.filter(this::isSource).forEach(file -> changed(file, now));
+                } catch (IOException e) {
+                    // the directory is gone; its key is cancelled below
+                }
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    register(path, true);
+                } catch (IOException e) {
+                    // deleted again already
+                }
+
+            } else if (include.matches(path.getFileName()) && !Files.isDirectory(path)) {
+                changed(path, now);
+            }
+        }
+
+        if (!key.reset())
+            directories.remove(key);
+    }
+
+    /**
+     * Mark a file changed, restarting its debounce time.
+     */
+    private void changed(Path file, long now) {
+        Pending previous = pending.remove(file);
+
+        if (previous == null)
+            previous = new Pending(now, 0);
+
+        // reinserted last, as its due time is the latest
+        previous.due = now + debounceNanos;
+        pending.put(file, previous);
+    }
+
+    /**
+     * Compile the changed files whose debounce time is over.
+     */
+    private void submitDue() {
+        long now = System.nanoTime();
+
+        for (Iterator<Map.Entry<Path, Pending>> i = pending.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry<Path, Pending> entry = i.next();
+
+            if (entry.getValue().due > now)
+                break;
+
+            i.remove();
+            submit(entry.getKey(), entry.getValue().firstEvent);
+        }
+    }
+
+    /**
+     * Start compiling a file, cancelling its compile in progress, if any.
+     *
+     * @param changedAt the System.nanoTime() of the change being compiled
+     */
+    private void submit(Path file, long changedAt) {
+        long generation = generations.incrementAndGet();
+        latest.put(file, generation);
+
+        Future<?> previous = inFlight.put(file,
+                pool.submit(() -> compile(file, generation, changedAt)));
+
+        if (previous != null)
+            previous.cancel(true);
+    }
+
+    /**
+     * Compile a file and print its diagnostics, unless it has changed
+     * again in the meantime or its content is unchanged.
+     */
+    private void compile(Path file, long generation, long changedAt) {
+        try {
+            byte[] source;
+
+            try {
+                source = Files.readAllBytes(file);
+            } catch (NoSuchFileException e) {
+                removed(file, generation);
+                return;
+            }
+
+            byte[] hash = hash(source);
+            Cached cached = results.get(file);
+
+            if (cached != null && Arrays.equals(cached.hash, hash)) {
+                finish(file, generation, null, 0, null);
+                return;
+            }
+
+            if (phase == Phase.SEMANTIC) {
+                analyze(file, source, hash, generation, changedAt);
+                return;
+            }
+
+            CompileResult result = Compiler.forCurrentThread()
+                    .compile(file, source, source.length, phase, false);
+
+            finish(file, generation, new Cached(hash, result), changedAt, null);
+
+        } catch (CancellationException e) {
+            // superseded by a newer change
+        } catch (IOException | RuntimeException e) {
+            if (isLatest(file, generation))
+                out.println(file + ": " + e);
+        }
+    }
+
+    /**
+     * Scan, parse and semantically check a file, reusing its previous
+     * analysis when the number of statements is unchanged, and finish.
+     */
+    private void analyze(Path file, byte[] source, byte[] hash, long generation,
+                         long changedAt) throws IOException {
+        long start = System.nanoTime();
+        Incremental previous = analyses.remove(file);
+        Incremental analysis = previous != null ? previous : new Incremental();
+        char[] text = new String(source, StandardCharsets.UTF_8).toCharArray();
+        Scanner scanner = new Scanner(text, text.length, file.toString(), analysis.symbols);
+        List<Diagnostic> found;
+
+        try {
+            TreeNode tree = new PredictiveParser(scanner).parse();
+            ArrayList<TreeNode> statements = ParseTrees.statements(tree);
+            IncrementalSemanticAnalyzer analyzer = analysis.analyzer;
+
+            if (previous != null && statements.size() == analyzer.getStatementCount()) {
+                BitSet changed = new BitSet();
+
+                for (int i = 0; i < statements.size(); i++) {
+                    if (!sameStatement(statements.get(i), analyzer.getStatement(i)))
+                        changed.set(i);
+                }
+
+                found = changed.isEmpty() ? analyzer.getDiagnostics()
+                                          : analyzer.replaceStatements(changed, statements);
+            } else {
+                found = analyzer.analyzeProgram(tree);
+            }
+
+        } catch (ParseError e) {
+            found = Collections.singletonList(e.getDiagnostic());
+            analysis = null;
+        } catch (LimitExceededException e) {
+            found = Collections.singletonList(e.getDiagnostic());
+            analysis = null;
+        }
+
+        // a statement's findings can repeat, e.g. an undeclared variable used twice
+        DiagnosticList diagnostics = new DiagnosticList();
+
+        for (Diagnostic diagnostic : found)
+            diagnostics.report(diagnostic);
+
+        CompileResult result = new CompileResult(file, source.length, scanner.getTokenCount(),
+                diagnostics.getDiagnostics(), System.nanoTime() - start, null);
+
+        finish(file, generation, new Cached(hash, result), changedAt, analysis);
+    }
+
+    /**
+     * Return true, if the given statements have the same structure,
+     * symbols and lines.
+     */
+    private static boolean sameStatement(TreeNode a, TreeNode b) {
+        ArrayDeque<TreeNode> pending = new ArrayDeque<>();
+        pending.push(a);
+        pending.push(b);
+
+        while (!pending.isEmpty()) {
+            TreeNode left = pending.pop();
+            TreeNode right = pending.pop();
+
+            if (left.type != right.type || left.symbol != right.symbol ||
+                    left.line != right.line || !Objects.equals(left.lexeme, right.lexeme))
+                return false;
+
+            ArrayList<TreeNode> leftChildren = left.getChildren();
+            ArrayList<TreeNode> rightChildren = right.getChildren();
+
+            if (leftChildren.size() != rightChildren.size())
+                return false;
+
+            for (int i = 0; i < leftChildren.size(); i++) {
+                pending.push(leftChildren.get(i));
+                pending.push(rightChildren.get(i));
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Record and print a compile's result, if it's still the file's latest.
+     *
+     * @param cached the new result, or null if the content was unchanged
+     * @param analysis the file's semantic analysis to keep, or null
+     */
+    private synchronized void finish(Path file, long generation, Cached cached, long changedAt,
+                                     Incremental analysis) {
+        if (!isLatest(file, generation))
+            return;
+
+        inFlight.remove(file);
+
+        if (analysis != null)
+            analyses.put(file, analysis);
+
+        if (cached == null)
+            return;
+
+        results.put(file, cached);
+        print(cached.result, System.nanoTime() - changedAt);
+    }
+
+    /**
+     * Forget a deleted file's result.
+     */
+    private synchronized void removed(Path file, long generation) {
+        if (!isLatest(file, generation))
+            return;
+
+        inFlight.remove(file);
+        latest.remove(file);
+        analyses.remove(file);
+
+        if (results.remove(file) != null)
+            out.println(file + ": deleted");
+    }
+
+    private boolean isLatest(Path file, long generation) {
+        Long current = latest.get(file);
+
+        return current != null && current == generation;
+    }
+
+    /**
+     * Print a file's diagnostics and a summary line.
+     */
+    private void print(CompileResult result, long latencyNanos) {
+        StringBuilder text = new StringBuilder();
+
+        for (Diagnostic diagnostic : result.diagnostics) {
+            text.append(result.file).append(':');
+
+            if (diagnostic.line != Diagnostic.NO_LINE)
+                text.append(diagnostic.line).append(':');
+
+            text.append(' ').append(diagnostic.message).append(System.lineSeparator());
+        }
+
+        int errors = result.getErrorCount();
+
+        text.append(String.format("%s: %s, compiled in %.1f ms, %.1f ms after the change%n",
+                result.file, errors == 0 ? "ok" : errors + " errors",
+                result.elapsedNanos / 1e6, latencyNanos / 1e6));
+
+        out.print(text);
+    }
+
+    private boolean isSource(Path path) {
+        return include.matches(path.getFileName()) && Files.isRegularFile(path);
+    }
+
+    private static byte[] hash(byte[] source) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(source);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every JVM", e);
+        }
+    }
+}